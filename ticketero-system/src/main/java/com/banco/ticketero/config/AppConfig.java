@@ -1,14 +1,26 @@
 package com.banco.ticketero.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
 @Configuration
 public class AppConfig {
 
+    // Sin timeouts un envío colgado retiene su lote del outbox más allá del lease
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(
+        RestTemplateBuilder builder,
+        @Value("${ticketero.http.connect-timeout:5s}") Duration connectTimeout,
+        @Value("${ticketero.http.read-timeout:40s}") Duration readTimeout
+    ) {
+        return builder
+            .setConnectTimeout(connectTimeout)
+            .setReadTimeout(readTimeout)
+            .build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,100 @@
+package com.banco.ticketero.config;
+
+import com.banco.ticketero.service.ScheduledJobMonitor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.support.ScheduledMethodRunnable;
+import org.springframework.util.ClassUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Un scheduler por familia de jobs ({@code @Scheduled(scheduler = ...)}) para que
+ * un job lento de una familia no retrase a las demás: Telegram (HTTP) y
+ * mantenimiento (archivado) en hilos virtuales, cola de tickets en hilos propios.
+ * Cada job queda instrumentado por {@link ScheduledJobMonitor}.
+ */
+@Configuration
+public class SchedulingConfig {
+
+    public static final String QUEUE_SCHEDULER = "queueScheduler";
+    public static final String TELEGRAM_SCHEDULER = "telegramScheduler";
+    public static final String MAINTENANCE_SCHEDULER = "maintenanceScheduler";
+
+    @Bean(QUEUE_SCHEDULER)
+    public ThreadPoolTaskScheduler queueScheduler(
+        ScheduledJobMonitor monitor,
+        @Value("${ticketero.scheduler.pools.queue:2}") int poolSize
+    ) {
+        return scheduler(monitor, "queue", poolSize, Thread.ofPlatform().daemon().name("queue-job-", 0).factory());
+    }
+
+    @Bean(TELEGRAM_SCHEDULER)
+    public ThreadPoolTaskScheduler telegramScheduler(
+        ScheduledJobMonitor monitor,
+        @Value("${ticketero.scheduler.pools.telegram:2}") int poolSize
+    ) {
+        return scheduler(monitor, "telegram", poolSize, Thread.ofVirtual().name("telegram-job-", 0).factory());
+    }
+
+    @Bean(MAINTENANCE_SCHEDULER)
+    public ThreadPoolTaskScheduler maintenanceScheduler(
+        ScheduledJobMonitor monitor,
+        @Value("${ticketero.scheduler.pools.maintenance:2}") int poolSize
+    ) {
+        return scheduler(monitor, "maintenance", poolSize, Thread.ofVirtual().name("maintenance-job-", 0).factory());
+    }
+
+    @Bean
+    public HealthIndicator scheduledJobsHealthIndicator(ScheduledJobMonitor monitor) {
+        return monitor::health;
+    }
+
+    private static ThreadPoolTaskScheduler scheduler(ScheduledJobMonitor monitor, String family, int poolSize,
+                                                     ThreadFactory threadFactory) {
+        MonitoredTaskScheduler scheduler = new MonitoredTaskScheduler(monitor, family);
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadFactory(threadFactory);
+        return scheduler;
+    }
+
+    /** Envuelve los jobs de fixed-delay (los únicos que usa la aplicación) para medirlos. */
+    static class MonitoredTaskScheduler extends ThreadPoolTaskScheduler {
+
+        private final ScheduledJobMonitor monitor;
+        private final String family;
+
+        MonitoredTaskScheduler(ScheduledJobMonitor monitor, String family) {
+            this.monitor = monitor;
+            this.family = family;
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, Instant startTime, Duration delay) {
+            Duration initialDelay = Duration.between(getClock().instant(), startTime);
+            return super.scheduleWithFixedDelay(
+                monitor.monitor(jobName(task), family, delay, initialDelay.isNegative() ? Duration.ZERO : initialDelay, task),
+                startTime, delay);
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, Duration delay) {
+            return super.scheduleWithFixedDelay(
+                monitor.monitor(jobName(task), family, delay, Duration.ZERO, task), delay);
+        }
+
+        private static String jobName(Runnable task) {
+            if (task instanceof ScheduledMethodRunnable scheduled) {
+                return ClassUtils.getUserClass(scheduled.getTarget()).getSimpleName()
+                    + "." + scheduled.getMethod().getName();
+            }
+            return task.toString();
+        }
+    }
+}
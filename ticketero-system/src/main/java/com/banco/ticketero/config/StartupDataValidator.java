@@ -1,5 +1,6 @@
 package com.banco.ticketero.config;
 
+import com.banco.ticketero.model.entity.Advisor;
 import com.banco.ticketero.repository.AdvisorRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -16,7 +17,7 @@ public class StartupDataValidator implements ApplicationRunner {
 
     @Override
     public void run(ApplicationArguments args) {
-        long availableAdvisors = advisorRepository.countByStatus("AVAILABLE");
+        long availableAdvisors = advisorRepository.countByStatus(Advisor.AdvisorStatus.AVAILABLE);
         long totalAdvisors = advisorRepository.count();
         
         log.info("=== STARTUP DATA VALIDATION ===");
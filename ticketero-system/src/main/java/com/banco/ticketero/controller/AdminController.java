@@ -2,12 +2,16 @@ package com.banco.ticketero.controller;
 
 import com.banco.ticketero.model.dto.request.UpdateAdvisorStatusRequest;
 import com.banco.ticketero.model.dto.response.DashboardResponse;
+import com.banco.ticketero.model.dto.response.OutboxArchiveResponse;
+import com.banco.ticketero.service.AdminEventStream;
 import com.banco.ticketero.service.AdminService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Map;
 
@@ -18,6 +22,7 @@ import java.util.Map;
 public class AdminController {
 
     private final AdminService adminService;
+    private final AdminEventStream adminEventStream;
 
     @GetMapping("/dashboard")
     public ResponseEntity<DashboardResponse> getDashboard() {
@@ -26,6 +31,18 @@ public class AdminController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        log.info("GET /api/admin/stream");
+        return adminEventStream.subscribe();
+    }
+
+    @GetMapping("/outbox/archive")
+    public ResponseEntity<OutboxArchiveResponse> getOutboxArchive() {
+        log.info("GET /api/admin/outbox/archive");
+        return ResponseEntity.ok(adminService.getOutboxArchive());
+    }
+
     @GetMapping("/queues/{type}")
     public ResponseEntity<?> getQueueDetail(@PathVariable String type) {
         log.info("GET /api/admin/queues/[SANITIZED]");
@@ -1,11 +1,18 @@
 package com.banco.ticketero.controller;
 
+import com.banco.ticketero.model.dto.telegram.TelegramUpdate;
 import com.banco.ticketero.service.TelegramBotService;
+import com.banco.ticketero.service.TelegramUpdateDispatcher;
+import com.banco.ticketero.service.WebhookReply;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.Map;
 
 @RestController
@@ -15,18 +22,26 @@ import java.util.Map;
 public class TelegramWebhookController {
 
     private final TelegramBotService telegramBotService;
+    private final TelegramUpdateDispatcher telegramUpdateDispatcher;
 
+    @Value("${ticketero.telegram.webhook.inline-reply-timeout:50ms}")
+    private Duration inlineReplyTimeout;
+
+    // Se encola en la franja del chat. Si la franja estaba libre se espera brevemente la primera
+    // respuesta, que vuelve en el cuerpo como llamada a sendMessage; si no, o si tarda más, se
+    // responde OK de inmediato y el bot la envía aparte
     @PostMapping("/webhook")
-    public ResponseEntity<String> handleWebhook(@RequestBody Map<String, Object> update) {
-        log.info("📨 Webhook recibido: {}", update);
-        
-        try {
-            telegramBotService.processUpdate(update);
-            return ResponseEntity.ok("OK");
-        } catch (Exception e) {
-            log.error("❌ Error procesando webhook: {}", e.getMessage(), e);
-            return ResponseEntity.ok("OK"); // Telegram requiere 200 OK siempre
+    public ResponseEntity<Object> handleWebhook(@RequestBody TelegramUpdate update) {
+        log.debug("📨 Webhook recibido: {}", update);
+
+        WebhookReply reply = new WebhookReply();
+        if (!telegramUpdateDispatcher.submit(update, reply)) {
+            // Telegram reintenta la entrega ante cualquier respuesta distinta de 2xx
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("BUSY");
         }
+        return reply.await(inlineReplyTimeout)
+            .<ResponseEntity<Object>>map(method -> ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(method))
+            .orElseGet(() -> ResponseEntity.ok("OK"));
     }
 
     @GetMapping("/webhook/info")
@@ -1,5 +1,6 @@
 package com.banco.ticketero.controller;
 
+import com.banco.ticketero.model.QueueType;
 import com.banco.ticketero.model.entity.Advisor;
 import com.banco.ticketero.model.entity.Ticket;
 import com.banco.ticketero.repository.AdvisorRepository;
@@ -64,7 +65,7 @@ public class TestController {
     @GetMapping("/advisors")
     public Map<String, Object> checkAdvisors() {
         List<Advisor> all = advisorRepository.findAll();
-        List<Advisor> caja = advisorRepository.findAvailableAdvisorsForQueue("CAJA");
+        List<Advisor> caja = advisorRepository.findAvailableAdvisorsForQueue(QueueType.CAJA);
         
         log.info("📊 Total advisors: {}", all.size());
         all.forEach(advisor -> 
@@ -7,9 +7,11 @@ import com.banco.ticketero.service.TicketService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.UUID;
 
 @RestController
@@ -35,10 +37,15 @@ public class TicketController {
             .orElse(ResponseEntity.notFound().build());
     }
 
+    // Sin date se busca en el día de hoy; con el mismo número en varias sucursales responde 409
     @GetMapping("/numero/{numero}")
-    public ResponseEntity<TicketResponse> getByNumero(@PathVariable String numero) {
-        log.info("GET /api/tickets/numero/{}", numero);
-        return ticketService.findByNumero(numero)
+    public ResponseEntity<TicketResponse> getByNumero(
+        @PathVariable String numero,
+        @RequestParam(required = false) String branchOffice,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ) {
+        log.info("GET /api/tickets/numero/{} - branchOffice: {}, date: {}", numero, branchOffice, date);
+        return ticketService.findByNumero(numero, branchOffice, date)
             .map(ResponseEntity::ok)
             .orElse(ResponseEntity.notFound().build());
     }
@@ -0,0 +1,22 @@
+package com.banco.ticketero.exception;
+
+import java.util.List;
+
+/**
+ * El número de ticket solo es único por sucursal y día: si coincide con más de un
+ * ticket no se elige ninguno y se responde 409 con los candidatos.
+ */
+public class AmbiguousTicketNumberException extends RuntimeException {
+
+    private final List<String> candidates;
+
+    public AmbiguousTicketNumberException(String numero, List<String> candidates) {
+        super("Ticket number " + numero + " matches " + candidates.size()
+            + " tickets; specify branchOffice");
+        this.candidates = candidates;
+    }
+
+    public List<String> getCandidates() {
+        return candidates;
+    }
+}
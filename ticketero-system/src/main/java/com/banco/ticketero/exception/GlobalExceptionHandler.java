@@ -27,6 +27,14 @@ public class GlobalExceptionHandler {
             .body(new ErrorResponse("Validation failed", 400, errors, LocalDateTime.now()));
     }
 
+    @ExceptionHandler(AmbiguousTicketNumberException.class)
+    public ResponseEntity<ErrorResponse> handleAmbiguousNumber(AmbiguousTicketNumberException ex) {
+        log.warn("Ambiguous ticket number: {}", ex.getMessage());
+        return ResponseEntity
+            .status(409)
+            .body(new ErrorResponse(ex.getMessage(), 409, ex.getCandidates(), LocalDateTime.now()));
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ErrorResponse> handleRuntime(RuntimeException ex) {
         log.error("Runtime error: {}", ex.getMessage());
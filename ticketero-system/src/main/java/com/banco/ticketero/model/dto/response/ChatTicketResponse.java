@@ -0,0 +1,13 @@
+package com.banco.ticketero.model.dto.response;
+
+import com.banco.ticketero.model.QueueType;
+import com.banco.ticketero.model.TicketStatus;
+
+public record ChatTicketResponse(
+    String numero,
+    QueueType queueType,
+    TicketStatus status,
+    Integer positionInQueue,
+    Integer estimatedWaitMinutes,
+    Integer moduleNumber
+) {}
@@ -1,5 +1,9 @@
 package com.banco.ticketero.model.dto.response;
 
+import com.banco.ticketero.model.QueueType;
+
+import java.util.Map;
+
 public record DashboardResponse(
     long totalTickets,
     long waitingTickets,
@@ -7,5 +11,14 @@ public record DashboardResponse(
     long completedTickets,
     long availableAdvisors,
     long busyAdvisors,
-    long onBreakAdvisors
-) {}
+    long onBreakAdvisors,
+    Map<QueueType, QueueCounts> queues
+) {
+
+    public record QueueCounts(
+        long totalTickets,
+        long waitingTickets,
+        long inProgressTickets,
+        long completedTickets
+    ) {}
+}
@@ -0,0 +1,22 @@
+package com.banco.ticketero.model.dto.response;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record OutboxArchiveResponse(
+    boolean archiveEnabled,
+    long hotMessages,
+    int retentionDays,
+    long totalArchivedRows,
+    long totalArchiveBytes,
+    List<Partition> partitions
+) {
+
+    // Filas estimadas por estadísticas de PostgreSQL (reltuples), no un COUNT exacto
+    public record Partition(
+        String name,
+        LocalDate day,
+        long estimatedRows,
+        long bytes
+    ) {}
+}
@@ -0,0 +1,7 @@
+package com.banco.ticketero.model.dto.telegram;
+
+/** Mensaje de un update: solo el chat de origen y el texto. */
+public record TelegramMessage(
+    Long chatId,
+    String text
+) {}
@@ -0,0 +1,13 @@
+package com.banco.ticketero.model.dto.telegram;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+/**
+ * Subconjunto del Update de la Bot API que usa el bot. Se lee con
+ * {@link TelegramUpdateDeserializer}, que salta el resto de campos sin construirlos.
+ */
+@JsonDeserialize(using = TelegramUpdateDeserializer.class)
+public record TelegramUpdate(
+    long updateId,
+    TelegramMessage message
+) {}
@@ -0,0 +1,82 @@
+package com.banco.ticketero.model.dto.telegram;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Lee un Update token a token: toma update_id, message.text y message.chat.id y
+ * salta con {@code skipChildren()} todo lo demás (from, entities, fotos,
+ * callback_query...), que así nunca llega a convertirse en mapas.
+ */
+public class TelegramUpdateDeserializer extends StdDeserializer<TelegramUpdate> {
+
+    public TelegramUpdateDeserializer() {
+        super(TelegramUpdate.class);
+    }
+
+    @Override
+    public TelegramUpdate deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        long updateId = 0;
+        TelegramMessage message = null;
+        for (JsonToken token = firstField(parser); token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "update_id" -> updateId = parser.getLongValue();
+                case "message" -> message = readMessage(parser);
+                default -> parser.skipChildren();
+            }
+        }
+        if (parser.currentToken() != JsonToken.END_OBJECT) {
+            return (TelegramUpdate) context.handleUnexpectedToken(TelegramUpdate.class, parser);
+        }
+        return new TelegramUpdate(updateId, message);
+    }
+
+    private static TelegramMessage readMessage(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        Long chatId = null;
+        String text = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "text" -> text = parser.getValueAsString();
+                case "chat" -> chatId = readChatId(parser);
+                default -> parser.skipChildren();
+            }
+        }
+        return new TelegramMessage(chatId, text);
+    }
+
+    private static Long readChatId(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        Long chatId = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if ("id".equals(field) && parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                chatId = parser.getLongValue();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return chatId;
+    }
+
+    // Jackson entrega el parser en START_OBJECT o ya en el primer campo
+    private static JsonToken firstField(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        return token == JsonToken.START_OBJECT ? parser.nextToken() : token;
+    }
+}
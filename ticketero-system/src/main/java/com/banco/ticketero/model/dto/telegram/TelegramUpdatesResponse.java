@@ -0,0 +1,12 @@
+package com.banco.ticketero.model.dto.telegram;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+
+/** Respuesta de getUpdates. */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record TelegramUpdatesResponse(
+    boolean ok,
+    List<TelegramUpdate> result
+) {}
@@ -1,9 +1,14 @@
 package com.banco.ticketero.model.entity;
 
+import com.banco.ticketero.model.QueueType;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
 
 @Entity
 @Table(name = "advisor")
@@ -31,8 +36,13 @@ public class Advisor {
     @Column(name = "module_number", nullable = false)
     private Integer moduleNumber;
 
-    @Column(name = "supported_queues", length = 500)
-    private String supportedQueues;
+    // Una fila por cola en advisor_queue (antes CSV con LIKE, sin índice y con falsos positivos)
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "advisor_queue", joinColumns = @JoinColumn(name = "advisor_id"))
+    @Enumerated(EnumType.STRING)
+    @Column(name = "queue_type", nullable = false, length = 20)
+    @BatchSize(size = 50)
+    private Set<QueueType> supportedQueues;
 
     @Column(name = "assigned_tickets_count")
     @Builder.Default
@@ -41,7 +51,32 @@ public class Advisor {
     @Column(name = "last_assignment_at")
     private LocalDateTime lastAssignmentAt;
 
+    public boolean supports(QueueType queueType) {
+        return supportedQueues != null && supportedQueues.contains(queueType);
+    }
+
     public enum AdvisorStatus {
         AVAILABLE, BUSY, OFFLINE, BREAK
     }
+
+    public static class AdvisorBuilder {
+
+        // Lombok no genera el setter del builder si ya existe un método con ese nombre
+        public AdvisorBuilder supportedQueues(Set<QueueType> supportedQueues) {
+            this.supportedQueues = supportedQueues;
+            return this;
+        }
+
+        // Compatibilidad con el formato CSV anterior: "CAJA,PERSONAL_BANKER"
+        public AdvisorBuilder supportedQueues(String csv) {
+            Set<QueueType> queues = EnumSet.noneOf(QueueType.class);
+            if (csv != null && !csv.isBlank()) {
+                Arrays.stream(csv.split(","))
+                    .map(String::trim)
+                    .map(QueueType::valueOf)
+                    .forEach(queues::add);
+            }
+            return supportedQueues(queues);
+        }
+    }
 }
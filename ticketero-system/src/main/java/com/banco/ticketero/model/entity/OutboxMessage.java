@@ -7,7 +7,9 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "outbox_message")
+// En Flyway el índice es parcial (WHERE estado_envio = 'PENDING'); éste es su equivalente
+// para el esquema que genera Hibernate en tests
+@Table(name = "outbox_message", indexes = @Index(name = "idx_outbox_pending_due", columnList = "estado_envio, next_attempt_at, id"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -15,8 +17,10 @@ import java.util.UUID;
 @Builder
 public class OutboxMessage {
 
+    // Secuencia con bloques de 50 ids: IDENTITY impide los INSERT por lotes de Hibernate
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_message_seq")
+    @SequenceGenerator(name = "outbox_message_seq", sequenceName = "outbox_message_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "ticket_id", nullable = false)
@@ -45,6 +49,14 @@ public class OutboxMessage {
     @Column(name = "chat_id", length = 50)
     private String chatId;
 
+    // Lease del nodo que reclamó el mensaje; vencido, otro nodo puede reintentarlo
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    // Próximo intento de envío: fecha_programada al crear, luego backoff tras cada fallo
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
     public enum MessageStatus {
         PENDING, SENT, FAILED
     }
@@ -54,5 +66,8 @@ public class OutboxMessage {
         if (fechaProgramada == null) {
             fechaProgramada = LocalDateTime.now();
         }
+        if (nextAttemptAt == null) {
+            nextAttemptAt = fechaProgramada;
+        }
     }
 }
@@ -0,0 +1,30 @@
+package com.banco.ticketero.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Último update_id de getUpdates procesado por el bot. Lo escribe
+ * {@code TelegramPollingService} al terminar cada lote.
+ */
+@Entity
+@Table(name = "telegram_poll_offset")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TelegramPollOffset {
+
+    @Id
+    @Column(name = "bot_key", length = 100)
+    private String botKey;
+
+    @Column(name = "last_update_id", nullable = false)
+    private Long lastUpdateId;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
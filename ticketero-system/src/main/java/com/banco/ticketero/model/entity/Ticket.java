@@ -7,6 +7,7 @@ import lombok.*;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
+import java.util.regex.Pattern;
 
 @Entity
 @Table(name = "ticket")
@@ -17,11 +18,14 @@ import java.util.UUID;
 @Builder
 public class Ticket {
 
+    private static final Pattern DIGITS = Pattern.compile("^\\d+$");
+
     @Id
     @Column(name = "codigo_referencia")
     private UUID codigoReferencia;
 
-    @Column(nullable = false, unique = true, length = 10)
+    // Único por sucursal y día: la numeración se reinicia diariamente
+    @Column(nullable = false, length = 10)
     private String numero;
 
     @Column(name = "national_id", nullable = false, length = 50)
@@ -30,6 +34,10 @@ public class Ticket {
     @Column(length = 20)
     private String telefono;
 
+    // Chat de Telegram normalizado desde telefono; indexado para /mis-tickets
+    @Column(name = "chat_id", length = 20)
+    private String chatId;
+
     @Column(name = "branch_office", nullable = false, length = 100)
     private String branchOffice;
 
@@ -94,10 +102,30 @@ public class Ticket {
         if (expiresAt == null && createdAt != null && vigenciaMinutos != null) {
             expiresAt = createdAt.plusMinutes(vigenciaMinutos);
         }
+        chatId = chatIdOf(telefono);
     }
     
     @PreUpdate
     protected void onUpdate() {
         this.updatedAt = LocalDateTime.now();
+        this.chatId = chatIdOf(telefono);
+    }
+
+    /** Chat de Telegram al que se notifica según {@code telefono}; null si no es un formato reconocido. */
+    public static String chatIdOf(String telefono) {
+        if (telefono == null || telefono.isEmpty()) return null;
+
+        // Si es formato chileno (+56...), extraer el número después de +56
+        if (telefono.startsWith("+56")) {
+            return telefono.substring(3);
+        }
+
+        // Si es solo números (chat_id de Telegram), usar como está
+        if (DIGITS.matcher(telefono).matches()) {
+            return telefono;
+        }
+
+        // Si no es un formato reconocido, no enviar notificaciones
+        return null;
     }
 }
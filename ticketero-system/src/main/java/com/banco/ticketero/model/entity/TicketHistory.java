@@ -0,0 +1,81 @@
+package com.banco.ticketero.model.entity;
+
+import com.banco.ticketero.model.QueueType;
+import com.banco.ticketero.model.TicketStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Ticket en estado terminal fuera de la tabla viva. Solo lectura para reportes y
+ * consultas de tickets antiguos; lo escribe {@code TicketArchiver}.
+ */
+@Entity
+@Table(name = "ticket_history")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TicketHistory {
+
+    @Id
+    @Column(name = "codigo_referencia")
+    private UUID codigoReferencia;
+
+    @Column(nullable = false, length = 10)
+    private String numero;
+
+    @Column(name = "national_id", nullable = false, length = 50)
+    private String nationalId;
+
+    @Column(length = 20)
+    private String telefono;
+
+    @Column(name = "branch_office", nullable = false, length = 100)
+    private String branchOffice;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "queue_type", nullable = false, length = 20)
+    private QueueType queueType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TicketStatus status;
+
+    @Column(name = "position_in_queue")
+    private Integer positionInQueue;
+
+    @Column(name = "estimated_wait_minutes")
+    private Integer estimatedWaitMinutes;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Sin FK: el asesor puede cambiar o desaparecer; se guarda el nombre de ese momento
+    @Column(name = "assigned_advisor_id")
+    private Long assignedAdvisorId;
+
+    @Column(name = "assigned_advisor_name", length = 100)
+    private String assignedAdvisorName;
+
+    @Column(name = "assigned_module_number")
+    private Integer assignedModuleNumber;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "cancelled_at")
+    private LocalDateTime cancelledAt;
+
+    @Column(name = "cancel_reason", length = 50)
+    private String cancelReason;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,39 @@
+package com.banco.ticketero.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Entity
+@Table(
+    name = "ticket_number_sequence",
+    uniqueConstraints = @UniqueConstraint(
+        name = "uk_ticket_number_sequence",
+        columnNames = {"branch_office", "queue_prefix", "business_date"}
+    )
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TicketNumberSequence {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "branch_office", nullable = false, length = 100)
+    private String branchOffice;
+
+    @Column(name = "queue_prefix", nullable = false, length = 5)
+    private String queuePrefix;
+
+    @Column(name = "business_date", nullable = false)
+    private LocalDate businessDate;
+
+    // Primer número aún no reservado por ningún nodo
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+}
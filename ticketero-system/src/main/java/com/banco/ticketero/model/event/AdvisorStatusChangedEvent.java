@@ -0,0 +1,28 @@
+package com.banco.ticketero.model.event;
+
+import com.banco.ticketero.model.entity.Advisor;
+import com.banco.ticketero.model.entity.Advisor.AdvisorStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cambio de estado de un asesor (fin de atención, vuelta de BREAK, cambio desde
+ * el panel de administración). Igual que los eventos de ticket, los listeners lo
+ * procesan tras el commit.
+ */
+public record AdvisorStatusChangedEvent(
+    Long advisorId,
+    AdvisorStatus previousStatus,
+    AdvisorStatus newStatus,
+    LocalDateTime occurredAt
+) {
+
+    public static AdvisorStatusChangedEvent transition(Advisor advisor, AdvisorStatus previousStatus) {
+        return new AdvisorStatusChangedEvent(
+            advisor.getId(),
+            previousStatus,
+            advisor.getStatus(),
+            LocalDateTime.now()
+        );
+    }
+}
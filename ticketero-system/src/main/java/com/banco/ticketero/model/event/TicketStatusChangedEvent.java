@@ -0,0 +1,61 @@
+package com.banco.ticketero.model.event;
+
+import com.banco.ticketero.model.QueueType;
+import com.banco.ticketero.model.TicketStatus;
+import com.banco.ticketero.model.entity.Ticket;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Transición de estado de un ticket. {@code previousStatus} es null cuando el
+ * ticket se acaba de crear; {@code expiresAt} es la vigencia guardada en el ticket. Se publica dentro de la transacción y los listeners
+ * lo procesan tras el commit.
+ */
+public record TicketStatusChangedEvent(
+    UUID ticketId,
+    String numero,
+    QueueType queueType,
+    LocalDateTime createdAt,
+    LocalDateTime expiresAt,
+    TicketStatus previousStatus,
+    TicketStatus newStatus,
+    LocalDateTime occurredAt
+) {
+
+    /** Transiciones que encolan mensajes en el outbox: creación, asignación y vencimiento. */
+    public boolean enqueuesNotifications() {
+        return previousStatus == null || newStatus == TicketStatus.ATENDIENDO || newStatus == TicketStatus.VENCIDO;
+    }
+
+    public static TicketStatusChangedEvent created(Ticket ticket) {
+        return transition(ticket, null);
+    }
+
+    // El vencimiento se aplica con un UPDATE masivo: la entidad conserva el estado anterior
+    public static TicketStatusChangedEvent expired(Ticket ticket, LocalDateTime expiredAt) {
+        return new TicketStatusChangedEvent(
+            ticket.getCodigoReferencia(),
+            ticket.getNumero(),
+            ticket.getQueueType(),
+            ticket.getCreatedAt(),
+            ticket.getExpiresAt(),
+            ticket.getStatus(),
+            TicketStatus.VENCIDO,
+            expiredAt
+        );
+    }
+
+    public static TicketStatusChangedEvent transition(Ticket ticket, TicketStatus previousStatus) {
+        return new TicketStatusChangedEvent(
+            ticket.getCodigoReferencia(),
+            ticket.getNumero(),
+            ticket.getQueueType(),
+            ticket.getCreatedAt(),
+            ticket.getExpiresAt(),
+            previousStatus,
+            ticket.getStatus(),
+            LocalDateTime.now()
+        );
+    }
+}
@@ -1,9 +1,15 @@
 package com.banco.ticketero.repository;
 
+import com.banco.ticketero.model.QueueType;
 import com.banco.ticketero.model.entity.Advisor;
 import com.banco.ticketero.model.entity.Advisor.AdvisorStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -15,15 +21,35 @@ public interface AdvisorRepository extends JpaRepository<Advisor, Long> {
 
     List<Advisor> findByStatus(AdvisorStatus status);
 
+    // advisor_queue(queue_type, advisor_id) + advisor(status, assigned_tickets_count, last_assignment_at)
     @Query("""
         SELECT a FROM Advisor a
+        JOIN a.supportedQueues q
         WHERE a.status = 'AVAILABLE'
-        AND a.supportedQueues LIKE CONCAT('%', :queueType, '%')
+        AND q = :queueType
         ORDER BY a.assignedTicketsCount ASC, a.lastAssignmentAt ASC NULLS FIRST
         """)
-    List<Advisor> findAvailableAdvisorsForQueue(@Param("queueType") String queueType);
+    List<Advisor> findAvailableAdvisorsForQueue(@Param("queueType") QueueType queueType);
+
+    // Reclama asesores libres de una cola: lock.timeout -2 = SKIP LOCKED, otros nodos toman los restantes
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+        SELECT a FROM Advisor a
+        JOIN a.supportedQueues q
+        WHERE a.status = 'AVAILABLE'
+        AND q = :queueType
+        ORDER BY a.assignedTicketsCount ASC, a.lastAssignmentAt ASC NULLS FIRST
+        """)
+    List<Advisor> claimAvailableAdvisorsForQueue(@Param("queueType") QueueType queueType, Pageable pageable);
 
     long countByStatus(AdvisorStatus status);
-    
-    long countByStatus(String status);
+
+    @Query("SELECT a.status AS status, COUNT(a) AS total FROM Advisor a GROUP BY a.status")
+    List<StatusCountView> countGroupedByStatus();
+
+    interface StatusCountView {
+        AdvisorStatus getStatus();
+        long getTotal();
+    }
 }
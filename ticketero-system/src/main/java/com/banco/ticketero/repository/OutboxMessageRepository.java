@@ -2,20 +2,90 @@ package com.banco.ticketero.repository;
 
 import com.banco.ticketero.model.entity.OutboxMessage;
 import com.banco.ticketero.model.entity.OutboxMessage.MessageStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
 
-    List<OutboxMessage> findByEstadoEnvioAndFechaProgramadaBefore(
-        MessageStatus estadoEnvio, 
-        LocalDateTime fechaProgramada
-    );
+    // Mensajes vencidos sin lease vigente, paginados por keyset (nextAttemptAt, id) a partir
+    // del último reclamado; SKIP LOCKED para que varios nodos no se bloqueen
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+        SELECT m FROM OutboxMessage m
+        WHERE m.estadoEnvio = 'PENDING'
+        AND m.nextAttemptAt <= :now
+        AND (m.nextAttemptAt > :afterAttemptAt OR (m.nextAttemptAt = :afterAttemptAt AND m.id > :afterId))
+        AND (m.lockedUntil IS NULL OR m.lockedUntil < :now)
+        ORDER BY m.nextAttemptAt ASC, m.id ASC
+        """)
+    List<OutboxMessage> claimDueAfter(@Param("now") LocalDateTime now,
+                                      @Param("afterAttemptAt") LocalDateTime afterAttemptAt,
+                                      @Param("afterId") Long afterId,
+                                      Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE OutboxMessage m SET m.lockedUntil = :lockedUntil WHERE m.id IN :ids")
+    int lease(@Param("ids") Collection<Long> ids, @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    @Modifying
+    @Query("""
+        UPDATE OutboxMessage m
+        SET m.estadoEnvio = 'SENT', m.fechaEnvio = :sentAt, m.lockedUntil = NULL
+        WHERE m.id IN :ids
+        """)
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    // Fallos con reintentos disponibles y el mismo número de intento: un solo UPDATE en el que
+    // cada fila sortea su jitter dentro de [earliest, earliest + jitterMillis]
+    @Modifying
+    @Query("""
+        UPDATE OutboxMessage m
+        SET m.intentos = m.intentos + 1,
+            m.nextAttemptAt = cast(:earliest as LocalDateTime)
+                + (cast(function('random') as Double) * :jitterMillis * 1000000) nanosecond,
+            m.lockedUntil = NULL
+        WHERE m.id IN :ids
+        """)
+    int scheduleRetry(@Param("ids") Collection<Long> ids,
+                      @Param("earliest") LocalDateTime earliest,
+                      @Param("jitterMillis") long jitterMillis);
+
+    @Modifying
+    @Query("""
+        UPDATE OutboxMessage m
+        SET m.intentos = m.intentos + 1, m.estadoEnvio = 'FAILED', m.lockedUntil = NULL
+        WHERE m.id IN :ids
+        """)
+    int markFailed(@Param("ids") Collection<Long> ids);
+
+    // Aplazado por Telegram (429): se mueve el próximo intento sin contarlo como fallo
+    @Modifying
+    @Query("UPDATE OutboxMessage m SET m.nextAttemptAt = :nextAttemptAt, m.lockedUntil = NULL WHERE m.id IN :ids")
+    int defer(@Param("ids") Collection<Long> ids, @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    // Un mensaje con lease se puede reclamar al vencer éste: así los de un nodo caído
+    // se reintentan a tiempo y no tras max-idle
+    @Query("""
+        SELECT MIN(CASE WHEN m.lockedUntil > m.nextAttemptAt THEN m.lockedUntil ELSE m.nextAttemptAt END)
+        FROM OutboxMessage m
+        WHERE m.estadoEnvio = 'PENDING'
+        """)
+    LocalDateTime findEarliestPendingAttempt();
 
     List<OutboxMessage> findByTicketId(UUID ticketId);
     
@@ -0,0 +1,9 @@
+package com.banco.ticketero.repository;
+
+import com.banco.ticketero.model.entity.TelegramPollOffset;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TelegramPollOffsetRepository extends JpaRepository<TelegramPollOffset, String> {
+}
@@ -0,0 +1,41 @@
+package com.banco.ticketero.repository;
+
+import com.banco.ticketero.model.TicketStatus;
+import com.banco.ticketero.model.entity.TicketHistory;
+import com.banco.ticketero.repository.TicketRepository.StatusCountView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TicketHistoryRepository extends JpaRepository<TicketHistory, UUID> {
+
+    List<TicketHistory> findByNumeroAndCreatedAtGreaterThanEqualAndCreatedAtLessThan(
+        String numero, LocalDateTime from, LocalDateTime to);
+
+    List<TicketHistory> findByNumeroAndBranchOfficeAndCreatedAtGreaterThanEqualAndCreatedAtLessThan(
+        String numero, String branchOffice, LocalDateTime from, LocalDateTime to);
+
+    // Mismo criterio que TicketRepository.findAllByNumero: un día y, si se indica, una sucursal
+    default List<TicketHistory> findAllByNumero(String numero, String branchOffice, LocalDate day) {
+        LocalDateTime from = day.atStartOfDay();
+        return branchOffice == null
+            ? findByNumeroAndCreatedAtGreaterThanEqualAndCreatedAtLessThan(numero, from, from.plusDays(1))
+            : findByNumeroAndBranchOfficeAndCreatedAtGreaterThanEqualAndCreatedAtLessThan(
+                numero, branchOffice, from, from.plusDays(1));
+    }
+
+    long countByStatus(TicketStatus status);
+
+    @Query("""
+        SELECT h.queueType AS queueType, h.status AS status, COUNT(h) AS total
+        FROM TicketHistory h
+        GROUP BY h.queueType, h.status
+        """)
+    List<StatusCountView> countGroupedByQueueTypeAndStatus();
+}
@@ -0,0 +1,21 @@
+package com.banco.ticketero.repository;
+
+import com.banco.ticketero.model.entity.TicketNumberSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface TicketNumberSequenceRepository extends JpaRepository<TicketNumberSequence, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<TicketNumberSequence> findByBranchOfficeAndQueuePrefixAndBusinessDate(
+        String branchOffice,
+        String queuePrefix,
+        LocalDate businessDate
+    );
+}
@@ -3,12 +3,20 @@ package com.banco.ticketero.repository;
 import com.banco.ticketero.model.QueueType;
 import com.banco.ticketero.model.TicketStatus;
 import com.banco.ticketero.model.entity.Ticket;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -16,12 +24,31 @@ import java.util.UUID;
 @Repository
 public interface TicketRepository extends JpaRepository<Ticket, UUID> {
 
-    Optional<Ticket> findByNumero(String numero);
+    List<Ticket> findByNumeroAndCreatedAtGreaterThanEqualAndCreatedAtLessThan(
+        String numero, LocalDateTime from, LocalDateTime to);
+
+    List<Ticket> findByNumeroAndBranchOfficeAndCreatedAtGreaterThanEqualAndCreatedAtLessThan(
+        String numero, String branchOffice, LocalDateTime from, LocalDateTime to);
+
+    // El número se reinicia cada día: la búsqueda siempre se acota a un día (y a una sucursal si se indica)
+    default List<Ticket> findAllByNumero(String numero, String branchOffice, LocalDate day) {
+        LocalDateTime from = day.atStartOfDay();
+        return branchOffice == null
+            ? findByNumeroAndCreatedAtGreaterThanEqualAndCreatedAtLessThan(numero, from, from.plusDays(1))
+            : findByNumeroAndBranchOfficeAndCreatedAtGreaterThanEqualAndCreatedAtLessThan(
+                numero, branchOffice, from, from.plusDays(1));
+    }
 
     List<Ticket> findByStatus(TicketStatus status);
 
     List<Ticket> findByQueueTypeAndStatusIn(QueueType queueType, List<TicketStatus> statuses);
 
+    List<QueueEntryView> findByStatusInOrderByCreatedAtAsc(Collection<TicketStatus> statuses);
+
+    List<QueueEntryView> findByQueueTypeAndStatusInOrderByCreatedAtAsc(QueueType queueType, Collection<TicketStatus> statuses);
+
+    List<TicketTimerView> findTimersByStatusIn(Collection<TicketStatus> statuses);
+
     @Query("""
         SELECT COUNT(t) FROM Ticket t
         WHERE t.queueType = :queueType
@@ -45,12 +72,137 @@ public interface TicketRepository extends JpaRepository<Ticket, UUID> {
         """)
     List<Ticket> findNextTicketsToAssign();
 
+    // Candidatos del dispatcher: FIFO global, solo tickets con teléfono para notificar el turno.
+    // Se reclaman con SKIP LOCKED para que varios nodos asignen en paralelo sin bloquearse.
+    // Colas con tickets elegibles y cuántos: acota qué asesores vale la pena reclamar
+    @Query("""
+        SELECT t.queueType AS queueType, COUNT(t) AS total
+        FROM Ticket t
+        WHERE t.status = 'EN_ESPERA'
+        AND t.telefono IS NOT NULL
+        AND t.createdAt < :eligibleBefore
+        GROUP BY t.queueType
+        """)
+    List<QueueCountView> countEligibleForAssignmentByQueue(@Param("eligibleBefore") LocalDateTime eligibleBefore);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+        SELECT t FROM Ticket t
+        WHERE t.status = 'EN_ESPERA'
+        AND t.telefono IS NOT NULL
+        AND t.queueType = :queueType
+        AND t.createdAt < :eligibleBefore
+        ORDER BY t.createdAt ASC
+        """)
+    List<Ticket> claimEligibleForAssignment(@Param("queueType") QueueType queueType,
+                                            @Param("eligibleBefore") LocalDateTime eligibleBefore,
+                                            Pageable pageable);
+
+    // Variables de las plantillas del outbox para un lote completo, sin cargar entidades
+    @Query("""
+        SELECT t.codigoReferencia AS codigoReferencia, t.numero AS numero,
+               a.name AS advisorName, t.assignedModuleNumber AS moduleNumber
+        FROM Ticket t LEFT JOIN t.assignedAdvisor a
+        WHERE t.codigoReferencia IN :ids
+        """)
+    List<MessageContextView> findMessageContexts(@Param("ids") Collection<UUID> ids);
+
+    // Tickets terminales listos para salir de la tabla viva: sin mensajes pendientes en el outbox (FK)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+        SELECT t FROM Ticket t
+        WHERE t.status IN :terminalStatuses
+        AND (t.updatedAt < :before OR (t.updatedAt IS NULL AND t.createdAt < :before))
+        AND NOT EXISTS (SELECT 1 FROM OutboxMessage m WHERE m.ticketId = t.codigoReferencia)
+        """)
+    List<Ticket> claimTerminalForArchive(@Param("terminalStatuses") Collection<TicketStatus> terminalStatuses,
+                                         @Param("before") LocalDateTime before,
+                                         Pageable pageable);
+
+    @Modifying
+    @Query("""
+        INSERT INTO TicketHistory (codigoReferencia, numero, nationalId, telefono, branchOffice, queueType, status,
+                                   positionInQueue, estimatedWaitMinutes, expiresAt, createdAt, assignedAdvisorId,
+                                   assignedAdvisorName, assignedModuleNumber, completedAt, cancelledAt, cancelReason,
+                                   archivedAt)
+        SELECT t.codigoReferencia, t.numero, t.nationalId, t.telefono, t.branchOffice, t.queueType, t.status,
+               t.positionInQueue, t.estimatedWaitMinutes, t.expiresAt, t.createdAt, a.id,
+               a.name, t.assignedModuleNumber, t.completedAt, t.cancelledAt, t.cancelReason,
+               local datetime
+        FROM Ticket t LEFT JOIN t.assignedAdvisor a
+        WHERE t.codigoReferencia IN :ids
+        """)
+    int copyToHistory(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("DELETE FROM Ticket t WHERE t.codigoReferencia IN :ids")
+    int deleteAllByCodigoReferenciaIn(@Param("ids") Collection<UUID> ids);
+
     List<Ticket> findByStatusAndExpiresAtBefore(TicketStatus status, LocalDateTime expiresAt);
 
+    // Tickets en cola con la vigencia cumplida; SKIP LOCKED para no chocar con el dispatcher ni con otros nodos
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+        SELECT t FROM Ticket t
+        WHERE t.status IN :statuses
+        AND t.expiresAt < :now
+        ORDER BY t.expiresAt ASC
+        """)
+    List<Ticket> claimExpired(@Param("statuses") Collection<TicketStatus> statuses,
+                              @Param("now") LocalDateTime now,
+                              Pageable pageable);
+
+    // Fin de atención de un lote: el asesor viene en el mismo SELECT (y queda bloqueado junto al ticket)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+        SELECT t FROM Ticket t JOIN FETCH t.assignedAdvisor
+        WHERE t.codigoReferencia IN :ids
+        AND t.status = 'ATENDIENDO'
+        """)
+    List<Ticket> claimInAttention(@Param("ids") Collection<UUID> ids);
+
+    // Sin bloqueo: distingue los omitidos por SKIP LOCKED de los que ya no están en atención
+    @Query("""
+        SELECT t.codigoReferencia FROM Ticket t
+        WHERE t.codigoReferencia IN :ids
+        AND t.status = 'ATENDIENDO'
+        """)
+    List<UUID> findIdsInAttention(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("""
+        UPDATE Ticket t
+        SET t.status = 'VENCIDO', t.cancelledAt = :now, t.cancelReason = 'EXPIRED', t.updatedAt = :now
+        WHERE t.codigoReferencia IN :ids
+        """)
+    int markExpired(@Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now);
+
+    // Literales en el IN para que Postgres use el índice parcial idx_ticket_chat_active
+    @Query("""
+        SELECT t.codigoReferencia AS codigoReferencia, t.numero AS numero, t.queueType AS queueType,
+               t.status AS status, t.createdAt AS createdAt, t.assignedModuleNumber AS assignedModuleNumber
+        FROM Ticket t
+        WHERE t.chatId = :chatId
+        AND t.status IN ('EN_ESPERA', 'PROXIMO', 'ATENDIENDO')
+        ORDER BY t.createdAt
+        """)
+    List<ChatTicketView> findActiveByChatId(@Param("chatId") String chatId);
+
     long countByStatus(TicketStatus status);
 
     long countByQueueTypeAndStatus(QueueType queueType, TicketStatus status);
 
+    @Query("""
+        SELECT t.queueType AS queueType, t.status AS status, COUNT(t) AS total
+        FROM Ticket t
+        GROUP BY t.queueType, t.status
+        """)
+    List<StatusCountView> countGroupedByQueueTypeAndStatus();
+
     List<Ticket> findByQueueTypeAndStatusOrderByCreatedAtAsc(QueueType queueType, TicketStatus status);
 
     Optional<Ticket> findByCodigoReferencia(UUID codigoReferencia);
@@ -58,4 +210,49 @@ public interface TicketRepository extends JpaRepository<Ticket, UUID> {
     List<Ticket> findByStatusOrderByCreatedAtAsc(TicketStatus status);
     
     long countByQueueTypeAndStatusAndCreatedAtBefore(QueueType queueType, TicketStatus status, LocalDateTime createdAt);
+
+    // Proyección liviana para reconstruir el índice de posiciones en memoria
+    interface QueueEntryView {
+        UUID getCodigoReferencia();
+        String getNumero();
+        QueueType getQueueType();
+        TicketStatus getStatus();
+        LocalDateTime getCreatedAt();
+    }
+
+    // Plazos que la rueda de temporizadores recarga al arrancar
+    interface TicketTimerView {
+        UUID getCodigoReferencia();
+        TicketStatus getStatus();
+        LocalDateTime getUpdatedAt();
+        LocalDateTime getExpiresAt();
+    }
+
+    // Conteos por cola y estado con los que se corrigen los contadores en memoria
+    interface StatusCountView {
+        QueueType getQueueType();
+        TicketStatus getStatus();
+        long getTotal();
+    }
+
+    interface QueueCountView {
+        QueueType getQueueType();
+        long getTotal();
+    }
+
+    interface ChatTicketView {
+        UUID getCodigoReferencia();
+        String getNumero();
+        QueueType getQueueType();
+        TicketStatus getStatus();
+        LocalDateTime getCreatedAt();
+        Integer getAssignedModuleNumber();
+    }
+
+    interface MessageContextView {
+        UUID getCodigoReferencia();
+        String getNumero();
+        String getAdvisorName();
+        Integer getModuleNumber();
+    }
 }
@@ -0,0 +1,255 @@
+package com.banco.ticketero.service;
+
+import com.banco.ticketero.config.SchedulingConfig;
+import com.banco.ticketero.model.QueueType;
+import com.banco.ticketero.model.TicketStatus;
+import com.banco.ticketero.model.event.AdvisorStatusChangedEvent;
+import com.banco.ticketero.model.event.TicketStatusChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stream SSE de /api/admin/stream. Cada cambio de estado confirmado se serializa
+ * una sola vez y se reparte a los suscriptores, así un cambio cuesta una escritura
+ * por pantalla y no un recálculo del dashboard por pantalla. Cada suscriptor tiene
+ * un buffer acotado que descarta lo más antiguo si no da abasto y un hilo virtual
+ * que escribe en su conexión; tras un descarte recibe {@code dropped} para que
+ * vuelva a pedir el dashboard.
+ */
+@Component
+@Slf4j
+public class AdminEventStream {
+
+    private final AdminService adminService;
+    private final QueuePositionIndex queuePositionIndex;
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final Duration timeout;
+    private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ExecutorService writers = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("admin-stream-", 0).factory());
+    private final Counter dropped;
+
+    public AdminEventStream(
+        AdminService adminService,
+        QueuePositionIndex queuePositionIndex,
+        ObjectMapper objectMapper,
+        MeterRegistry meterRegistry,
+        @Value("${ticketero.admin-stream.buffer-size:256}") int bufferSize,
+        @Value("${ticketero.admin-stream.timeout:30m}") Duration timeout
+    ) {
+        this.adminService = adminService;
+        this.queuePositionIndex = queuePositionIndex;
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        Gauge.builder("ticketero.admin.stream.subscribers", subscribers, Set::size)
+            .description("Pantallas conectadas al stream de administración")
+            .register(meterRegistry);
+        this.dropped = Counter.builder("ticketero.admin.stream.dropped")
+            .description("Eventos descartados por suscriptores que no leen a tiempo")
+            .register(meterRegistry);
+    }
+
+    private record StreamEvent(long id, String name, String data) {}
+
+    public record QueueDepth(QueueType queueType, int waiting) {}
+
+    /** Nueva conexión: primero el dashboard completo, después los cambios. */
+    public SseEmitter subscribe() {
+        return register(new SseEmitter(timeout.toMillis()));
+    }
+
+    SseEmitter register(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscribers.add(subscriber);
+        subscriber.offer(event("dashboard", adminService.getDashboard()));
+        log.info("📺 Admin stream subscriber connected ({} total)", subscribers.size());
+        return emitter;
+    }
+
+    // El índice de posiciones escucha antes (@Order), así la profundidad de cola ya incluye el cambio
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketStatusChanged(TicketStatusChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        publish(event(ticketEventName(event), event));
+        if (QueuePositionIndex.WAITING_STATUSES.contains(event.newStatus())
+            || QueuePositionIndex.WAITING_STATUSES.contains(event.previousStatus())) {
+            publish(event("queue-depth",
+                new QueueDepth(event.queueType(), queuePositionIndex.waitingCount(event.queueType()))));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAdvisorStatusChanged(AdvisorStatusChangedEvent event) {
+        if (!subscribers.isEmpty()) {
+            publish(event("advisor-status", event));
+        }
+    }
+
+    // Comentario SSE periódico: mantiene viva la conexión en proxies y detecta clientes caídos
+    @Scheduled(
+        fixedDelayString = "${ticketero.admin-stream.heartbeat-interval:15000}",
+        scheduler = SchedulingConfig.MAINTENANCE_SCHEDULER
+    )
+    public void heartbeat() {
+        if (!subscribers.isEmpty()) {
+            publish(new StreamEvent(0, null, "heartbeat"));
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private void publish(StreamEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    private StreamEvent event(String name, Object payload) {
+        try {
+            return new StreamEvent(sequence.incrementAndGet(), name, objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize admin stream event " + name, e);
+        }
+    }
+
+    private static String ticketEventName(TicketStatusChangedEvent event) {
+        if (event.previousStatus() == null) {
+            return "ticket-created";
+        }
+        if (event.newStatus() == TicketStatus.ATENDIENDO) {
+            return "ticket-assigned";
+        }
+        if (event.newStatus() == TicketStatus.COMPLETADO) {
+            return "ticket-completed";
+        }
+        return "ticket-status";
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+        writers.shutdownNow();
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final ArrayDeque<StreamEvent> buffer = new ArrayDeque<>();
+        private final AtomicBoolean writing = new AtomicBoolean();
+        private long droppedSinceLastWrite;
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        // Solo encola: la escritura en la conexión la hace el hilo del suscriptor
+        private void offer(StreamEvent event) {
+            if (closed) {
+                return;
+            }
+            synchronized (this) {
+                if (buffer.size() >= bufferSize) {
+                    buffer.pollFirst();
+                    droppedSinceLastWrite++;
+                    dropped.increment();
+                }
+                buffer.addLast(event);
+            }
+            scheduleWrite();
+        }
+
+        private void scheduleWrite() {
+            if (!closed && writing.compareAndSet(false, true)) {
+                writers.execute(this::write);
+            }
+        }
+
+        private void write() {
+            try {
+                while (!closed) {
+                    StreamEvent next;
+                    long lost;
+                    synchronized (this) {
+                        next = buffer.pollFirst();
+                        lost = droppedSinceLastWrite;
+                        droppedSinceLastWrite = 0;
+                    }
+                    if (lost > 0) {
+                        emitter.send(SseEmitter.event().name("dropped")
+                            .data("{\"count\":" + lost + "}", MediaType.APPLICATION_JSON));
+                    }
+                    if (next == null) {
+                        break;
+                    }
+                    send(next);
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Admin stream subscriber gone: {}", e.getMessage());
+                close();
+            } finally {
+                writing.set(false);
+            }
+            // Lo encolado entre la última lectura y la liberación del flag
+            if (hasPending()) {
+                scheduleWrite();
+            }
+        }
+
+        private void send(StreamEvent event) throws IOException {
+            if (event.name() == null) {
+                emitter.send(SseEmitter.event().comment(event.data()));
+            } else {
+                emitter.send(SseEmitter.event()
+                    .id(Long.toString(event.id()))
+                    .name(event.name())
+                    .data(event.data(), MediaType.APPLICATION_JSON));
+            }
+        }
+
+        private synchronized boolean hasPending() {
+            return !buffer.isEmpty() || droppedSinceLastWrite > 0;
+        }
+
+        private void close() {
+            closed = true;
+            subscribers.remove(this);
+            synchronized (this) {
+                buffer.clear();
+            }
+            emitter.complete();
+        }
+    }
+}
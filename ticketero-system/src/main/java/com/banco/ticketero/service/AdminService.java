@@ -1,15 +1,26 @@
 package com.banco.ticketero.service;
 
+import com.banco.ticketero.model.QueueType;
+import com.banco.ticketero.model.TicketStatus;
 import com.banco.ticketero.model.dto.response.DashboardResponse;
+import com.banco.ticketero.model.dto.response.OutboxArchiveResponse;
 import com.banco.ticketero.model.entity.Advisor;
+import com.banco.ticketero.model.event.AdvisorStatusChangedEvent;
 import com.banco.ticketero.repository.AdvisorRepository;
+import com.banco.ticketero.repository.TicketHistoryRepository;
 import com.banco.ticketero.repository.TicketRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -18,31 +29,59 @@ import java.util.List;
 public class AdminService {
 
     private final TicketRepository ticketRepository;
+    private final TicketHistoryRepository ticketHistoryRepository;
     private final AdvisorRepository advisorRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboxArchiver outboxArchiver;
+    private final SnapshotCache<DashboardResponse> dashboardCache = new SnapshotCache<>();
 
+    // 0 = cada llamada consulta la BD; con pantallas que refrescan cada pocos segundos conviene 1-5s
+    @Value("${ticketero.dashboard.snapshot-ttl:0s}")
+    private Duration dashboardSnapshotTtl;
+
+    // Sin transacción propia: cada consulta abre la suya y quien espera un refresco en curso no retiene conexión
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public DashboardResponse getDashboard() {
-        log.info("Getting admin dashboard data");
-        
-        long totalTickets = ticketRepository.count();
-        long waitingTickets = ticketRepository.countByStatus(com.banco.ticketero.model.TicketStatus.EN_ESPERA);
-        long inProgressTickets = ticketRepository.countByStatus(com.banco.ticketero.model.TicketStatus.ATENDIENDO);
-        long completedTickets = ticketRepository.countByStatus(com.banco.ticketero.model.TicketStatus.COMPLETADO);
-        
-        long availableAdvisors = advisorRepository.countByStatus(Advisor.AdvisorStatus.AVAILABLE);
-        long busyAdvisors = advisorRepository.countByStatus(Advisor.AdvisorStatus.BUSY);
-        long onBreakAdvisors = advisorRepository.countByStatus(Advisor.AdvisorStatus.BREAK);
-        
+        return dashboardCache.get(dashboardSnapshotTtl, this::loadDashboard);
+    }
+
+    // Una consulta agrupada por tabla; los tickets terminales ya archivados se cuentan desde el histórico
+    private DashboardResponse loadDashboard() {
+        log.debug("Loading admin dashboard data");
+
+        TicketCounters.Snapshot tickets = TicketCounters.fromCounts(
+            ticketRepository.countGroupedByQueueTypeAndStatus(),
+            ticketHistoryRepository.countGroupedByQueueTypeAndStatus());
+        Map<Advisor.AdvisorStatus, Long> advisors = new EnumMap<>(Advisor.AdvisorStatus.class);
+        advisorRepository.countGroupedByStatus().forEach(view -> advisors.put(view.getStatus(), view.getTotal()));
+
+        Map<QueueType, DashboardResponse.QueueCounts> queues = new EnumMap<>(QueueType.class);
+        for (QueueType queueType : QueueType.values()) {
+            queues.put(queueType, new DashboardResponse.QueueCounts(
+                tickets.count(queueType),
+                tickets.count(queueType, TicketStatus.EN_ESPERA),
+                tickets.count(queueType, TicketStatus.ATENDIENDO),
+                tickets.count(queueType, TicketStatus.COMPLETADO)
+            ));
+        }
+
         return new DashboardResponse(
-            totalTickets,
-            waitingTickets,
-            inProgressTickets,
-            completedTickets,
-            availableAdvisors,
-            busyAdvisors,
-            onBreakAdvisors
+            tickets.total(),
+            tickets.count(TicketStatus.EN_ESPERA),
+            tickets.count(TicketStatus.ATENDIENDO),
+            tickets.count(TicketStatus.COMPLETADO),
+            advisors.getOrDefault(Advisor.AdvisorStatus.AVAILABLE, 0L),
+            advisors.getOrDefault(Advisor.AdvisorStatus.BUSY, 0L),
+            advisors.getOrDefault(Advisor.AdvisorStatus.BREAK, 0L),
+            queues
         );
     }
 
+    public OutboxArchiveResponse getOutboxArchive() {
+        log.info("Getting outbox archive sizes");
+        return outboxArchiver.describe();
+    }
+
     public List<com.banco.ticketero.model.entity.Ticket> getQueueByType(String queueType) {
         log.info("Getting queue data for type: {}", sanitizeForLog(queueType));
         
@@ -67,8 +106,10 @@ public class AdminService {
         
         try {
             Advisor.AdvisorStatus newStatus = Advisor.AdvisorStatus.valueOf(status);
+            Advisor.AdvisorStatus previousStatus = advisor.getStatus();
             advisor.setStatus(newStatus);
             advisorRepository.save(advisor);
+            eventPublisher.publishEvent(AdvisorStatusChangedEvent.transition(advisor, previousStatus));
             log.info("Advisor {} status updated successfully", advisorId);
         } catch (IllegalArgumentException e) {
             log.warn("Invalid advisor status: {}", sanitizeForLog(status));
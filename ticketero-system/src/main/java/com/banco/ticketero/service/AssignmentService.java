@@ -1,19 +1,30 @@
 package com.banco.ticketero.service;
 
+import com.banco.ticketero.model.QueueType;
 import com.banco.ticketero.model.TicketStatus;
 import com.banco.ticketero.model.entity.Advisor;
 import com.banco.ticketero.model.entity.OutboxMessage;
 import com.banco.ticketero.model.entity.Ticket;
+import com.banco.ticketero.model.event.AdvisorStatusChangedEvent;
+import com.banco.ticketero.model.event.TicketStatusChangedEvent;
 import com.banco.ticketero.repository.AdvisorRepository;
 import com.banco.ticketero.repository.OutboxMessageRepository;
 import com.banco.ticketero.repository.TicketRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -21,43 +32,69 @@ import java.util.UUID;
 @Slf4j
 public class AssignmentService {
 
+    private static final Comparator<Advisor> LEAST_LOADED_FIRST = Comparator
+        .comparing(Advisor::getAssignedTicketsCount, Comparator.nullsFirst(Comparator.naturalOrder()))
+        .thenComparing(Advisor::getLastAssignmentAt, Comparator.nullsFirst(Comparator.naturalOrder()));
+
     private final TicketRepository ticketRepository;
     private final AdvisorRepository advisorRepository;
     private final OutboxMessageRepository outboxMessageRepository;
-
+    private final ApplicationEventPublisher eventPublisher;
+
+    public record Assignment(UUID ticketId, String numero, QueueType queueType, LocalDateTime ticketCreatedAt,
+                             Long advisorId, LocalDateTime assignedAt) {}
+
+    /**
+     * Empareja en una sola pasada los tickets EN_ESPERA creados antes de
+     * {@code eligibleBefore} (FIFO) con los asesores disponibles que atienden su
+     * cola, priorizando a los de menor carga. Los asesores se reclaman por cola y solo
+     * para las colas con tickets elegibles, así los de una cola vacía no ocupan el lote.
+     * Asesores y tickets se reclaman con FOR UPDATE SKIP LOCKED: lo que otro nodo ya
+     * tomó simplemente no aparece.
+     */
     @Transactional
-    public boolean assignNextTicket() {
-        List<Ticket> pendingTickets = ticketRepository.findNextTicketsToAssign();
-        
-        if (pendingTickets.isEmpty()) {
-            log.debug("No pending tickets to assign");
-            return false;
+    public List<Assignment> assignAvailable(LocalDateTime eligibleBefore, int batchSize) {
+        List<TicketRepository.QueueCountView> eligibleByQueue =
+            ticketRepository.countEligibleForAssignmentByQueue(eligibleBefore);
+        if (eligibleByQueue.isEmpty()) {
+            log.debug("No eligible tickets");
+            return List.of();
         }
 
-        Ticket ticket = pendingTickets.get(0);
-        List<Advisor> availableAdvisors = advisorRepository
-            .findAvailableAdvisorsForQueue(ticket.getQueueType().name());
-
+        List<Advisor> availableAdvisors = claimAdvisors(eligibleByQueue, batchSize);
         if (availableAdvisors.isEmpty()) {
-            log.debug("No available advisors for queue: {}", ticket.getQueueType());
-            return false;
+            log.debug("No available advisors");
+            return List.of();
         }
 
-        Advisor advisor = availableAdvisors.get(0);
-        
-        ticket.setStatus(TicketStatus.ATENDIENDO);
-        ticket.setAssignedAdvisor(advisor);
-        ticket.setAssignedModuleNumber(advisor.getModuleNumber());
-        
-        advisor.setStatus(Advisor.AdvisorStatus.BUSY);
-        advisor.setAssignedTicketsCount(advisor.getAssignedTicketsCount() + 1);
-        advisor.setLastAssignmentAt(LocalDateTime.now());
+        Map<QueueType, Integer> freeAdvisorsByQueue = freeAdvisorsByQueue(availableAdvisors);
+        if (freeAdvisorsByQueue.isEmpty()) {
+            return List.of();
+        }
 
-        ticketRepository.save(ticket);
-        advisorRepository.save(advisor);
+        // Una página por cola, del tamaño de sus asesores libres: una cola con mucho atraso
+        // no llena la página y deja sin ticket a los asesores de las demás
+        List<Ticket> eligibleTickets = new ArrayList<>();
+        freeAdvisorsByQueue.forEach((queueType, freeAdvisors) -> eligibleTickets.addAll(
+            ticketRepository.claimEligibleForAssignment(queueType, eligibleBefore, PageRequest.of(0, freeAdvisors))));
+        eligibleTickets.sort(Comparator.comparing(Ticket::getCreatedAt));
+
+        List<Assignment> assignments = new ArrayList<>();
+        for (Ticket ticket : eligibleTickets) {
+            if (availableAdvisors.isEmpty()) {
+                break;
+            }
+            Advisor advisor = takeAdvisorFor(availableAdvisors, ticket.getQueueType());
+            if (advisor != null) {
+                assignments.add(assign(ticket, advisor));
+            }
+        }
 
-        log.info("Ticket {} assigned to advisor {}", ticket.getNumero(), advisor.getName());
-        return true;
+        if (!assignments.isEmpty()) {
+            log.info("🎯 Dispatched {} tickets ({} eligible, {} advisors left idle)",
+                assignments.size(), eligibleTickets.size(), availableAdvisors.size());
+        }
+        return assignments;
     }
 
     @Transactional
@@ -69,70 +106,131 @@ public class AssignmentService {
             log.debug("Ticket {} already completed", ticket.getNumero());
             return;
         }
+        complete(ticket);
+    }
 
+    /**
+     * Cierra en una transacción las atenciones vencidas de un lote. Los tickets que
+     * ya no están en ATENDIENDO o que otro nodo tiene bloqueados se omiten; devuelve
+     * los ids cerrados para que el llamador decida qué hacer con los omitidos.
+     */
+    @Transactional
+    public List<UUID> completeAll(Collection<UUID> ticketIds) {
+        List<Ticket> tickets = ticketRepository.claimInAttention(ticketIds);
+        tickets.forEach(this::complete);
+        return tickets.stream().map(Ticket::getCodigoReferencia).toList();
+    }
+
+    /** Cierra la atención y libera al asesor; el dispatcher reacciona al evento del asesor. */
+    @Transactional
+    public void complete(Ticket ticket) {
+        TicketStatus previousStatus = ticket.getStatus();
         ticket.setStatus(TicketStatus.COMPLETADO);
         ticket.setCompletedAt(LocalDateTime.now());
+        ticket.setUpdatedAt(LocalDateTime.now());
 
         if (ticket.getAssignedAdvisor() != null) {
             Advisor advisor = ticket.getAssignedAdvisor();
+            Advisor.AdvisorStatus previousAdvisorStatus = advisor.getStatus();
             advisor.setStatus(Advisor.AdvisorStatus.AVAILABLE);
+            advisor.setAssignedTicketsCount(Math.max(0, advisor.getAssignedTicketsCount() - 1));
             advisorRepository.save(advisor);
+            eventPublisher.publishEvent(AdvisorStatusChangedEvent.transition(advisor, previousAdvisorStatus));
+            log.info("✅ Advisor {} is now available again", advisor.getName());
         }
 
         ticketRepository.save(ticket);
+        eventPublisher.publishEvent(TicketStatusChangedEvent.transition(ticket, previousStatus));
         log.info("Ticket {} completed", ticket.getNumero());
     }
 
-    public java.util.Optional<Advisor> findAvailableAdvisor(com.banco.ticketero.model.QueueType queueType) {
-        return advisorRepository.findAll().stream()
-            .filter(advisor -> advisor.getStatus() == Advisor.AdvisorStatus.AVAILABLE)
-            .filter(advisor -> advisor.getSupportedQueues() != null && advisor.getSupportedQueues().contains(queueType.name()))
-            .findFirst();
+    // Un asesor de varias colas puede volver en la consulta de otra cola (el lock ya es nuestro):
+    // la página se amplía en los ya reclamados para que siga trayendo asesores nuevos
+    private List<Advisor> claimAdvisors(List<TicketRepository.QueueCountView> eligibleByQueue, int batchSize) {
+        Map<Long, Advisor> claimed = new LinkedHashMap<>();
+        for (TicketRepository.QueueCountView queue : eligibleByQueue) {
+            int wanted = (int) Math.min(queue.getTotal(), batchSize);
+            int alreadyClaimed = (int) claimed.values().stream()
+                .filter(advisor -> advisor.supports(queue.getQueueType()))
+                .count();
+            advisorRepository.claimAvailableAdvisorsForQueue(queue.getQueueType(), PageRequest.of(0, wanted + alreadyClaimed))
+                .forEach(advisor -> claimed.putIfAbsent(advisor.getId(), advisor));
+        }
+        List<Advisor> advisors = new ArrayList<>(claimed.values());
+        advisors.sort(LEAST_LOADED_FIRST);
+        return advisors;
     }
-    
-    public void notifyProximoTurno(Ticket ticket) {
-        String chatId = getChatId(ticket);
-        if (chatId != null) {
-            OutboxMessage message = OutboxMessage.builder()
-                .ticketId(ticket.getCodigoReferencia())
-                .plantilla("PROXIMO")
-                .estadoEnvio(OutboxMessage.MessageStatus.PENDING)
-                .chatId(chatId)
-                .fechaProgramada(LocalDateTime.now().plusSeconds(25))
-                .build();
-            
-            outboxMessageRepository.save(message);
-            log.info("🔔 Scheduled proximity notification for ticket {}", ticket.getNumero());
+
+    private Map<QueueType, Integer> freeAdvisorsByQueue(List<Advisor> advisors) {
+        Map<QueueType, Integer> queues = new EnumMap<>(QueueType.class);
+        for (Advisor advisor : advisors) {
+            if (advisor.getSupportedQueues() != null) {
+                advisor.getSupportedQueues().forEach(queueType -> queues.merge(queueType, 1, Integer::sum));
+            }
         }
+        return queues;
     }
-    
-    public void notifyTuTurno(Ticket ticket, Advisor advisor) {
-        String chatId = getChatId(ticket);
-        if (chatId != null) {
-            OutboxMessage message = OutboxMessage.builder()
-                .ticketId(ticket.getCodigoReferencia())
-                .plantilla("TU_TURNO")
-                .estadoEnvio(OutboxMessage.MessageStatus.PENDING)
-                .chatId(chatId)
-                .fechaProgramada(LocalDateTime.now().plusSeconds(30))
-                .build();
-            
-            outboxMessageRepository.save(message);
-            log.info("🎫 Scheduled turn notification for ticket {} with advisor {}", 
-                ticket.getNumero(), advisor.getName());
+
+    private Advisor takeAdvisorFor(List<Advisor> availableAdvisors, QueueType queueType) {
+        var iterator = availableAdvisors.iterator();
+        while (iterator.hasNext()) {
+            Advisor advisor = iterator.next();
+            if (advisor.supports(queueType)) {
+                iterator.remove();
+                return advisor;
+            }
         }
+        return null;
+    }
+
+    private Assignment assign(Ticket ticket, Advisor advisor) {
+        LocalDateTime now = LocalDateTime.now();
+        TicketStatus previousStatus = ticket.getStatus();
+
+        ticket.setStatus(TicketStatus.ATENDIENDO);
+        ticket.setAssignedAdvisor(advisor);
+        ticket.setAssignedModuleNumber(advisor.getModuleNumber());
+        ticket.setUpdatedAt(now);
+
+        advisor.setStatus(Advisor.AdvisorStatus.BUSY);
+        advisor.setAssignedTicketsCount(advisor.getAssignedTicketsCount() + 1);
+        advisor.setLastAssignmentAt(now);
+
+        ticketRepository.save(ticket);
+        advisorRepository.save(advisor);
+        scheduleAssignmentMessages(ticket, now);
+        eventPublisher.publishEvent(TicketStatusChangedEvent.transition(ticket, previousStatus));
+
+        log.info("🎫 Ticket {} assigned to advisor {} at module {}",
+            ticket.getNumero(), advisor.getName(), advisor.getModuleNumber());
+        return new Assignment(ticket.getCodigoReferencia(), ticket.getNumero(), ticket.getQueueType(),
+            ticket.getCreatedAt(), advisor.getId(), now);
     }
-    
-    private String getChatId(Ticket ticket) {
-        String telefono = ticket.getTelefono();
-        if (telefono == null || telefono.isEmpty()) return null;
-        
-        // Si es formato chileno (+56...), extraer el número después de +56
-        if (telefono.startsWith("+56")) {
-            return telefono.substring(3); // Quitar "+56" y usar solo el número
+
+    // PROXIMO inmediato y TU_TURNO 5 segundos después
+    private void scheduleAssignmentMessages(Ticket ticket, LocalDateTime now) {
+        String chatId = ticket.getChatId();
+        if (chatId == null) {
+            return;
         }
-        
-        // Si es solo números (chat_id), usar como está
-        return telefono;
+
+        OutboxMessage proximo = OutboxMessage.builder()
+            .ticketId(ticket.getCodigoReferencia())
+            .plantilla("PROXIMO")
+            .estadoEnvio(OutboxMessage.MessageStatus.PENDING)
+            .chatId(chatId)
+            .fechaProgramada(now)
+            .build();
+
+        OutboxMessage tuTurno = OutboxMessage.builder()
+            .ticketId(ticket.getCodigoReferencia())
+            .plantilla("TU_TURNO")
+            .estadoEnvio(OutboxMessage.MessageStatus.PENDING)
+            .chatId(chatId)
+            .fechaProgramada(now.plusSeconds(5))
+            .build();
+
+        outboxMessageRepository.saveAll(List.of(proximo, tuTurno));
+        log.info("📩 PROXIMO message scheduled IMMEDIATELY and TU_TURNO in 5 seconds for ticket {}", ticket.getNumero());
     }
 }
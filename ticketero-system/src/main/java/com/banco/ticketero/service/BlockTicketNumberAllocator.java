@@ -0,0 +1,76 @@
+package com.banco.ticketero.service;
+
+import com.banco.ticketero.model.QueueType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Asignador hi/lo: cada nodo reserva en base de datos bloques de números por
+ * (sucursal, prefijo de cola, día) y los entrega desde memoria. Un reinicio o un
+ * segundo nodo simplemente reservan el siguiente bloque; los huecos son aceptables.
+ * Las reservas usan el pool propio de {@link TicketNumberSequenceLeaser}, así que esperar
+ * una reserva con el bloque tomado nunca compite con las conexiones de las peticiones.
+ */
+@Component
+public class BlockTicketNumberAllocator implements TicketNumberAllocator {
+
+    // Clave fija cuando el reinicio diario está desactivado
+    static final LocalDate NO_RESET_DATE = LocalDate.of(1970, 1, 1);
+
+    private final TicketNumberSequenceLeaser leaser;
+    private final int blockSize;
+    private final boolean dailyReset;
+    private final ConcurrentMap<BlockKey, NumberBlock> blocks = new ConcurrentHashMap<>();
+    private volatile LocalDate latestBusinessDate = NO_RESET_DATE;
+
+    public BlockTicketNumberAllocator(
+        TicketNumberSequenceLeaser leaser,
+        @Value("${ticketero.ticket-number.block-size:50}") int blockSize,
+        @Value("${ticketero.ticket-number.daily-reset:true}") boolean dailyReset
+    ) {
+        this.leaser = leaser;
+        this.blockSize = blockSize;
+        this.dailyReset = dailyReset;
+    }
+
+    @Override
+    public String nextNumber(QueueType queueType, String branchOffice, LocalDate businessDate) {
+        LocalDate date = dailyReset ? businessDate : NO_RESET_DATE;
+        if (date.isAfter(latestBusinessDate)) {
+            advanceBusinessDate(date);
+        }
+
+        BlockKey key = new BlockKey(branchOffice, queueType.getPrefijo(), date);
+        NumberBlock block = blocks.computeIfAbsent(key, k -> new NumberBlock());
+
+        long number;
+        synchronized (block) {
+            if (block.next >= block.end) {
+                block.next = leaser.lease(key.branchOffice(), key.queuePrefix(), key.businessDate(), blockSize);
+                block.end = block.next + blockSize;
+            }
+            number = block.next++;
+        }
+
+        return String.format("%s%03d", queueType.getPrefijo(), number);
+    }
+
+    private synchronized void advanceBusinessDate(LocalDate date) {
+        // Doble comprobación: solo un hilo avanza el día y purga los bloques anteriores
+        if (date.isAfter(latestBusinessDate)) {
+            latestBusinessDate = date;
+            blocks.keySet().removeIf(key -> key.businessDate().isBefore(date));
+        }
+    }
+
+    private record BlockKey(String branchOffice, String queuePrefix, LocalDate businessDate) {}
+
+    private static final class NumberBlock {
+        private long next;
+        private long end;
+    }
+}
@@ -0,0 +1,189 @@
+package com.banco.ticketero.service;
+
+import com.banco.ticketero.config.SchedulingConfig;
+import com.banco.ticketero.model.dto.response.OutboxArchiveResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mueve los mensajes SENT/FAILED del outbox a {@code outbox_message_history},
+ * particionada por día, en lotes acotados (un DELETE ... RETURNING + INSERT por
+ * lote). La retención elimina particiones completas. Solo en PostgreSQL.
+ */
+@Component
+@Slf4j
+public class OutboxArchiver {
+
+    private static final String HISTORY_TABLE = "outbox_message_history";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final Duration minAge;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration retention;
+    private final Set<LocalDate> knownPartitions = ConcurrentHashMap.newKeySet();
+
+    public OutboxArchiver(
+        JdbcTemplate jdbcTemplate,
+        DataSourceProperties dataSourceProperties,
+        @Value("${ticketero.outbox.archive.enabled:true}") boolean enabled,
+        @Value("${ticketero.outbox.archive.min-age:1m}") Duration minAge,
+        @Value("${ticketero.outbox.archive.batch-size:1000}") int batchSize,
+        @Value("${ticketero.outbox.archive.max-batches-per-run:50}") int maxBatchesPerRun,
+        @Value("${ticketero.outbox.archive.retention:90d}") Duration retention
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled && PostgresWakeUpListener.isPostgres(dataSourceProperties.determineUrl());
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.retention = retention;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Scheduled(fixedDelayString = "${ticketero.outbox.archive.interval:60000}", scheduler = SchedulingConfig.MAINTENANCE_SCHEDULER)
+    public void archive() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            LocalDate today = LocalDate.now();
+            ensurePartition(today);
+            ensurePartition(today.plusDays(1));
+
+            int total = 0;
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                int moved = moveBatch();
+                total += moved;
+                if (moved < batchSize) {
+                    break;
+                }
+            }
+            if (total > 0) {
+                log.info("📦 Archived {} delivered outbox messages", total);
+            }
+            dropExpiredPartitions(today);
+        } catch (RuntimeException e) {
+            log.error("❌ Outbox archiving failed: {}", e.getMessage(), e);
+        }
+    }
+
+    // Una sola sentencia: si falla el INSERT no se borra nada del outbox
+    int moveBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        return jdbcTemplate.update("""
+            WITH moved AS (
+                DELETE FROM outbox_message
+                WHERE id IN (
+                    SELECT id FROM outbox_message
+                    WHERE estado_envio <> 'PENDING'
+                    AND COALESCE(fecha_envio, next_attempt_at) < ?
+                    ORDER BY id
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED
+                )
+                RETURNING id, ticket_id, plantilla, estado_envio, fecha_programada,
+                          fecha_envio, telegram_message_id, intentos, chat_id
+            )
+            INSERT INTO outbox_message_history (id, ticket_id, plantilla, estado_envio, fecha_programada,
+                                                fecha_envio, telegram_message_id, intentos, chat_id, archived_at)
+            SELECT id, ticket_id, plantilla, estado_envio, fecha_programada,
+                   fecha_envio, telegram_message_id, intentos, chat_id, ?
+            FROM moved
+            """, now.minus(minAge), batchSize, now);
+    }
+
+    private void ensurePartition(LocalDate day) {
+        if (knownPartitions.contains(day)) {
+            return;
+        }
+        jdbcTemplate.execute(String.format(
+            "CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+            partitionName(day), HISTORY_TABLE, day, day.plusDays(1)));
+        knownPartitions.add(day);
+    }
+
+    private void dropExpiredPartitions(LocalDate today) {
+        LocalDate oldestKept = today.minusDays(retention.toDays());
+        for (String partition : listPartitions()) {
+            LocalDate day = partitionDay(partition);
+            if (day != null && day.isBefore(oldestKept)) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+                knownPartitions.remove(day);
+                log.info("🗑️ Dropped expired outbox archive partition {}", partition);
+            }
+        }
+    }
+
+    private List<String> listPartitions() {
+        return jdbcTemplate.queryForList("""
+            SELECT c.relname FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            JOIN pg_class p ON p.oid = i.inhparent
+            WHERE p.relname = ?
+            ORDER BY c.relname
+            """, String.class, HISTORY_TABLE);
+    }
+
+    public OutboxArchiveResponse describe() {
+        long hotMessages = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_message", Long.class);
+        if (!enabled) {
+            return new OutboxArchiveResponse(false, hotMessages, (int) retention.toDays(), 0, 0, List.of());
+        }
+        List<OutboxArchiveResponse.Partition> partitions = jdbcTemplate.query("""
+            SELECT c.relname, GREATEST(c.reltuples, 0)::BIGINT AS estimated_rows, pg_total_relation_size(c.oid) AS bytes
+            FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            JOIN pg_class p ON p.oid = i.inhparent
+            WHERE p.relname = ?
+            ORDER BY c.relname
+            """,
+            (rs, rowNum) -> new OutboxArchiveResponse.Partition(
+                rs.getString("relname"),
+                partitionDay(rs.getString("relname")),
+                rs.getLong("estimated_rows"),
+                rs.getLong("bytes")),
+            HISTORY_TABLE);
+        return new OutboxArchiveResponse(
+            true,
+            hotMessages,
+            (int) retention.toDays(),
+            partitions.stream().mapToLong(OutboxArchiveResponse.Partition::estimatedRows).sum(),
+            partitions.stream().mapToLong(OutboxArchiveResponse.Partition::bytes).sum(),
+            partitions
+        );
+    }
+
+    static String partitionName(LocalDate day) {
+        return HISTORY_TABLE + "_" + day.format(PARTITION_SUFFIX);
+    }
+
+    static LocalDate partitionDay(String partition) {
+        String prefix = HISTORY_TABLE + "_";
+        if (!partition.startsWith(prefix)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(partition.substring(prefix.length()), PARTITION_SUFFIX);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
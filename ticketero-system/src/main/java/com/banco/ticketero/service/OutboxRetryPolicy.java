@@ -0,0 +1,70 @@
+package com.banco.ticketero.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Backoff exponencial con jitter para reintentos del outbox. El máximo de
+ * intentos se puede ajustar por plantilla (un TU_TURNO tardío sigue siendo útil,
+ * una CONFIRMACION de hace una hora no tanto).
+ */
+@Component
+public class OutboxRetryPolicy {
+
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final double multiplier;
+    private final int defaultMaxAttempts;
+    private final Map<String, Integer> maxAttemptsByPlantilla;
+
+    public OutboxRetryPolicy(
+        @Value("${ticketero.outbox.retry.initial-backoff:5s}") Duration initialBackoff,
+        @Value("${ticketero.outbox.retry.max-backoff:10m}") Duration maxBackoff,
+        @Value("${ticketero.outbox.retry.multiplier:2.0}") double multiplier,
+        @Value("${ticketero.outbox.retry.max-attempts:5}") int defaultMaxAttempts,
+        @Value("#{${ticketero.outbox.retry.max-attempts-by-plantilla:{:}}}") Map<String, Integer> maxAttemptsByPlantilla
+    ) {
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.multiplier = multiplier;
+        this.defaultMaxAttempts = defaultMaxAttempts;
+        this.maxAttemptsByPlantilla = Map.copyOf(maxAttemptsByPlantilla);
+    }
+
+    public int maxAttempts(String plantilla) {
+        return maxAttemptsByPlantilla.getOrDefault(plantilla, defaultMaxAttempts);
+    }
+
+    /** true si el intento fallido número {@code attempts} agota la plantilla. */
+    public boolean isExhausted(String plantilla, int attempts) {
+        return attempts >= maxAttempts(plantilla);
+    }
+
+    /** Ventana del próximo intento: desde [earliest] hasta [earliest + jitter]. */
+    public record RetryWindow(LocalDateTime earliest, Duration jitter) {}
+
+    /** Próximo intento tras {@code attempts} fallos: mitad fija + mitad aleatoria del backoff. */
+    public LocalDateTime nextAttemptAt(int attempts, LocalDateTime now) {
+        RetryWindow window = retryWindow(attempts, now);
+        long half = window.jitter().toMillis();
+        long jitter = half > 0 ? ThreadLocalRandom.current().nextLong(half + 1) : 0;
+        return window.earliest().plus(Duration.ofMillis(jitter));
+    }
+
+    /** La misma ventana sin sortear, para que la BD sortee el jitter de cada fila de un lote. */
+    public RetryWindow retryWindow(int attempts, LocalDateTime now) {
+        long backoffMillis = backoff(attempts).toMillis();
+        long half = backoffMillis / 2;
+        return new RetryWindow(now.plus(Duration.ofMillis(backoffMillis - half)), Duration.ofMillis(half));
+    }
+
+    Duration backoff(int attempts) {
+        double millis = initialBackoff.toMillis() * Math.pow(multiplier, Math.max(0, attempts - 1));
+        return millis >= maxBackoff.toMillis() ? maxBackoff : Duration.ofMillis((long) millis);
+    }
+}
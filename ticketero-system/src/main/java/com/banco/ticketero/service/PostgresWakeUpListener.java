@@ -0,0 +1,254 @@
+package com.banco.ticketero.service;
+
+import com.banco.ticketero.model.QueueType;
+import com.banco.ticketero.model.entity.Advisor;
+import com.banco.ticketero.model.event.AdvisorStatusChangedEvent;
+import com.banco.ticketero.model.event.TicketStatusChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Despertar entre nodos con LISTEN/NOTIFY de PostgreSQL. Tras cada commit que
+ * encola mensajes o libera un asesor se emite un NOTIFY; una conexión dedicada
+ * (fuera del pool) escucha y despierta al poller del outbox y al dispatcher de
+ * todos los nodos. Los cambios en las colas de espera publican además la cola
+ * afectada para que los demás nodos recarguen su {@link QueuePositionIndex}. En
+ * otras BD (H2 en tests) queda inactivo y solo aplican los eventos locales y el
+ * polling de respaldo.
+ */
+@Component
+@Slf4j
+public class PostgresWakeUpListener {
+
+    static final String OUTBOX_CHANNEL = "ticketero_outbox";
+    static final String DISPATCH_CHANNEL = "ticketero_dispatch";
+    static final String QUEUE_CHANNEL = "ticketero_queue";
+
+    private final DataSourceProperties dataSourceProperties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TelegramService telegramService;
+    private final TicketDispatcher ticketDispatcher;
+    private final QueuePositionIndex queuePositionIndex;
+    // Identifica los NOTIFY propios: este nodo ya aplicó el cambio con el evento local
+    private final String nodeId = UUID.randomUUID().toString();
+    private final boolean enabled;
+    private final Duration reconnectDelay;
+    // Un NOTIFY en vuelo por canal: una ráfaga de eventos se resuelve con uno o dos
+    private final AtomicBoolean outboxNotifyPending = new AtomicBoolean();
+    private final AtomicBoolean dispatchNotifyPending = new AtomicBoolean();
+    private final Map<QueueType, AtomicBoolean> queueNotifyPending = new EnumMap<>(QueueType.class);
+    private final ExecutorService notifier = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "pg-notify");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean running;
+    private volatile Connection listenConnection;
+    private Thread listenerThread;
+
+    public PostgresWakeUpListener(
+        DataSourceProperties dataSourceProperties,
+        JdbcTemplate jdbcTemplate,
+        TelegramService telegramService,
+        TicketDispatcher ticketDispatcher,
+        QueuePositionIndex queuePositionIndex,
+        @Value("${ticketero.notify.enabled:true}") boolean enabled,
+        @Value("${ticketero.notify.reconnect-delay:5s}") Duration reconnectDelay
+    ) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.telegramService = telegramService;
+        this.ticketDispatcher = ticketDispatcher;
+        this.queuePositionIndex = queuePositionIndex;
+        for (QueueType queueType : QueueType.values()) {
+            queueNotifyPending.put(queueType, new AtomicBoolean());
+        }
+        this.enabled = enabled && isPostgres(dataSourceProperties.determineUrl());
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(this::listenLoop, "pg-wakeup-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketStatusChanged(TicketStatusChangedEvent event) {
+        if (event.enqueuesNotifications()) {
+            notify(OUTBOX_CHANNEL, null, outboxNotifyPending);
+        }
+        if (changesWaitingQueue(event)) {
+            notify(QUEUE_CHANNEL, event.queueType().name() + ":" + nodeId, queueNotifyPending.get(event.queueType()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAdvisorStatusChanged(AdvisorStatusChangedEvent event) {
+        if (event.newStatus() == Advisor.AdvisorStatus.AVAILABLE) {
+            notify(DISPATCH_CHANNEL, null, dispatchNotifyPending);
+        }
+    }
+
+    // Se envía desde otro hilo: aquí la conexión de la transacción recién confirmada sigue ligada
+    // sin autocommit y un NOTIFY en ella nunca se entregaría
+    private void notify(String channel, String payload, AtomicBoolean pending) {
+        if (!enabled || !pending.compareAndSet(false, true)) {
+            return;
+        }
+        notifier.execute(() -> {
+            // Se libera antes de enviar: un evento posterior provoca otro NOTIFY
+            pending.set(false);
+            try {
+                if (payload == null) {
+                    jdbcTemplate.execute("NOTIFY " + channel);
+                } else {
+                    jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", channel, payload);
+                }
+            } catch (RuntimeException e) {
+                // Solo se pierde el despertar inmediato; el polling de respaldo lo cubre
+                log.warn("⚠️ Could not send NOTIFY {}: {}", channel, e.getMessage());
+            }
+        });
+    }
+
+    private void listenLoop() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword())) {
+                listenConnection = connection;
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + OUTBOX_CHANNEL);
+                    statement.execute("LISTEN " + DISPATCH_CHANNEL);
+                    statement.execute("LISTEN " + QUEUE_CHANNEL);
+                }
+                log.info("👂 Listening for wake-ups on {}, {} and {}", OUTBOX_CHANNEL, DISPATCH_CHANNEL, QUEUE_CHANNEL);
+                // Lo que cambió mientras no escuchábamos
+                telegramService.wakeUp();
+                ticketDispatcher.requestDispatch();
+                if (reconnecting) {
+                    EnumSet.allOf(QueueType.class).forEach(queuePositionIndex::requestRefresh);
+                }
+                reconnecting = true;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(1000);
+                    if (notifications != null) {
+                        dispatch(notifications);
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("⚠️ Wake-up listener connection lost: {}. Retrying in {}s",
+                        e.getMessage(), reconnectDelay.toSeconds());
+                    sleepBeforeReconnect();
+                }
+            } finally {
+                listenConnection = null;
+            }
+        }
+    }
+
+    // Varias notificaciones del mismo canal se resuelven con un solo despertar
+    private void dispatch(PGNotification[] notifications) {
+        boolean outbox = false;
+        boolean dispatch = false;
+        Set<QueueType> queues = EnumSet.noneOf(QueueType.class);
+        for (PGNotification notification : notifications) {
+            outbox |= OUTBOX_CHANNEL.equals(notification.getName());
+            dispatch |= DISPATCH_CHANNEL.equals(notification.getName());
+            if (QUEUE_CHANNEL.equals(notification.getName())) {
+                queueOf(notification.getParameter()).ifPresent(queues::add);
+            }
+        }
+        queues.forEach(queuePositionIndex::requestRefresh);
+        if (outbox) {
+            telegramService.wakeUp();
+        }
+        if (dispatch) {
+            ticketDispatcher.requestDispatch();
+        }
+    }
+
+    // Payload "COLA:nodo"; los propios se ignoran
+    private Optional<QueueType> queueOf(String payload) {
+        int separator = payload == null ? -1 : payload.indexOf(':');
+        if (separator < 0 || nodeId.equals(payload.substring(separator + 1))) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(QueueType.valueOf(payload.substring(0, separator)));
+        } catch (IllegalArgumentException e) {
+            log.debug("Ignoring queue notification with unknown payload: {}", payload);
+            return Optional.empty();
+        }
+    }
+
+    static boolean changesWaitingQueue(TicketStatusChangedEvent event) {
+        return QueuePositionIndex.WAITING_STATUSES.contains(event.newStatus())
+            || QueuePositionIndex.WAITING_STATUSES.contains(event.previousStatus());
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(reconnectDelay.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    static boolean isPostgres(String url) {
+        return url != null && url.startsWith("jdbc:postgresql:");
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        notifier.shutdown();
+        Connection connection = listenConnection;
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                log.debug("Error closing wake-up listener connection: {}", e.getMessage());
+            }
+        }
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+}
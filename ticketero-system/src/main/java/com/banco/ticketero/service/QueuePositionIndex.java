@@ -0,0 +1,260 @@
+package com.banco.ticketero.service;
+
+import com.banco.ticketero.config.SchedulingConfig;
+import com.banco.ticketero.model.QueueType;
+import com.banco.ticketero.model.TicketStatus;
+import com.banco.ticketero.model.event.TicketStatusChangedEvent;
+import com.banco.ticketero.repository.TicketRepository;
+import com.banco.ticketero.repository.TicketRepository.QueueEntryView;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Posiciones en cola en memoria: un {@link QueueRankIndex} por QueueType con los
+ * tickets EN_ESPERA/PROXIMO. Se mantiene con los eventos de cambio de estado y se
+ * reconstruye desde la BD al arrancar y periódicamente. Los cambios de otros nodos
+ * llegan por NOTIFY ({@link PostgresWakeUpListener}) y recargan solo la cola afectada.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QueuePositionIndex {
+
+    static final Set<TicketStatus> WAITING_STATUSES = EnumSet.of(TicketStatus.EN_ESPERA, TicketStatus.PROXIMO);
+
+    private final TicketRepository ticketRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuildMonitor = new Object();
+    // Una recarga pendiente por cola: una ráfaga de NOTIFY se resuelve con una o dos lecturas
+    private final Map<QueueType, AtomicBoolean> refreshPending = pendingFlags();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "queue-index-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Map<QueueType, QueueRankIndex> ranks = emptyRanks();
+    private Map<UUID, QueueEntry> entries = new HashMap<>();
+    private List<TicketStatusChangedEvent> eventsDuringRebuild;
+    private volatile boolean ready;
+
+    public record QueuePosition(String numero, QueueType queueType, TicketStatus status, int position) {}
+
+    private record QueueEntry(String numero, QueueType queueType, TicketStatus status) {}
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public Optional<QueuePosition> findPosition(UUID ticketId) {
+        lock.readLock().lock();
+        try {
+            QueueEntry entry = entries.get(ticketId);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            int position = ranks.get(entry.queueType()).positionOf(ticketId);
+            return Optional.of(new QueuePosition(entry.numero(), entry.queueType(), entry.status(), position));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Tickets en espera de la cola creados antes de {@code createdAt}. */
+    public int countAhead(QueueType queueType, LocalDateTime createdAt) {
+        lock.readLock().lock();
+        try {
+            return ranks.get(queueType).countBefore(toKey(createdAt));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int waitingCount(QueueType queueType) {
+        lock.readLock().lock();
+        try {
+            return ranks.get(queueType).size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Antes que el resto de listeners, que pueden leer posiciones o profundidad de cola
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketStatusChanged(TicketStatusChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (eventsDuringRebuild != null) {
+                eventsDuringRebuild.add(event);
+            }
+            apply(event, ranks, entries);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(
+        fixedDelayString = "${ticketero.queue-index.resync-interval:300000}",
+        initialDelayString = "${ticketero.queue-index.resync-interval:300000}",
+        scheduler = SchedulingConfig.QUEUE_SCHEDULER
+    )
+    public void resync() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        synchronized (rebuildMonitor) {
+            setEventsDuringRebuild(new ArrayList<>());
+
+            List<QueueEntryView> waiting = ticketRepository.findByStatusInOrderByCreatedAtAsc(WAITING_STATUSES);
+            Map<QueueType, QueueRankIndex> newRanks = emptyRanks();
+            Map<UUID, QueueEntry> newEntries = new HashMap<>(waiting.size() * 2);
+            for (QueueEntryView view : waiting) {
+                newEntries.put(view.getCodigoReferencia(),
+                    new QueueEntry(view.getNumero(), view.getQueueType(), view.getStatus()));
+                newRanks.get(view.getQueueType()).add(view.getCodigoReferencia(), toKey(view.getCreatedAt()));
+            }
+
+            lock.writeLock().lock();
+            try {
+                // Los cambios confirmados mientras se leía la BD se reaplican sobre la nueva copia
+                eventsDuringRebuild.forEach(event -> apply(event, newRanks, newEntries));
+                eventsDuringRebuild = null;
+                ranks = newRanks;
+                entries = newEntries;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("📇 Queue position index rebuilt: {} waiting tickets", newEntries.size());
+        }
+    }
+
+    /** Encola la recarga de una cola si no hay otra pendiente (cambios hechos por otro nodo). */
+    public void requestRefresh(QueueType queueType) {
+        AtomicBoolean pending = refreshPending.get(queueType);
+        if (pending.compareAndSet(false, true)) {
+            refresher.execute(() -> {
+                pending.set(false);
+                try {
+                    refreshQueue(queueType);
+                } catch (RuntimeException e) {
+                    // La resincronización periódica lo corrige
+                    log.warn("⚠️ Queue position refresh failed for {}: {}", queueType, e.getMessage());
+                }
+            });
+        }
+    }
+
+    /** Recarga desde la BD una sola cola; el resto del índice no se toca. */
+    public void refreshQueue(QueueType queueType) {
+        if (!ready) {
+            // La reconstrucción inicial aún no terminó y ya incluirá el cambio
+            return;
+        }
+        synchronized (rebuildMonitor) {
+            setEventsDuringRebuild(new ArrayList<>());
+
+            List<QueueEntryView> waiting =
+                ticketRepository.findByQueueTypeAndStatusInOrderByCreatedAtAsc(queueType, WAITING_STATUSES);
+            QueueRankIndex newRank = new QueueRankIndex();
+            Map<UUID, QueueEntry> queueEntries = new HashMap<>(waiting.size() * 2);
+            for (QueueEntryView view : waiting) {
+                queueEntries.put(view.getCodigoReferencia(),
+                    new QueueEntry(view.getNumero(), queueType, view.getStatus()));
+                newRank.add(view.getCodigoReferencia(), toKey(view.getCreatedAt()));
+            }
+
+            lock.writeLock().lock();
+            try {
+                entries.values().removeIf(entry -> entry.queueType() == queueType);
+                entries.putAll(queueEntries);
+                ranks.put(queueType, newRank);
+                eventsDuringRebuild.stream()
+                    .filter(event -> event.queueType() == queueType)
+                    .forEach(event -> apply(event, ranks, entries));
+                eventsDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.debug("Queue position index refreshed for {}: {} waiting tickets", queueType, queueEntries.size());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private void setEventsDuringRebuild(List<TicketStatusChangedEvent> buffer) {
+        lock.writeLock().lock();
+        try {
+            eventsDuringRebuild = buffer;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void apply(TicketStatusChangedEvent event,
+                              Map<QueueType, QueueRankIndex> ranks,
+                              Map<UUID, QueueEntry> entries) {
+        QueueRankIndex rank = ranks.get(event.queueType());
+        if (WAITING_STATUSES.contains(event.newStatus())) {
+            entries.put(event.ticketId(), new QueueEntry(event.numero(), event.queueType(), event.newStatus()));
+            rank.add(event.ticketId(), toKey(event.createdAt()));
+        } else {
+            entries.remove(event.ticketId());
+            rank.remove(event.ticketId());
+        }
+    }
+
+    private static Map<QueueType, AtomicBoolean> pendingFlags() {
+        Map<QueueType, AtomicBoolean> flags = new EnumMap<>(QueueType.class);
+        for (QueueType queueType : QueueType.values()) {
+            flags.put(queueType, new AtomicBoolean());
+        }
+        return flags;
+    }
+
+    private static Map<QueueType, QueueRankIndex> emptyRanks() {
+        Map<QueueType, QueueRankIndex> ranks = new EnumMap<>(QueueType.class);
+        for (QueueType queueType : QueueType.values()) {
+            ranks.put(queueType, new QueueRankIndex());
+        }
+        return ranks;
+    }
+
+    private static long toKey(LocalDateTime createdAt) {
+        return createdAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + createdAt.getNano();
+    }
+}
@@ -0,0 +1,163 @@
+package com.banco.ticketero.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Índice de orden de una cola: árbol de Fenwick sobre los tickets ordenados por
+ * fecha de creación. Responde "cuántos tickets vivos hay antes de X" en O(log n).
+ * Los tickets llegan casi siempre en orden, así que se agregan al final; las
+ * bajas dejan huecos que se compactan cuando ocupan más de la mitad.
+ * No es thread-safe: {@link QueuePositionIndex} sincroniza el acceso.
+ */
+class QueueRankIndex {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private UUID[] ids = new UUID[INITIAL_CAPACITY];
+    private int[] tree = new int[INITIAL_CAPACITY + 1];
+    private final Map<UUID, Integer> slotById = new HashMap<>();
+    private int used;
+
+    void add(UUID id, long key) {
+        if (slotById.containsKey(id)) {
+            return;
+        }
+        if (used > 0 && key < keys[used - 1]) {
+            insertOutOfOrder(id, key);
+            return;
+        }
+        if (used == keys.length) {
+            compactOrGrow(used + 1);
+        }
+        keys[used] = key;
+        ids[used] = id;
+        slotById.put(id, used);
+        update(used, 1);
+        used++;
+    }
+
+    boolean remove(UUID id) {
+        Integer slot = slotById.remove(id);
+        if (slot == null) {
+            return false;
+        }
+        ids[slot] = null;
+        update(slot, -1);
+        return true;
+    }
+
+    /** Tickets vivos con clave estrictamente menor (misma semántica que el COUNT en BD). */
+    int countBefore(long key) {
+        return prefixSum(lowerBound(key));
+    }
+
+    /** Posición 1-based del ticket, o -1 si no está en la cola. */
+    int positionOf(UUID id) {
+        Integer slot = slotById.get(id);
+        return slot == null ? -1 : countBefore(keys[slot]) + 1;
+    }
+
+    int size() {
+        return slotById.size();
+    }
+
+    private void insertOutOfOrder(UUID id, long key) {
+        int at = upperBound(key);
+        long[] newKeys = new long[Math.max(keys.length, slotById.size() * 2 + INITIAL_CAPACITY)];
+        UUID[] newIds = new UUID[newKeys.length];
+        int n = 0;
+        for (int i = 0; i <= used; i++) {
+            if (i == at) {
+                newKeys[n] = key;
+                newIds[n++] = id;
+            }
+            if (i < used && ids[i] != null) {
+                newKeys[n] = keys[i];
+                newIds[n++] = ids[i];
+            }
+        }
+        rebuild(newKeys, newIds, n);
+    }
+
+    private void compactOrGrow(int required) {
+        int live = slotById.size();
+        int capacity = live * 2 >= keys.length ? Math.max(keys.length * 2, required) : keys.length;
+        long[] newKeys = new long[capacity];
+        UUID[] newIds = new UUID[capacity];
+        int n = 0;
+        for (int i = 0; i < used; i++) {
+            if (ids[i] != null) {
+                newKeys[n] = keys[i];
+                newIds[n++] = ids[i];
+            }
+        }
+        rebuild(newKeys, newIds, n);
+    }
+
+    // Construcción O(n) del árbol de Fenwick
+    private void rebuild(long[] newKeys, UUID[] newIds, int count) {
+        keys = newKeys;
+        ids = newIds;
+        used = count;
+        tree = new int[newKeys.length + 1];
+        slotById.clear();
+        for (int i = 0; i < count; i++) {
+            slotById.put(ids[i], i);
+            tree[i + 1] = 1;
+        }
+        for (int i = 1; i < tree.length; i++) {
+            int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    private void update(int slot, int delta) {
+        for (int i = slot + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    // Suma de los primeros n slots
+    private int prefixSum(int n) {
+        int sum = 0;
+        for (int i = n; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    // Primer slot con clave >= key
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = used;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Primer slot con clave > key
+    private int upperBound(long key) {
+        int low = 0;
+        int high = used;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,42 @@
+package com.banco.ticketero.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket sin locks (GCRA): guarda el "próximo instante teórico" de envío y
+ * cada reserva lo avanza un intervalo con CAS. Permite ráfagas de {@code burst}
+ * envíos y luego espacia a uno por intervalo.
+ */
+class RateBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    RateBucket(long intervalNanos, int burst, long nowNanos) {
+        this.intervalNanos = intervalNanos;
+        this.burstNanos = intervalNanos * Math.max(0, burst - 1);
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /** Reserva un envío y devuelve cuántos nanos hay que esperar antes de hacerlo. */
+    long reserve(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return Math.max(0, current - burstNanos - nowNanos);
+            }
+        }
+    }
+
+    /** Bloquea el bucket hasta {@code untilNanos} (retry_after de Telegram). */
+    void pauseUntil(long untilNanos) {
+        theoreticalArrival.accumulateAndGet(untilNanos + burstNanos, Math::max);
+    }
+
+    /** Sin reservas pendientes y con la ráfaga completa: se puede descartar. */
+    boolean isIdle(long nowNanos) {
+        return theoreticalArrival.get() <= nowNanos;
+    }
+}
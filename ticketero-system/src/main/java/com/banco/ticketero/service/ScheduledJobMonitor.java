@@ -0,0 +1,147 @@
+package com.banco.ticketero.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas de los jobs {@code @Scheduled}: duración, retraso respecto del inicio
+ * esperado (fin anterior + fixed-delay), ejecuciones que duran más que su
+ * intervalo (overrun) e intervalos completos perdidos por llegar tarde (skipped).
+ * Los schedulers de {@code SchedulingConfig} envuelven cada job con {@link #monitor}.
+ */
+@Component
+@Slf4j
+public class ScheduledJobMonitor {
+
+    private final MeterRegistry meterRegistry;
+    private final int stallFactor;
+    private final ConcurrentMap<String, JobStats> jobs = new ConcurrentHashMap<>();
+
+    public ScheduledJobMonitor(
+        MeterRegistry meterRegistry,
+        @Value("${ticketero.scheduler.stall-factor:10}") int stallFactor
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.stallFactor = stallFactor;
+    }
+
+    /** Envuelve un job de intervalo fijo; la primera ejecución se espera tras {@code initialDelay}. */
+    public Runnable monitor(String job, String family, Duration interval, Duration initialDelay, Runnable task) {
+        JobStats stats = jobs.computeIfAbsent(job, name -> new JobStats(name, family, interval));
+        stats.expectedStartNanos = System.nanoTime() + initialDelay.toNanos();
+        return () -> stats.run(task);
+    }
+
+    /** Detalle por job para Actuator; DOWN si alguno lleva más de {@code stall-factor} intervalos en curso. */
+    public Health health() {
+        long now = System.nanoTime();
+        Map<String, Object> details = new TreeMap<>();
+        boolean stalled = false;
+        for (JobStats stats : jobs.values()) {
+            details.put(stats.job, stats.describe(now));
+            stalled |= stats.isStalled(now);
+        }
+        return (stalled ? Health.down() : Health.up()).withDetails(details).build();
+    }
+
+    private final class JobStats {
+
+        private final String job;
+        private final String family;
+        private final Duration interval;
+        private final Timer duration;
+        private final Timer lag;
+        private final Counter overruns;
+        private final Counter skipped;
+        private volatile long expectedStartNanos;
+        private volatile long runningSinceNanos;
+        private volatile Instant lastStart;
+        private volatile Duration lastDuration;
+
+        private JobStats(String job, String family, Duration interval) {
+            this.job = job;
+            this.family = family;
+            this.interval = interval;
+            this.duration = Timer.builder("ticketero.scheduler.job.duration")
+                .description("Duración de cada ejecución del job")
+                .tag("job", job).tag("family", family)
+                .register(meterRegistry);
+            this.lag = Timer.builder("ticketero.scheduler.job.lag")
+                .description("Retraso del inicio respecto del esperado por el fixed-delay")
+                .tag("job", job).tag("family", family)
+                .register(meterRegistry);
+            this.overruns = Counter.builder("ticketero.scheduler.job.overrun")
+                .description("Ejecuciones más largas que el intervalo del job")
+                .tag("job", job).tag("family", family)
+                .register(meterRegistry);
+            this.skipped = Counter.builder("ticketero.scheduler.job.skipped")
+                .description("Intervalos completos perdidos por un inicio tardío")
+                .tag("job", job).tag("family", family)
+                .register(meterRegistry);
+        }
+
+        private void run(Runnable task) {
+            long start = System.nanoTime();
+            long late = Math.max(0, start - expectedStartNanos);
+            lag.record(late, TimeUnit.NANOSECONDS);
+            long missed = interval.isZero() ? 0 : late / interval.toNanos();
+            if (missed > 0) {
+                skipped.increment(missed);
+                log.warn("⏰ Job {} started {} ms late ({} intervals missed)", job, late / 1_000_000, missed);
+            }
+            lastStart = Instant.now();
+            runningSinceNanos = start;
+            try {
+                task.run();
+            } finally {
+                long end = System.nanoTime();
+                runningSinceNanos = 0;
+                lastDuration = Duration.ofNanos(end - start);
+                duration.record(end - start, TimeUnit.NANOSECONDS);
+                if (lastDuration.compareTo(interval) > 0) {
+                    overruns.increment();
+                    log.warn("🐢 Job {} took {} ms, longer than its {} ms interval",
+                        job, lastDuration.toMillis(), interval.toMillis());
+                }
+                expectedStartNanos = end + interval.toNanos();
+            }
+        }
+
+        private boolean isStalled(long now) {
+            long since = runningSinceNanos;
+            return since != 0 && now - since > Math.max(interval.toNanos(), 1_000_000_000L) * stallFactor;
+        }
+
+        private Map<String, Object> describe(long now) {
+            Map<String, Object> detail = new LinkedHashMap<>();
+            long since = runningSinceNanos;
+            detail.put("family", family);
+            detail.put("intervalMs", interval.toMillis());
+            detail.put("running", since != 0);
+            if (since != 0) {
+                detail.put("runningForMs", (now - since) / 1_000_000);
+            }
+            detail.put("lastStart", lastStart);
+            detail.put("lastDurationMs", lastDuration != null ? lastDuration.toMillis() : null);
+            detail.put("runs", duration.count());
+            detail.put("overruns", (long) overruns.count());
+            detail.put("skipped", (long) skipped.count());
+            detail.put("maxLagMs", (long) lag.max(TimeUnit.MILLISECONDS));
+            return detail;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.banco.ticketero.service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Último valor calculado, válido durante {@code ttl}. Al vencer lo recalcula un
+ * solo llamador y los concurrentes esperan ese mismo cálculo (single-flight) en
+ * vez de lanzar cada uno sus consultas. Con ttl 0 no guarda nada.
+ */
+final class SnapshotCache<T> {
+
+    private record Entry<T>(T value, long computedAtNanos) {}
+
+    private final AtomicReference<CompletableFuture<T>> inFlight = new AtomicReference<>();
+    private volatile Entry<T> entry;
+
+    T get(Duration ttl, Supplier<T> loader) {
+        if (ttl.isZero() || ttl.isNegative()) {
+            return loader.get();
+        }
+        Entry<T> current = entry;
+        if (isFresh(current, ttl)) {
+            return current.value();
+        }
+
+        CompletableFuture<T> refresh = new CompletableFuture<>();
+        CompletableFuture<T> running = inFlight.compareAndExchange(null, refresh);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            // Otro llamador pudo terminar un refresco entre la lectura y el CAS
+            current = entry;
+            if (!isFresh(current, ttl)) {
+                current = new Entry<>(loader.get(), System.nanoTime());
+                entry = current;
+            }
+            refresh.complete(current.value());
+            return current.value();
+        } catch (RuntimeException | Error e) {
+            refresh.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.set(null);
+        }
+    }
+
+    private static boolean isFresh(Entry<?> entry, Duration ttl) {
+        return entry != null && System.nanoTime() - entry.computedAtNanos() < ttl.toNanos();
+    }
+
+    private static <T> T await(CompletableFuture<T> refresh) {
+        try {
+            return refresh.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
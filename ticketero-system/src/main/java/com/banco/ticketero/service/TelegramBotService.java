@@ -1,8 +1,12 @@
 package com.banco.ticketero.service;
 
 import com.banco.ticketero.model.dto.request.CreateTicketRequest;
+import com.banco.ticketero.model.dto.response.ChatTicketResponse;
 import com.banco.ticketero.model.dto.response.TicketResponse;
+import com.banco.ticketero.model.dto.telegram.TelegramMessage;
+import com.banco.ticketero.model.dto.telegram.TelegramUpdate;
 import com.banco.ticketero.model.QueueType;
+import com.banco.ticketero.model.TicketStatus;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,6 +14,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.regex.Pattern;
 
@@ -20,6 +25,8 @@ public class TelegramBotService {
 
     private final TicketService ticketService;
     private final RestTemplate restTemplate;
+    private final TelegramSender telegramSender;
+    private final TicketCounters ticketCounters;
 
     @Value("${telegram.bot.token}")
     private String botToken;
@@ -29,30 +36,38 @@ public class TelegramBotService {
 
     private static final Pattern NATIONAL_ID_PATTERN = Pattern.compile("^\\d{7,8}$");
 
-    public void processUpdate(Map<String, Object> update) {
+    // Respuesta en línea del webhook que se está procesando en este hilo (null en long polling)
+    private static final ThreadLocal<WebhookReply> CURRENT_REPLY = new ThreadLocal<>();
+
+    /** Procesa un update del webhook; la primera respuesta puede volver en la respuesta HTTP. */
+    public void processUpdate(TelegramUpdate update, WebhookReply reply) {
+        CURRENT_REPLY.set(reply);
+        try {
+            processUpdate(update);
+        } finally {
+            CURRENT_REPLY.remove();
+        }
+    }
+
+    public void processUpdate(TelegramUpdate update) {
         log.debug("🔍 Procesando update: {}", update);
 
-        if (!update.containsKey("message")) {
+        TelegramMessage message = update.message();
+        if (message == null || message.chatId() == null) {
             log.debug("Update sin mensaje, ignorando");
             return;
         }
 
-        @SuppressWarnings("unchecked")
-        Map<String, Object> message = (Map<String, Object>) update.get("message");
-        
-        if (!message.containsKey("text")) {
+        if (message.text() == null) {
             log.debug("Mensaje sin texto, ignorando");
             return;
         }
 
-        String text = (String) message.get("text");
-        @SuppressWarnings("unchecked")
-        Map<String, Object> chat = (Map<String, Object>) message.get("chat");
-        String chatId = chat.get("id").toString();
+        String chatId = message.chatId().toString();
 
-        log.info("📱 Mensaje recibido de chat {}: {}", chatId, text);
+        log.info("📱 Mensaje recibido de chat {}: {}", chatId, message.text());
 
-        processCommand(chatId, text.trim());
+        processCommand(chatId, message.text().trim());
     }
 
     private void processCommand(String chatId, String text) {
@@ -63,6 +78,8 @@ public class TelegramBotService {
                 sendHelpMessage(chatId);
             } else if (text.startsWith("/status")) {
                 sendTicketStatus(chatId);
+            } else if (text.startsWith("/mis-tickets") || text.startsWith("/mis_tickets")) {
+                sendChatTickets(chatId);
             } else if (text.startsWith("/ticket")) {
                 handleTicketCommand(chatId, text);
             } else if (NATIONAL_ID_PATTERN.matcher(text).matches()) {
@@ -172,6 +189,7 @@ public class TelegramBotService {
             /start - Mensaje de bienvenida
             /help - Esta ayuda
             /status - Estado de todos los tickets
+            /mis-tickets - Tus tickets activos con posición y tiempo estimado
             /ticket <cédula> [cola] - Crear ticket
             
             📝 Ejemplos:
@@ -216,20 +234,22 @@ public class TelegramBotService {
 
     private void sendTicketStatus(String chatId) {
         try {
-            var allTickets = ticketService.findAll();
-            
-            if (allTickets.isEmpty()) {
+            TicketCounters.Snapshot counts = ticketCounters.snapshotOrQuery();
+            long total = counts.total();
+
+            if (total == 0) {
                 sendMessage(chatId, "📋 No hay tickets en el sistema.");
                 return;
             }
 
-            // Debug: ver estados reales
-            allTickets.forEach(t -> log.info("Ticket {}: status = '{}'", t.numero(), t.status().toString()));
-            
-            long enEspera = allTickets.stream().filter(t -> "EN_ESPERA".equals(t.status().toString())).count();
-            long atendiendo = allTickets.stream().filter(t -> "ATENDIENDO".equals(t.status().toString())).count();
-            long completado = allTickets.stream().filter(t -> "COMPLETADO".equals(t.status().toString())).count();
-            
+            StringBuilder porCola = new StringBuilder();
+            for (QueueType queueType : QueueType.values()) {
+                long esperando = counts.waiting(queueType);
+                if (esperando > 0) {
+                    porCola.append(String.format("• %s: %d%n", queueType.name(), esperando));
+                }
+            }
+
             String message = String.format("""
                 📊 ESTADO DE TICKETS
                 
@@ -237,10 +257,14 @@ public class TelegramBotService {
                 ⏳ En espera: %d
                 🔄 Atendiendo: %d
                 ✅ Completados: %d
-                """, allTickets.size(), enEspera, atendiendo, completado);
-            
+                """, total, counts.waiting(), counts.count(TicketStatus.ATENDIENDO),
+                counts.count(TicketStatus.COMPLETADO));
+            if (!porCola.isEmpty()) {
+                message += "\n🏢 En cola por tipo:\n" + porCola;
+            }
+
             sendMessage(chatId, message);
-            log.info("📊 Status enviado a chat {}: {} tickets", chatId, allTickets.size());
+            log.info("📊 Status enviado a chat {}: {} tickets", chatId, total);
             
         } catch (Exception e) {
             log.error("❌ Error obteniendo status para chat {}: {}", chatId, e.getMessage(), e);
@@ -248,16 +272,44 @@ public class TelegramBotService {
         }
     }
 
-    private void sendMessage(String chatId, String text) {
+    private void sendChatTickets(String chatId) {
         try {
-            String url = String.format("%s/bot%s/sendMessage", apiUrl, botToken);
-            
-            Map<String, Object> payload = Map.of(
-                "chat_id", chatId,
-                "text", text
-            );
+            List<ChatTicketResponse> tickets = ticketService.findActiveByChatId(chatId);
+
+            if (tickets.isEmpty()) {
+                sendMessage(chatId, "📋 No tienes tickets activos. Envía tu cédula para crear uno.");
+                return;
+            }
+
+            StringBuilder message = new StringBuilder("🎫 TUS TICKETS ACTIVOS\n");
+            for (ChatTicketResponse ticket : tickets) {
+                message.append(String.format("%n• %s (%s) - ", ticket.numero(), ticket.queueType()));
+                if (ticket.status() == TicketStatus.ATENDIENDO) {
+                    message.append(String.format("🔄 Atendiendo en módulo %s%n", ticket.moduleNumber()));
+                } else {
+                    message.append(String.format("%s%n   📍 Posición: %d | ⏱️ Tiempo estimado: %d minutos%n",
+                        ticket.status() == TicketStatus.PROXIMO ? "🔔 Próximo" : "⏳ En espera",
+                        ticket.positionInQueue(), ticket.estimatedWaitMinutes()));
+                }
+            }
+
+            sendMessage(chatId, message.toString());
+            log.debug("🎫 Tickets activos enviados a chat {}: {}", chatId, tickets.size());
 
-            restTemplate.postForObject(url, payload, String.class);
+        } catch (Exception e) {
+            log.error("❌ Error obteniendo tickets del chat {}: {}", chatId, e.getMessage(), e);
+            sendMessage(chatId, "❌ Error obteniendo tus tickets. Intenta nuevamente.");
+        }
+    }
+
+    private void sendMessage(String chatId, String text) {
+        WebhookReply reply = CURRENT_REPLY.get();
+        if (reply != null && reply.offer(chatId, text)) {
+            log.debug("📤 Respuesta en línea para chat {}: {}", chatId, text.substring(0, Math.min(50, text.length())));
+            return;
+        }
+        try {
+            telegramSender.send(chatId, text);
             log.debug("📤 Mensaje enviado a chat {}: {}", chatId, text.substring(0, Math.min(50, text.length())));
             
         } catch (Exception e) {
@@ -1,68 +1,185 @@
 package com.banco.ticketero.service;
 
-import lombok.RequiredArgsConstructor;
+import com.banco.ticketero.model.dto.telegram.TelegramUpdate;
+import com.banco.ticketero.model.dto.telegram.TelegramUpdatesResponse;
+import com.banco.ticketero.model.entity.TelegramPollOffset;
+import com.banco.ticketero.repository.TelegramPollOffsetRepository;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
 
+/**
+ * Long polling continuo de getUpdates en un hilo virtual propio: cada llamada
+ * espera hasta {@code timeout} a que llegue algo, así que una respuesta del bot
+ * tarda lo que un viaje de red y no hay peticiones vacías cada pocos segundos.
+ * El offset se guarda en la BD tras cada lote para no reprocesar updates al
+ * reiniciar.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class TelegramPollingService {
 
     private final TelegramBotService telegramBotService;
     private final RestTemplate restTemplate;
+    private final TelegramPollOffsetRepository offsetRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String botToken;
+    private final String apiUrl;
+    private final String botKey;
+    private final boolean enabled;
+    private final Duration timeout;
+    private final Duration errorBackoff;
+    private final Duration shutdownTimeout;
 
-    @Value("${telegram.bot.token}")
-    private String botToken;
+    private volatile long lastUpdateId;
+    private volatile boolean running;
+    private volatile boolean processingBatch;
+    private Thread pollerThread;
 
-    @Value("${telegram.bot.api-url:https://api.telegram.org}")
-    private String apiUrl;
+    public TelegramPollingService(
+        TelegramBotService telegramBotService,
+        RestTemplate restTemplate,
+        TelegramPollOffsetRepository offsetRepository,
+        TransactionTemplate transactionTemplate,
+        @Value("${telegram.bot.token}") String botToken,
+        @Value("${telegram.bot.api-url:https://api.telegram.org}") String apiUrl,
+        @Value("${telegram.bot.username:ticketero}") String botKey,
+        @Value("${ticketero.telegram.long-poll.enabled:true}") boolean enabled,
+        @Value("${ticketero.telegram.long-poll.timeout:30s}") Duration timeout,
+        @Value("${ticketero.telegram.long-poll.error-backoff:5s}") Duration errorBackoff,
+        @Value("${ticketero.telegram.long-poll.shutdown-timeout:10s}") Duration shutdownTimeout
+    ) {
+        this.telegramBotService = telegramBotService;
+        this.restTemplate = restTemplate;
+        this.offsetRepository = offsetRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.botToken = botToken;
+        this.apiUrl = apiUrl;
+        this.botKey = botKey;
+        this.enabled = enabled;
+        this.timeout = timeout;
+        this.errorBackoff = errorBackoff;
+        this.shutdownTimeout = shutdownTimeout;
+    }
 
-    private long lastUpdateId = 0;
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || running) {
+            return;
+        }
+        lastUpdateId = offsetRepository.findById(botKey)
+            .map(TelegramPollOffset::getLastUpdateId)
+            .orElse(0L);
+        running = true;
+        pollerThread = Thread.ofVirtual().name("telegram-long-poll").start(this::pollLoop);
+        log.info("📡 Telegram long polling started from update {} (timeout {}s)", lastUpdateId + 1, timeout.toSeconds());
+    }
 
-    @Scheduled(fixedDelay = 2000) // Poll cada 2 segundos
-    public void pollUpdates() {
-        try {
-            String url = String.format("%s/bot%s/getUpdates?offset=%d&timeout=1", 
-                apiUrl, botToken, lastUpdateId + 1);
-            
-            @SuppressWarnings("unchecked")
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
-            
-            if (response != null && Boolean.TRUE.equals(response.get("ok"))) {
-                @SuppressWarnings("unchecked")
-                List<Map<String, Object>> updates = (List<Map<String, Object>>) response.get("result");
-                
-                for (Map<String, Object> update : updates) {
-                    processUpdate(update);
+    private void pollLoop() {
+        while (running) {
+            try {
+                pollUpdates();
+            } catch (Exception e) {
+                if (!running) {
+                    break;
                 }
+                log.error("Error polling Telegram updates: {}", e.getMessage());
+                sleep(errorBackoff);
             }
-        } catch (Exception e) {
-            log.error("Error polling Telegram updates: {}", e.getMessage());
         }
+        log.info("📡 Telegram long polling stopped at update {}", lastUpdateId);
     }
 
-    private void processUpdate(Map<String, Object> update) {
+    /** Una llamada de long polling; devuelve cuántos updates procesó. */
+    int pollUpdates() {
+        String url = String.format("%s/bot%s/getUpdates?offset=%d&timeout=%d",
+            apiUrl, botToken, lastUpdateId + 1, timeout.toSeconds());
+
+        TelegramUpdatesResponse response = restTemplate.getForObject(url, TelegramUpdatesResponse.class);
+        if (response == null || !response.ok() || response.result() == null || response.result().isEmpty()) {
+            return 0;
+        }
+        List<TelegramUpdate> updates = response.result();
+
+        processingBatch = true;
         try {
-            Object updateIdObj = update.get("update_id");
-            if (updateIdObj instanceof Number) {
-                long updateId = ((Number) updateIdObj).longValue();
-                if (updateId > lastUpdateId) {
-                    lastUpdateId = updateId;
-                }
+            long batchLastId = lastUpdateId;
+            for (TelegramUpdate update : updates) {
+                processUpdate(update);
+                batchLastId = Math.max(batchLastId, update.updateId());
             }
-            
+            commitOffset(batchLastId);
+            return updates.size();
+        } finally {
+            processingBatch = false;
+        }
+    }
+
+    private void processUpdate(TelegramUpdate update) {
+        try {
             telegramBotService.processUpdate(update);
-            log.debug("Processed update: {}", update.get("update_id"));
-            
+            log.debug("Processed update: {}", update.updateId());
         } catch (Exception e) {
+            // Un update que falla no bloquea la cola: se registra y se avanza el offset
             log.error("Error processing update: {}", e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+
+    private void commitOffset(long updateId) {
+        if (updateId <= lastUpdateId) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> offsetRepository.save(TelegramPollOffset.builder()
+            .botKey(botKey)
+            .lastUpdateId(updateId)
+            .updatedAt(LocalDateTime.now())
+            .build()));
+        lastUpdateId = updateId;
+    }
+
+    long getLastUpdateId() {
+        return lastUpdateId;
+    }
+
+    private void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    // Un lote a medio procesar termina y guarda su offset; una espera de long polling se corta
+    @PreDestroy
+    public void stop() {
+        Thread thread;
+        synchronized (this) {
+            running = false;
+            thread = pollerThread;
+        }
+        if (thread == null) {
+            return;
+        }
+        if (!processingBatch) {
+            thread.interrupt();
+        }
+        try {
+            if (!thread.join(shutdownTimeout)) {
+                thread.interrupt();
+                log.warn("⚠️ Telegram long polling did not stop within {}s", shutdownTimeout.toSeconds());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
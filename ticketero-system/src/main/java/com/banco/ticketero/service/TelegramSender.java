@@ -0,0 +1,188 @@
+package com.banco.ticketero.service;
+
+import com.banco.ticketero.config.SchedulingConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Único punto de salida hacia sendMessage. Respeta los límites de Telegram con un
+ * bucket global (~30 msg/s) y uno por chat (~1 msg/s), y ante un 429 pausa el
+ * chat durante {@code retry_after}. Si la pausa es corta se reintenta aquí mismo;
+ * si no, se lanza {@link RateLimitedException} para que el llamador reprograme.
+ */
+@Component
+@Slf4j
+public class TelegramSender {
+
+    private static final Pattern RETRY_AFTER = Pattern.compile("\"retry_after\"\\s*:\\s*(\\d+)");
+    private static final int MAX_RATE_LIMIT_RETRIES = 3;
+
+    private final RestTemplate restTemplate;
+    private final String sendMessageUrl;
+    private final long perChatIntervalNanos;
+    private final Duration maxInlineRetryWait;
+    private final RateBucket globalBucket;
+    private final ConcurrentMap<String, RateBucket> chatBuckets = new ConcurrentHashMap<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Timer throttleWait;
+    private final Counter rateLimited;
+
+    public TelegramSender(
+        RestTemplate restTemplate,
+        MeterRegistry meterRegistry,
+        @Value("${telegram.bot.api-url:https://api.telegram.org}") String apiUrl,
+        @Value("${telegram.bot.token}") String botToken,
+        @Value("${ticketero.telegram.global-rate:30}") int globalRatePerSecond,
+        @Value("${ticketero.telegram.per-chat-interval:1s}") Duration perChatInterval,
+        @Value("${ticketero.telegram.max-inline-retry-wait:5s}") Duration maxInlineRetryWait
+    ) {
+        this.restTemplate = restTemplate;
+        this.sendMessageUrl = String.format("%s/bot%s/sendMessage", apiUrl, botToken);
+        this.perChatIntervalNanos = perChatInterval.toNanos();
+        this.maxInlineRetryWait = maxInlineRetryWait;
+        this.globalBucket = new RateBucket(TimeUnit.SECONDS.toNanos(1) / globalRatePerSecond, globalRatePerSecond, System.nanoTime());
+        this.throttleWait = Timer.builder("ticketero.telegram.throttle.wait")
+            .description("Espera impuesta por los límites de envío de Telegram")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+        this.rateLimited = Counter.builder("ticketero.telegram.rate.limited")
+            .description("Respuestas 429 recibidas de Telegram")
+            .register(meterRegistry);
+        meterRegistry.gauge("ticketero.telegram.send.queue", waiting);
+    }
+
+    /** Envía respetando los límites; bloquea el hilo (virtual o no) mientras espera turno. */
+    public void send(String chatId, String text) {
+        send(chatId, text, null);
+    }
+
+    /**
+     * Igual que {@link #send(String, String)}, pero ocupa uno de {@code permits} solo
+     * desde que el chat tiene turno hasta que termina la llamada: un chat frenado por su
+     * límite de 1 msg/s no retiene permisos que otros chats podrían usar.
+     */
+    public void send(String chatId, String text, Semaphore permits) {
+        Map<String, Object> payload = Map.of(
+            "chat_id", chatId,
+            "text", text
+        );
+
+        for (int attempt = 1; ; attempt++) {
+            long chatWaitNanos = awaitChatTurn(chatId);
+            acquire(permits);
+            try {
+                awaitGlobalTurn(chatWaitNanos);
+                restTemplate.postForObject(sendMessageUrl, payload, String.class);
+                return;
+            } catch (HttpClientErrorException.TooManyRequests e) {
+                rateLimited.increment();
+                Duration retryAfter = retryAfter(e);
+                chatBucket(chatId).pauseUntil(System.nanoTime() + retryAfter.toNanos());
+                log.warn("⏳ Telegram rate limit for chat {}: retry after {}s", chatId, retryAfter.toSeconds());
+                if (attempt >= MAX_RATE_LIMIT_RETRIES || retryAfter.compareTo(maxInlineRetryWait) > 0) {
+                    throw new RateLimitedException(retryAfter, e);
+                }
+            } finally {
+                if (permits != null) {
+                    permits.release();
+                }
+            }
+        }
+    }
+
+    private long awaitChatTurn(String chatId) {
+        long waitNanos = chatBucket(chatId).reserve(System.nanoTime());
+        waiting.incrementAndGet();
+        try {
+            sleepNanos(waitNanos);
+            return waitNanos;
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    // El cupo global se reserva al terminar la espera del chat para no desperdiciarlo
+    private void awaitGlobalTurn(long chatWaitNanos) {
+        long globalWaitNanos = globalBucket.reserve(System.nanoTime());
+        waiting.incrementAndGet();
+        try {
+            sleepNanos(globalWaitNanos);
+            throttleWait.record(chatWaitNanos + globalWaitNanos, TimeUnit.NANOSECONDS);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    private static void acquire(Semaphore permits) {
+        if (permits == null) {
+            return;
+        }
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a send permit", e);
+        }
+    }
+
+    private RateBucket chatBucket(String chatId) {
+        return chatBuckets.computeIfAbsent(chatId, id -> new RateBucket(perChatIntervalNanos, 1, System.nanoTime()));
+    }
+
+    private static void sleepNanos(long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for Telegram rate limit", e);
+        }
+    }
+
+    private static Duration retryAfter(HttpClientErrorException e) {
+        Matcher matcher = RETRY_AFTER.matcher(e.getResponseBodyAsString());
+        if (matcher.find()) {
+            return Duration.ofSeconds(Long.parseLong(matcher.group(1)));
+        }
+        String header = e.getResponseHeaders() != null ? e.getResponseHeaders().getFirst("Retry-After") : null;
+        return header != null && header.matches("\\d+") ? Duration.ofSeconds(Long.parseLong(header)) : Duration.ofSeconds(1);
+    }
+
+    // Los buckets de chats sin actividad reciente no aportan nada
+    @Scheduled(fixedDelay = 60000, scheduler = SchedulingConfig.TELEGRAM_SCHEDULER)
+    public void evictIdleChats() {
+        long now = System.nanoTime();
+        chatBuckets.values().removeIf(bucket -> bucket.isIdle(now));
+    }
+
+    @Getter
+    public static class RateLimitedException extends RuntimeException {
+
+        private final Duration retryAfter;
+
+        public RateLimitedException(Duration retryAfter, Throwable cause) {
+            super("Telegram rate limit, retry after " + retryAfter.toSeconds() + "s", cause);
+            this.retryAfter = retryAfter;
+        }
+    }
+}
@@ -1,87 +1,385 @@
 package com.banco.ticketero.service;
 
 import com.banco.ticketero.model.entity.OutboxMessage;
+import com.banco.ticketero.model.event.TicketStatusChangedEvent;
 import com.banco.ticketero.repository.OutboxMessageRepository;
 import com.banco.ticketero.repository.TicketRepository;
-import lombok.RequiredArgsConstructor;
+import com.banco.ticketero.repository.TicketRepository.MessageContextView;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+/**
+ * Despacho del outbox en tres pasos: reclamar (transacción corta con lease),
+ * enviar en paralelo sin transacción ni conexión abierta, y confirmar los
+ * resultados en lote. Los mensajes de un mismo chat se envían en orden: tras el
+ * primero que no sale, los siguientes del chat se aplazan detrás de él. Mientras
+ * el lote se envía, su lease se renueva para que otro nodo no lo reclame.
+ * El poller duerme hasta el próximo mensaje vencido; los tickets que generan
+ * mensajes nuevos lo despiertan con {@link #wakeUp()}.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class TelegramService {
 
+    private static final LocalDateTime KEYSET_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
     private final OutboxMessageRepository outboxMessageRepository;
     private final TicketRepository ticketRepository;
-    private final RestTemplate restTemplate;
+    private final TelegramSender telegramSender;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxRetryPolicy retryPolicy;
+    private final int batchSize;
+    private final Duration lease;
+    private final Duration maxIdle;
+    private final Semaphore inFlight;
+    private final ExecutorService sendExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "outbox-poller");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ScheduledExecutorService leaseRenewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "outbox-lease-renewer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Próxima pasada programada; null mientras corre una
+    private ScheduledFuture<?> nextPoll;
+
+    public TelegramService(
+        OutboxMessageRepository outboxMessageRepository,
+        TicketRepository ticketRepository,
+        TelegramSender telegramSender,
+        TransactionTemplate transactionTemplate,
+        OutboxRetryPolicy retryPolicy,
+        @Value("${ticketero.outbox.batch-size:100}") int batchSize,
+        @Value("${ticketero.outbox.max-concurrency:16}") int maxConcurrency,
+        @Value("${ticketero.outbox.lease:60s}") Duration lease,
+        @Value("${ticketero.outbox.max-idle:5m}") Duration maxIdle
+    ) {
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.ticketRepository = ticketRepository;
+        this.telegramSender = telegramSender;
+        this.transactionTemplate = transactionTemplate;
+        this.retryPolicy = retryPolicy;
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.maxIdle = maxIdle;
+        this.inFlight = new Semaphore(maxConcurrency);
+    }
+
+    private record ClaimedMessage(Long id, LocalDateTime nextAttemptAt, String chatId, String plantilla, int intentos, String text) {}
+
+    // retryAfter solo aplica a DEFERRED (429 de Telegram: no cuenta como intento)
+    private record SendResult(ClaimedMessage message, SendOutcome outcome, Duration retryAfter) {}
+
+    private enum SendOutcome { SENT, FAILED, DEFERRED }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        wakeUp();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketStatusChanged(TicketStatusChangedEvent event) {
+        if (event.enqueuesNotifications()) {
+            wakeUp();
+        }
+    }
+
+    /** Adelanta la próxima pasada a ahora; si ya hay una inmediata pendiente no hace nada. */
+    public void wakeUp() {
+        schedulePoll(0);
+    }
 
-    @Value("${telegram.bot.token}")
-    private String botToken;
+    private synchronized void schedulePoll(long delayMillis) {
+        if (poller.isShutdown()) {
+            return;
+        }
+        if (nextPoll != null) {
+            if (nextPoll.getDelay(TimeUnit.MILLISECONDS) <= delayMillis) {
+                return;
+            }
+            nextPoll.cancel(false);
+        }
+        nextPoll = poller.schedule(this::poll, delayMillis, TimeUnit.MILLISECONDS);
+    }
 
-    @Value("${telegram.bot.api-url:https://api.telegram.org}")
-    private String apiUrl;
+    private void poll() {
+        synchronized (this) {
+            nextPoll = null;
+        }
+        try {
+            processPendingMessages();
+        } catch (RuntimeException e) {
+            log.error("❌ Outbox dispatch failed: {}", e.getMessage(), e);
+        } finally {
+            schedulePoll(millisUntilNextDue());
+        }
+    }
+
+    // Sin mensajes conocidos se vuelve a mirar tras maxIdle (mensajes que otros nodos encolan sin NOTIFY)
+    private long millisUntilNextDue() {
+        try {
+            LocalDateTime earliest = outboxMessageRepository.findEarliestPendingAttempt();
+            long idle = maxIdle.toMillis();
+            if (earliest == null) {
+                return idle;
+            }
+            long untilDue = Duration.between(LocalDateTime.now(), earliest).toMillis();
+            return Math.max(0, Math.min(untilDue, idle));
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Could not read next outbox due time: {}", e.getMessage());
+            return maxIdle.toMillis();
+        }
+    }
 
-    @Scheduled(fixedDelay = 2000) // Cada 2 segundos
-    @Transactional
     public void processPendingMessages() {
-        List<OutboxMessage> pending = outboxMessageRepository
-            .findByEstadoEnvioAndFechaProgramadaBefore(
-                OutboxMessage.MessageStatus.PENDING,
-                LocalDateTime.now()
-            );
-        
-        if (!pending.isEmpty()) {
-            log.info("📤 Processing {} pending messages", pending.size());
+        // Keyset: cada lote sigue tras el último reclamado sin recorrer de nuevo los ya procesados
+        LocalDateTime afterAttemptAt = KEYSET_START;
+        Long afterId = 0L;
+        List<ClaimedMessage> claimed;
+        do {
+            claimed = claimDueMessages(afterAttemptAt, afterId);
+            if (claimed.isEmpty()) {
+                return;
+            }
+            log.info("📤 Processing {} pending messages", claimed.size());
+            ClaimedMessage last = claimed.get(claimed.size() - 1);
+            afterAttemptAt = last.nextAttemptAt();
+            afterId = last.id();
+            LeaseRenewal renewal = renewLeaseWhileSending(claimed);
+            Map<Long, SendResult> results;
+            try {
+                results = sendAll(claimed);
+            } finally {
+                renewal.stop();
+            }
+            acknowledge(results);
+        } while (claimed.size() == batchSize);
+    }
+
+    private List<ClaimedMessage> claimDueMessages(LocalDateTime afterAttemptAt, Long afterId) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxMessage> due = outboxMessageRepository.claimDueAfter(
+                now, afterAttemptAt, afterId, PageRequest.of(0, batchSize));
+            if (due.isEmpty()) {
+                return List.of();
+            }
+            outboxMessageRepository.lease(due.stream().map(OutboxMessage::getId).toList(), now.plus(lease));
+            // Datos de todos los tickets del lote en una sola consulta; el texto se arma
+            // aquí para que el envío no necesite la BD
+            Map<UUID, MessageContextView> contexts = ticketRepository
+                .findMessageContexts(due.stream().map(OutboxMessage::getTicketId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(MessageContextView::getCodigoReferencia, Function.identity()));
+            return due.stream()
+                .map(message -> new ClaimedMessage(
+                    message.getId(), message.getNextAttemptAt(), message.getChatId(), message.getPlantilla(),
+                    message.getIntentos() != null ? message.getIntentos() : 0,
+                    buildMessageText(message, contexts.get(message.getTicketId()))))
+                .toList();
+        });
+    }
+
+    // Un lote puede tardar más que el lease (espaciado por chat, esperas de 429, red lenta):
+    // se renueva cada lease/3 para que otro nodo no lo reclame y duplique los envíos
+    private LeaseRenewal renewLeaseWhileSending(List<ClaimedMessage> claimed) {
+        LeaseRenewal renewal = new LeaseRenewal(claimed.stream().map(ClaimedMessage::id).toList());
+        long period = Math.max(1, lease.toMillis() / 3);
+        renewal.future = leaseRenewer.scheduleWithFixedDelay(renewal, period, period, TimeUnit.MILLISECONDS);
+        return renewal;
+    }
+
+    private final class LeaseRenewal implements Runnable {
+
+        private final List<Long> ids;
+        private ScheduledFuture<?> future;
+        private boolean stopped;
+
+        private LeaseRenewal(List<Long> ids) {
+            this.ids = ids;
         }
 
-        for (OutboxMessage message : pending) {
+        // Sincronizado con stop(): una renovación nunca se confirma después de los resultados
+        @Override
+        public synchronized void run() {
+            if (stopped) {
+                return;
+            }
             try {
-                sendMessageDirectly(message.getChatId(), buildMessageText(message));
-                message.setEstadoEnvio(OutboxMessage.MessageStatus.SENT);
-                message.setFechaEnvio(LocalDateTime.now());
-                log.info("✅ Notification sent: {} to chat {}", message.getPlantilla(), message.getChatId());
-            } catch (Exception e) {
-                message.setIntentos(message.getIntentos() + 1);
-                if (message.getIntentos() >= 3) {
-                    message.setEstadoEnvio(OutboxMessage.MessageStatus.FAILED);
-                    log.error("❌ Notification failed after 3 attempts: {} - Error: {}", message.getId(), e.getMessage());
-                } else {
-                    log.warn("⚠️ Notification attempt {} failed - Error: {}", message.getIntentos(), e.getMessage());
-                }
+                transactionTemplate.executeWithoutResult(status ->
+                    outboxMessageRepository.lease(ids, LocalDateTime.now().plus(lease)));
+                log.debug("Outbox lease renewed for {} messages", ids.size());
+            } catch (RuntimeException e) {
+                log.warn("⚠️ Could not renew outbox lease: {}", e.getMessage());
             }
-            outboxMessageRepository.save(message);
         }
+
+        private synchronized void stop() {
+            stopped = true;
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    private Map<Long, SendResult> sendAll(List<ClaimedMessage> claimed) {
+        Map<Long, SendResult> results = new ConcurrentHashMap<>();
+        Map<String, List<ClaimedMessage>> byChat = claimed.stream()
+            .collect(Collectors.groupingBy(message -> String.valueOf(message.chatId()), LinkedHashMap::new, Collectors.toList()));
+
+        List<Future<?>> futures = new ArrayList<>(byChat.size());
+        for (List<ClaimedMessage> chatMessages : byChat.values()) {
+            futures.add(sendExecutor.submit(() -> sendInOrder(chatMessages, results)));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                log.error("❌ Unexpected error sending notifications: {}", e.getCause().getMessage());
+            }
+        }
+        return results;
+    }
+
+    private void sendInOrder(List<ClaimedMessage> chatMessages, Map<Long, SendResult> results) {
+        SendResult blocker = null;
+        for (ClaimedMessage message : chatMessages) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            if (blocker != null) {
+                // Un ALERTA no puede llegar antes que la CONFIRMACION que quedó pendiente
+                results.put(message.id(), new SendResult(message, SendOutcome.DEFERRED, delayBehind(blocker)));
+                log.debug("Notification {} held behind {} for chat {}", message.id(), blocker.message().id(), message.chatId());
+                continue;
+            }
+            SendResult result = send(message);
+            if (result == null) {
+                return;
+            }
+            results.put(message.id(), result);
+            if (result.outcome() != SendOutcome.SENT) {
+                blocker = result;
+            }
+        }
+    }
+
+    // null si el hilo fue interrumpido: el mensaje queda sin resultado
+    private SendResult send(ClaimedMessage message) {
+        try {
+            // El permiso se toma tras la espera por chat, dentro del sender
+            telegramSender.send(message.chatId(), message.text(), inFlight);
+            log.info("✅ Notification sent: {} to chat {}", message.plantilla(), message.chatId());
+            return new SendResult(message, SendOutcome.SENT, null);
+        } catch (TelegramSender.RateLimitedException e) {
+            log.warn("⏳ Notification {} deferred {}s by Telegram rate limit", message.id(), e.getRetryAfter().toSeconds());
+            return new SendResult(message, SendOutcome.DEFERRED, e.getRetryAfter());
+        } catch (Exception e) {
+            if (Thread.currentThread().isInterrupted()) {
+                return null;
+            }
+            log.warn("⚠️ Notification {} failed - Error: {}", message.id(), e.getMessage());
+            return new SendResult(message, SendOutcome.FAILED, null);
+        }
+    }
+
+    // Los siguientes del chat vuelven no antes que el bloqueante: tras su aplazamiento o
+    // tras el máximo de su ventana de reintento; si se agotó, ya no hay nada que esperar
+    private Duration delayBehind(SendResult blocker) {
+        if (blocker.outcome() == SendOutcome.DEFERRED) {
+            return blocker.retryAfter();
+        }
+        int attempts = blocker.message().intentos() + 1;
+        if (retryPolicy.isExhausted(blocker.message().plantilla(), attempts)) {
+            return Duration.ZERO;
+        }
+        return retryPolicy.backoff(attempts);
     }
 
-    private void sendMessageDirectly(String chatId, String text) {
-        String url = String.format("%s/bot%s/sendMessage", apiUrl, botToken);
-        
-        java.util.Map<String, Object> payload = java.util.Map.of(
-            "chat_id", chatId,
-            "text", text
-        );
-        
-        restTemplate.postForObject(url, payload, String.class);
-    }
-
-    private String buildMessageText(OutboxMessage message) {
-        var ticketOpt = ticketRepository.findById(message.getTicketId());
-        String ticketNumber = ticketOpt.map(ticket -> ticket.getNumero()).orElse("N/A");
-        String advisorName = ticketOpt.map(ticket -> 
-            ticket.getAssignedAdvisor() != null ? ticket.getAssignedAdvisor().getName() : "N/A"
-        ).orElse("N/A");
-        String moduleNumber = ticketOpt.map(ticket -> 
-            ticket.getAssignedModuleNumber() != null ? ticket.getAssignedModuleNumber().toString() : "N/A"
-        ).orElse("N/A");
-            
+    // Mensajes sin resultado (interrupción) no se tocan: su lease vence y se reintentan
+    private void acknowledge(Map<Long, SendResult> results) {
+        List<Long> sent = new ArrayList<>();
+        Map<Integer, List<Long>> retryByAttempt = new HashMap<>();
+        List<Long> exhausted = new ArrayList<>();
+        Map<Duration, List<Long>> deferred = new HashMap<>();
+        results.forEach((id, result) -> {
+            switch (result.outcome()) {
+                case SENT -> sent.add(id);
+                case FAILED -> {
+                    if (retryPolicy.isExhausted(result.message().plantilla(), result.message().intentos() + 1)) {
+                        exhausted.add(id);
+                    } else {
+                        retryByAttempt.computeIfAbsent(result.message().intentos() + 1, attempt -> new ArrayList<>()).add(id);
+                    }
+                }
+                case DEFERRED -> deferred.computeIfAbsent(result.retryAfter(), retryAfter -> new ArrayList<>()).add(id);
+            }
+        });
+
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (!sent.isEmpty()) {
+                outboxMessageRepository.markSent(sent, now);
+            }
+            // Un UPDATE por número de intento; cada fila sortea su jitter para no volver todas a la vez
+            retryByAttempt.forEach((attempt, ids) -> {
+                OutboxRetryPolicy.RetryWindow window = retryPolicy.retryWindow(attempt, now);
+                outboxMessageRepository.scheduleRetry(ids, window.earliest(), window.jitter().toMillis());
+            });
+            if (!exhausted.isEmpty()) {
+                outboxMessageRepository.markFailed(exhausted);
+                log.error("❌ {} notifications failed permanently after max attempts", exhausted.size());
+            }
+            deferred.forEach((retryAfter, ids) -> outboxMessageRepository.defer(ids, now.plus(retryAfter)));
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdownNow();
+        leaseRenewer.shutdownNow();
+        sendExecutor.shutdown();
+    }
+
+    private String buildMessageText(OutboxMessage message, MessageContextView context) {
+        String ticketNumber = context != null && context.getNumero() != null ? context.getNumero() : "N/A";
+        String advisorName = context != null && context.getAdvisorName() != null ? context.getAdvisorName() : "N/A";
+        String moduleNumber = context != null && context.getModuleNumber() != null
+            ? context.getModuleNumber().toString() : "N/A";
+
         return switch (message.getPlantilla()) {
             case "CONFIRMACION" -> """
                 ✅ Ticket creado exitosamente
@@ -122,6 +420,14 @@ public class TelegramService {
                 Dirígete al MÓDULO DE ATENCIÓN AHORA.
                 ⏱️ No hagas esperar.
                 """, ticketNumber, advisorName, moduleNumber);
+            case "VENCIDO" -> String.format("""
+                ⌛ Ticket vencido
+                
+                🎫 Ticket: %s
+                Tu ticket expiró sin ser atendido.
+                
+                Si aún necesitas atención, solicita un nuevo ticket.
+                """, ticketNumber);
             default -> "Notificación del sistema de tickets";
         };
     }
@@ -0,0 +1,150 @@
+package com.banco.ticketero.service;
+
+import com.banco.ticketero.model.dto.telegram.TelegramMessage;
+import com.banco.ticketero.model.dto.telegram.TelegramUpdate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Procesa en segundo plano los updates que llegan por webhook. Cada chat cae
+ * siempre en la misma franja (un hilo virtual con su cola), así los comandos de
+ * un usuario se ejecutan en orden y chats distintos avanzan en paralelo. Con la
+ * franja llena el update se rechaza para que Telegram lo reintente.
+ */
+@Component
+@Slf4j
+public class TelegramUpdateDispatcher {
+
+    private final TelegramBotService telegramBotService;
+    private final ThreadPoolExecutor[] stripes;
+    // Updates encolados o en proceso por franja: con 0 la respuesta puede ir en línea
+    private final AtomicIntegerArray pendingByStripe;
+    private final Duration shutdownTimeout;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Timer lag;
+    private final Timer processing;
+    private final Counter rejected;
+
+    public TelegramUpdateDispatcher(
+        TelegramBotService telegramBotService,
+        MeterRegistry meterRegistry,
+        @Value("${ticketero.telegram.webhook.stripes:16}") int stripeCount,
+        @Value("${ticketero.telegram.webhook.queue-capacity:1000}") int queueCapacity,
+        @Value("${ticketero.telegram.webhook.shutdown-timeout:10s}") Duration shutdownTimeout
+    ) {
+        this.telegramBotService = telegramBotService;
+        this.shutdownTimeout = shutdownTimeout;
+        this.stripes = new ThreadPoolExecutor[stripeCount];
+        this.pendingByStripe = new AtomicIntegerArray(stripeCount);
+        int perStripeCapacity = Math.max(1, queueCapacity / stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(perStripeCapacity),
+                Thread.ofVirtual().name("telegram-stripe-" + i).factory());
+        }
+        Gauge.builder("ticketero.telegram.webhook.queue", queued, AtomicInteger::get)
+            .description("Updates del webhook esperando o en proceso")
+            .register(meterRegistry);
+        this.lag = Timer.builder("ticketero.telegram.webhook.lag")
+            .description("Tiempo desde que se recibe un update hasta que empieza a procesarse")
+            .register(meterRegistry);
+        this.processing = Timer.builder("ticketero.telegram.webhook.processing")
+            .description("Duración del procesamiento de un update")
+            .register(meterRegistry);
+        this.rejected = Counter.builder("ticketero.telegram.webhook.rejected")
+            .description("Updates rechazados por franja llena (Telegram los reintenta)")
+            .register(meterRegistry);
+    }
+
+    /** Encola el update en la franja de su chat; false si está llena. */
+    public boolean submit(TelegramUpdate update) {
+        return submit(update, null);
+    }
+
+    /**
+     * Igual que {@link #submit(TelegramUpdate)}, ofreciendo la primera respuesta a
+     * {@code reply} solo si la franja está libre. Con updates por delante la respuesta
+     * no llegaría a tiempo: {@code reply} se cierra de inmediato y el bot envía aparte.
+     */
+    public boolean submit(TelegramUpdate update, WebhookReply reply) {
+        long receivedAt = System.nanoTime();
+        int stripe = stripeOf(update);
+        boolean idle = pendingByStripe.getAndIncrement(stripe) == 0;
+        WebhookReply inlineReply = idle ? reply : null;
+        if (reply != null && !idle) {
+            reply.finish();
+        }
+        queued.incrementAndGet();
+        try {
+            stripes[stripe].execute(() -> process(update, inlineReply, stripe, receivedAt));
+            return true;
+        } catch (RejectedExecutionException e) {
+            pendingByStripe.decrementAndGet(stripe);
+            queued.decrementAndGet();
+            rejected.increment();
+            log.warn("⚠️ Webhook stripe full, rejecting update {}", update.updateId());
+            return false;
+        }
+    }
+
+    private void process(TelegramUpdate update, WebhookReply reply, int stripe, long receivedAt) {
+        long start = System.nanoTime();
+        lag.record(start - receivedAt, TimeUnit.NANOSECONDS);
+        try {
+            if (reply != null) {
+                telegramBotService.processUpdate(update, reply);
+            } else {
+                telegramBotService.processUpdate(update);
+            }
+        } catch (Exception e) {
+            log.error("❌ Error procesando webhook: {}", e.getMessage(), e);
+        } finally {
+            if (reply != null) {
+                reply.finish();
+            }
+            processing.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            pendingByStripe.decrementAndGet(stripe);
+            queued.decrementAndGet();
+        }
+    }
+
+    int stripeOf(TelegramUpdate update) {
+        TelegramMessage message = update.message();
+        long key = message != null && message.chatId() != null ? message.chatId() : update.updateId();
+        return Math.floorMod(Long.hashCode(key), stripes.length);
+    }
+
+    // Lo ya aceptado se procesa antes de apagar; Telegram ya recibió su 200
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor stripe : stripes) {
+            stripe.shutdown();
+        }
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        try {
+            for (ThreadPoolExecutor stripe : stripes) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !stripe.awaitTermination(remaining, TimeUnit.NANOSECONDS)) {
+                    log.warn("⚠️ {} webhook updates still pending at shutdown", queued.get());
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.banco.ticketero.service;
+
+import com.banco.ticketero.config.SchedulingConfig;
+import com.banco.ticketero.model.TicketStatus;
+import com.banco.ticketero.model.entity.Ticket;
+import com.banco.ticketero.repository.TicketRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Mueve los tickets terminales a {@code ticket_history} en lotes acotados (una
+ * transacción corta por lote, con SKIP LOCKED) para que la tabla viva y sus
+ * índices solo contengan la cola activa.
+ */
+@Component
+@Slf4j
+public class TicketArchiver {
+
+    static final Set<TicketStatus> TERMINAL_STATUSES = EnumSet.of(
+        TicketStatus.COMPLETADO, TicketStatus.CANCELADO, TicketStatus.NO_ATENDIDO, TicketStatus.VENCIDO);
+
+    private final TicketRepository ticketRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration minAge;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public TicketArchiver(
+        TicketRepository ticketRepository,
+        TransactionTemplate transactionTemplate,
+        @Value("${ticketero.ticket-archive.enabled:true}") boolean enabled,
+        @Value("${ticketero.ticket-archive.min-age:30m}") Duration minAge,
+        @Value("${ticketero.ticket-archive.batch-size:500}") int batchSize,
+        @Value("${ticketero.ticket-archive.max-batches-per-run:20}") int maxBatchesPerRun
+    ) {
+        this.ticketRepository = ticketRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(fixedDelayString = "${ticketero.ticket-archive.interval:300000}", scheduler = SchedulingConfig.MAINTENANCE_SCHEDULER)
+    public void archive() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int total = 0;
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                int moved = moveBatch();
+                total += moved;
+                if (moved < batchSize) {
+                    break;
+                }
+            }
+            if (total > 0) {
+                log.info("📦 Archived {} terminal tickets", total);
+            }
+        } catch (RuntimeException e) {
+            log.error("❌ Ticket archiving failed: {}", e.getMessage(), e);
+        }
+    }
+
+    int moveBatch() {
+        Integer moved = transactionTemplate.execute(status -> {
+            List<UUID> ids = ticketRepository.claimTerminalForArchive(
+                    TERMINAL_STATUSES, LocalDateTime.now().minus(minAge), PageRequest.of(0, batchSize))
+                .stream()
+                .map(Ticket::getCodigoReferencia)
+                .toList();
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            ticketRepository.copyToHistory(ids);
+            return ticketRepository.deleteAllByCodigoReferenciaIn(ids);
+        });
+        return moved != null ? moved : 0;
+    }
+}
@@ -0,0 +1,215 @@
+package com.banco.ticketero.service;
+
+import com.banco.ticketero.config.SchedulingConfig;
+import com.banco.ticketero.model.QueueType;
+import com.banco.ticketero.model.TicketStatus;
+import com.banco.ticketero.model.event.TicketStatusChangedEvent;
+import com.banco.ticketero.repository.TicketHistoryRepository;
+import com.banco.ticketero.repository.TicketRepository;
+import com.banco.ticketero.repository.TicketRepository.StatusCountView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Cantidad de tickets por cola y estado en memoria, incluyendo los archivados en
+ * el histórico (el archivado no cambia el estado). Los eventos de cambio de estado
+ * mueven una unidad de un estado a otro y una pasada periódica contra la BD corrige
+ * lo que no pasa por eventos (otros nodos, purgas).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TicketCounters {
+
+    private static final int STATUSES = TicketStatus.values().length;
+
+    private final TicketRepository ticketRepository;
+    private final TicketHistoryRepository ticketHistoryRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuildMonitor = new Object();
+    private long[] counts = new long[QueueType.values().length * STATUSES];
+    private List<TicketStatusChangedEvent> eventsDuringRebuild;
+    private volatile boolean ready;
+
+    /** Copia inmutable de los contadores. */
+    public static final class Snapshot {
+
+        private final long[] counts;
+
+        private Snapshot(long[] counts) {
+            this.counts = counts;
+        }
+
+        public long count(QueueType queueType, TicketStatus status) {
+            return counts[index(queueType, status)];
+        }
+
+        public long count(TicketStatus status) {
+            long total = 0;
+            for (QueueType queueType : QueueType.values()) {
+                total += count(queueType, status);
+            }
+            return total;
+        }
+
+        /** En espera = EN_ESPERA + PROXIMO, la misma definición que el índice de posiciones. */
+        public long waiting(QueueType queueType) {
+            long total = 0;
+            for (TicketStatus status : QueuePositionIndex.WAITING_STATUSES) {
+                total += count(queueType, status);
+            }
+            return total;
+        }
+
+        public long waiting() {
+            long total = 0;
+            for (TicketStatus status : QueuePositionIndex.WAITING_STATUSES) {
+                total += count(status);
+            }
+            return total;
+        }
+
+        public long count(QueueType queueType) {
+            long total = 0;
+            for (TicketStatus status : TicketStatus.values()) {
+                total += count(queueType, status);
+            }
+            return total;
+        }
+
+        public long total() {
+            long total = 0;
+            for (long count : counts) {
+                total += count;
+            }
+            return total;
+        }
+    }
+
+    /** Snapshot armado desde los conteos agrupados de la tabla viva y del histórico. */
+    public static Snapshot fromCounts(List<StatusCountView> live, List<StatusCountView> archived) {
+        long[] counts = new long[QueueType.values().length * STATUSES];
+        add(live, counts);
+        add(archived, counts);
+        return new Snapshot(counts);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public Snapshot snapshot() {
+        lock.readLock().lock();
+        try {
+            return new Snapshot(counts.clone());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Los contadores en memoria o, mientras no estén listos (arranque), el conteo agrupado en la BD. */
+    public Snapshot snapshotOrQuery() {
+        if (ready) {
+            return snapshot();
+        }
+        return fromCounts(ticketRepository.countGroupedByQueueTypeAndStatus(),
+            ticketHistoryRepository.countGroupedByQueueTypeAndStatus());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketStatusChanged(TicketStatusChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (eventsDuringRebuild != null) {
+                eventsDuringRebuild.add(event);
+            }
+            apply(event, counts);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(
+        fixedDelayString = "${ticketero.ticket-counters.resync-interval:300000}",
+        initialDelayString = "${ticketero.ticket-counters.resync-interval:300000}",
+        scheduler = SchedulingConfig.QUEUE_SCHEDULER
+    )
+    public void resync() {
+        rebuild();
+    }
+
+    // Un evento confirmado justo antes de la lectura puede contarse dos veces; la próxima pasada lo corrige
+    public void rebuild() {
+        synchronized (rebuildMonitor) {
+            setEventsDuringRebuild(new ArrayList<>());
+
+            long[] newCounts = fromCounts(ticketRepository.countGroupedByQueueTypeAndStatus(),
+                ticketHistoryRepository.countGroupedByQueueTypeAndStatus()).counts;
+
+            long drift;
+            boolean wasReady = ready;
+            lock.writeLock().lock();
+            try {
+                eventsDuringRebuild.forEach(event -> apply(event, newCounts));
+                eventsDuringRebuild = null;
+                drift = drift(counts, newCounts);
+                counts = newCounts;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (wasReady && drift > 0) {
+                log.info("🔢 Ticket counters resynced: {} tickets of drift corrected", drift);
+            }
+        }
+    }
+
+    private void setEventsDuringRebuild(List<TicketStatusChangedEvent> buffer) {
+        lock.writeLock().lock();
+        try {
+            eventsDuringRebuild = buffer;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void add(List<StatusCountView> views, long[] counts) {
+        for (StatusCountView view : views) {
+            counts[index(view.getQueueType(), view.getStatus())] += view.getTotal();
+        }
+    }
+
+    private static void apply(TicketStatusChangedEvent event, long[] counts) {
+        if (event.previousStatus() != null) {
+            counts[index(event.queueType(), event.previousStatus())]--;
+        }
+        counts[index(event.queueType(), event.newStatus())]++;
+    }
+
+    private static long drift(long[] before, long[] after) {
+        long drift = 0;
+        for (int i = 0; i < before.length; i++) {
+            drift += Math.abs(after[i] - before[i]);
+        }
+        return drift;
+    }
+
+    private static int index(QueueType queueType, TicketStatus status) {
+        return queueType.ordinal() * STATUSES + status.ordinal();
+    }
+}
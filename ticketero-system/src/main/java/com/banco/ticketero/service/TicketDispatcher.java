@@ -0,0 +1,132 @@
+package com.banco.ticketero.service;
+
+import com.banco.ticketero.model.TicketStatus;
+import com.banco.ticketero.model.entity.Advisor;
+import com.banco.ticketero.model.event.AdvisorStatusChangedEvent;
+import com.banco.ticketero.model.event.TicketStatusChangedEvent;
+import com.banco.ticketero.service.AssignmentService.Assignment;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Asigna tickets en cuanto cambia algo relevante: ticket nuevo (al cumplir el
+ * retardo de elegibilidad), asesor disponible o atención terminada. Cada pasada
+ * empareja todo lo posible; las solicitudes que llegan mientras hay una pendiente
+ * se agrupan en la misma. El scheduler queda solo como reconciliador.
+ */
+@Component
+@Slf4j
+public class TicketDispatcher {
+
+    private final AssignmentService assignmentService;
+    private final Duration eligibilityDelay;
+    private final int batchSize;
+    private final Timer assignmentLatency;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ticket-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean dispatchPending = new AtomicBoolean();
+    // Momento en que cada asesor quedó libre, para medir la latencia de asignación
+    private final ConcurrentMap<Long, LocalDateTime> advisorFreedAt = new ConcurrentHashMap<>();
+
+    public TicketDispatcher(
+        AssignmentService assignmentService,
+        MeterRegistry meterRegistry,
+        @Value("${ticketero.dispatcher.eligibility-delay:30s}") Duration eligibilityDelay,
+        @Value("${ticketero.dispatcher.batch-size:50}") int batchSize
+    ) {
+        this.assignmentService = assignmentService;
+        this.eligibilityDelay = eligibilityDelay;
+        this.batchSize = batchSize;
+        this.assignmentLatency = Timer.builder("ticketero.assignment.latency")
+            .description("Tiempo desde que un ticket y un asesor libre pueden emparejarse hasta la asignación")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketStatusChanged(TicketStatusChangedEvent event) {
+        if (event.previousStatus() != null || event.newStatus() != TicketStatus.EN_ESPERA) {
+            return;
+        }
+        // Despertar único cuando el ticket cumple el retardo de elegibilidad
+        Duration untilEligible = Duration.between(LocalDateTime.now(), event.createdAt().plus(eligibilityDelay));
+        if (untilEligible.isNegative() || untilEligible.isZero()) {
+            requestDispatch();
+        } else {
+            executor.schedule(this::requestDispatch, untilEligible.toMillis() + 1, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAdvisorStatusChanged(AdvisorStatusChangedEvent event) {
+        if (event.newStatus() != Advisor.AdvisorStatus.AVAILABLE) {
+            advisorFreedAt.remove(event.advisorId());
+            return;
+        }
+        advisorFreedAt.put(event.advisorId(), event.occurredAt());
+        requestDispatch();
+    }
+
+    /** Encola una pasada si no hay otra pendiente. */
+    public void requestDispatch() {
+        if (dispatchPending.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                dispatchPending.set(false);
+                try {
+                    dispatchNow();
+                } catch (RuntimeException e) {
+                    log.error("❌ Ticket dispatch failed: {}", e.getMessage(), e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Pasada síncrona; la usan el hilo del dispatcher y el reconciliador. Se repite
+     * mientras un lote completo de asesores reclamados quede ocupado.
+     */
+    public synchronized int dispatchNow() {
+        int total = 0;
+        List<Assignment> assignments;
+        do {
+            LocalDateTime eligibleBefore = LocalDateTime.now().minus(eligibilityDelay);
+            assignments = assignmentService.assignAvailable(eligibleBefore, batchSize);
+            assignments.forEach(this::recordLatency);
+            total += assignments.size();
+        } while (assignments.size() >= batchSize);
+        return total;
+    }
+
+    private void recordLatency(Assignment assignment) {
+        LocalDateTime readyAt = assignment.ticketCreatedAt().plus(eligibilityDelay);
+        LocalDateTime freedAt = advisorFreedAt.remove(assignment.advisorId());
+        if (freedAt != null && freedAt.isAfter(readyAt)) {
+            readyAt = freedAt;
+        }
+        Duration latency = Duration.between(readyAt, assignment.assignedAt());
+        assignmentLatency.record(latency.isNegative() ? Duration.ZERO : latency);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
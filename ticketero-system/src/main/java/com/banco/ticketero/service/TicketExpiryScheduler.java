@@ -0,0 +1,123 @@
+package com.banco.ticketero.service;
+
+import com.banco.ticketero.config.SchedulingConfig;
+import com.banco.ticketero.model.TicketStatus;
+import com.banco.ticketero.model.entity.OutboxMessage;
+import com.banco.ticketero.model.entity.Ticket;
+import com.banco.ticketero.model.event.TicketStatusChangedEvent;
+import com.banco.ticketero.repository.OutboxMessageRepository;
+import com.banco.ticketero.repository.TicketRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Vence los tickets en cola cuya vigencia terminó. Cada lote es una transacción
+ * corta: reclama los tickets con SKIP LOCKED, los marca VENCIDO con un único
+ * UPDATE y encola sus avisos en el outbox. Los eventos publicados mantienen al día
+ * el índice de posiciones en memoria.
+ */
+@Component
+@Slf4j
+public class TicketExpiryScheduler {
+
+    static final Set<TicketStatus> EXPIRABLE_STATUSES = EnumSet.of(TicketStatus.EN_ESPERA, TicketStatus.PROXIMO);
+
+    private final TicketRepository ticketRepository;
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public TicketExpiryScheduler(
+        TicketRepository ticketRepository,
+        OutboxMessageRepository outboxMessageRepository,
+        ApplicationEventPublisher eventPublisher,
+        TransactionTemplate transactionTemplate,
+        @Value("${ticketero.scheduler.cancel-expired.enabled:true}") boolean enabled,
+        @Value("${ticketero.scheduler.cancel-expired.batch-size:500}") int batchSize,
+        @Value("${ticketero.scheduler.cancel-expired.max-batches-per-run:20}") int maxBatchesPerRun
+    ) {
+        this.ticketRepository = ticketRepository;
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(fixedDelayString = "${ticketero.scheduler.cancel-expired.fixed-delay:60000}", scheduler = SchedulingConfig.QUEUE_SCHEDULER)
+    public void cancelExpired() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int total = 0;
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                int expired = expireBatch();
+                total += expired;
+                if (expired < batchSize) {
+                    break;
+                }
+            }
+            if (total > 0) {
+                log.info("⌛ Expired {} tickets", total);
+            }
+        } catch (RuntimeException e) {
+            log.error("❌ Ticket expiry failed: {}", e.getMessage(), e);
+        }
+    }
+
+    int expireBatch() {
+        Integer expired = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Ticket> tickets = ticketRepository.claimExpired(
+                EXPIRABLE_STATUSES, now, PageRequest.of(0, batchSize));
+            if (tickets.isEmpty()) {
+                return 0;
+            }
+
+            List<UUID> ids = tickets.stream().map(Ticket::getCodigoReferencia).toList();
+            int updated = ticketRepository.markExpired(ids, now);
+
+            List<OutboxMessage> avisos = tickets.stream()
+                .map(ticket -> buildExpiredMessage(ticket, now))
+                .filter(Objects::nonNull)
+                .toList();
+            outboxMessageRepository.saveAll(avisos);
+
+            // Se publican tras el UPDATE; los listeners actúan después del commit
+            tickets.forEach(ticket -> eventPublisher.publishEvent(TicketStatusChangedEvent.expired(ticket, now)));
+            return updated;
+        });
+        return expired != null ? expired : 0;
+    }
+
+    private OutboxMessage buildExpiredMessage(Ticket ticket, LocalDateTime now) {
+        String chatId = ticket.getChatId();
+        if (chatId == null) {
+            return null;
+        }
+        return OutboxMessage.builder()
+            .ticketId(ticket.getCodigoReferencia())
+            .plantilla("VENCIDO")
+            .estadoEnvio(OutboxMessage.MessageStatus.PENDING)
+            .chatId(chatId)
+            .fechaProgramada(now)
+            .build();
+    }
+}
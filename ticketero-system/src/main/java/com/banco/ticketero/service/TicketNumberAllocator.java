@@ -0,0 +1,14 @@
+package com.banco.ticketero.service;
+
+import com.banco.ticketero.model.QueueType;
+
+import java.time.LocalDate;
+
+/**
+ * Genera el número visible del ticket (ej. C001). Los números son únicos por
+ * sucursal, tipo de cola y día de negocio.
+ */
+public interface TicketNumberAllocator {
+
+    String nextNumber(QueueType queueType, String branchOffice, LocalDate businessDate);
+}
@@ -0,0 +1,93 @@
+package com.banco.ticketero.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Reserva bloques de la tabla ticket_number_sequence con un pool de conexiones propio.
+ * La reserva ocurre dentro de la transacción de creación del ticket, que ya tiene una
+ * conexión del pool principal: pedir una segunda al mismo pool puede agotarlo en una
+ * ráfaga al final de un bloque y bloquear las creaciones hasta el timeout de Hikari.
+ */
+@Component
+@Slf4j
+public class TicketNumberSequenceLeaser {
+
+    private static final int MAX_LEASE_ATTEMPTS = 3;
+
+    private static final String SELECT_FOR_UPDATE =
+        "SELECT next_value FROM ticket_number_sequence "
+            + "WHERE branch_office = ? AND queue_prefix = ? AND business_date = ? FOR UPDATE";
+    private static final String UPDATE =
+        "UPDATE ticket_number_sequence SET next_value = ? "
+            + "WHERE branch_office = ? AND queue_prefix = ? AND business_date = ?";
+    private static final String INSERT =
+        "INSERT INTO ticket_number_sequence (branch_office, queue_prefix, business_date, next_value) "
+            + "VALUES (?, ?, ?, ?)";
+
+    private final HikariDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+
+    public TicketNumberSequenceLeaser(
+        DataSourceProperties dataSourceProperties,
+        @Value("${ticketero.ticket-number.lease-pool-size:2}") int poolSize
+    ) {
+        this.dataSource = dataSourceProperties.initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .build();
+        this.dataSource.setPoolName("ticket-number-lease");
+        this.dataSource.setMaximumPoolSize(poolSize);
+        this.dataSource.setMinimumIdle(1);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    /**
+     * Reserva [inicio, inicio + blockSize) y devuelve el inicio. Crea la fila de la
+     * secuencia si es el primer bloque del día para esa sucursal y cola.
+     */
+    public long lease(String branchOffice, String queuePrefix, LocalDate businessDate, int blockSize) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Long start = transaction.execute(status -> reserve(branchOffice, queuePrefix, businessDate, blockSize));
+                log.debug("Reserved ticket numbers [{}, {}) for {}/{}/{}",
+                    start, start + blockSize, branchOffice, queuePrefix, businessDate);
+                return start;
+            } catch (DuplicateKeyException e) {
+                // Otro nodo creó la fila de la secuencia al mismo tiempo: reintentar con bloqueo
+                if (attempt >= MAX_LEASE_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Concurrent sequence creation for {}/{}/{}, retrying", branchOffice, queuePrefix, businessDate);
+            }
+        }
+    }
+
+    private Long reserve(String branchOffice, String queuePrefix, LocalDate businessDate, int blockSize) {
+        List<Long> current = jdbcTemplate.queryForList(SELECT_FOR_UPDATE, Long.class, branchOffice, queuePrefix, businessDate);
+        if (current.isEmpty()) {
+            jdbcTemplate.update(INSERT, branchOffice, queuePrefix, businessDate, 1L + blockSize);
+            return 1L;
+        }
+        long start = current.get(0);
+        jdbcTemplate.update(UPDATE, start + blockSize, branchOffice, queuePrefix, businessDate);
+        return start;
+    }
+
+    @PreDestroy
+    void close() {
+        dataSource.close();
+    }
+}
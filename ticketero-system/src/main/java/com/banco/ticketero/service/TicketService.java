@@ -1,23 +1,33 @@
 package com.banco.ticketero.service;
 
+import com.banco.ticketero.exception.AmbiguousTicketNumberException;
 import com.banco.ticketero.model.QueueType;
 import com.banco.ticketero.model.TicketStatus;
 import com.banco.ticketero.model.dto.request.CreateTicketRequest;
+import com.banco.ticketero.model.dto.response.ChatTicketResponse;
 import com.banco.ticketero.model.dto.response.PositionResponse;
 import com.banco.ticketero.model.dto.response.TicketResponse;
 import com.banco.ticketero.model.entity.OutboxMessage;
+import com.banco.ticketero.model.event.TicketStatusChangedEvent;
 import com.banco.ticketero.model.entity.Ticket;
+import com.banco.ticketero.model.entity.TicketHistory;
 import com.banco.ticketero.repository.OutboxMessageRepository;
+import com.banco.ticketero.repository.TicketHistoryRepository;
 import com.banco.ticketero.repository.TicketRepository;
+import com.banco.ticketero.repository.TicketRepository.ChatTicketView;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 @RequiredArgsConstructor
@@ -26,41 +36,23 @@ import java.util.concurrent.atomic.AtomicInteger;
 public class TicketService {
 
     private final TicketRepository ticketRepository;
+    private final TicketHistoryRepository ticketHistoryRepository;
     private final OutboxMessageRepository outboxMessageRepository;
-    private final AtomicInteger ticketCounter = new AtomicInteger(1);
+    private final TicketNumberAllocator ticketNumberAllocator;
+    private final QueuePositionIndex queuePositionIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public TicketResponse createFromTelegram(String nationalId, String chatId, QueueType queueType) {
         log.info("Creating Telegram ticket for nationalId: {}, chatId: {}, queue: {}", nationalId, chatId, queueType);
 
-        String numero = generateTicketNumber(queueType);
-        
-        Ticket ticket = Ticket.builder()
-            .numero(numero)
+        Ticket saved = createTicket(Ticket.builder()
             .nationalId(nationalId)
             .telefono(chatId)
             .branchOffice("Telegram Bot")
-            .queueType(queueType)
-            .status(TicketStatus.EN_ESPERA)
-            .build();
-
-        Ticket saved = ticketRepository.save(ticket);
+            .queueType(queueType));
 
-        long position = ticketRepository.countPositionInQueue(
-            saved.getQueueType(), 
-            saved.getCreatedAt()
-        ) + 1;
-        
-        int estimatedTime = saved.getQueueType().calculateEstimatedTime((int) position);
-        
-        saved.setPositionInQueue((int) position);
-        saved.setEstimatedWaitMinutes(estimatedTime);
-        
-        saved = ticketRepository.save(saved);
-
-        scheduleNotificationMessages(saved);
-
-        log.info("Telegram ticket created: {}, position: {}, chatId: {}", saved.getNumero(), position, chatId);
+        log.info("Telegram ticket created: {}, position: {}, chatId: {}", saved.getNumero(), saved.getPositionInQueue(), chatId);
 
         return toResponse(saved);
     }
@@ -69,56 +61,70 @@ public class TicketService {
     public TicketResponse create(CreateTicketRequest request) {
         log.info("Creating ticket for nationalId: {}, queue: {}", request.nationalId(), request.queueType());
 
-        String numero = generateTicketNumber(request.queueType());
-        
-        Ticket ticket = Ticket.builder()
-            .numero(numero)
+        Ticket saved = createTicket(Ticket.builder()
             .nationalId(request.nationalId())
             .telefono(request.telefono())
             .branchOffice(request.branchOffice())
-            .queueType(request.queueType())
-            .status(TicketStatus.EN_ESPERA)
-            .build();
+            .queueType(request.queueType()));
 
-        Ticket saved = ticketRepository.save(ticket);
-
-        long position = ticketRepository.countPositionInQueue(
-            saved.getQueueType(), 
-            saved.getCreatedAt()
-        ) + 1;
-        
-        int estimatedTime = saved.getQueueType().calculateEstimatedTime((int) position);
-        
-        saved.setPositionInQueue((int) position);
-        saved.setEstimatedWaitMinutes(estimatedTime);
-        
-        saved = ticketRepository.save(saved);
-
-        scheduleNotificationMessages(saved);
-
-        log.info("Ticket created: {}, position: {}", saved.getNumero(), position);
+        log.info("Ticket created: {}, position: {}", saved.getNumero(), saved.getPositionInQueue());
 
         return toResponse(saved);
     }
 
+    // Tickets terminales antiguos ya no están en la tabla viva: se buscan en el histórico
     public Optional<TicketResponse> findByCodigoReferencia(UUID codigoReferencia) {
         return ticketRepository.findById(codigoReferencia)
-            .map(this::toResponse);
+            .map(this::toResponse)
+            .or(() -> ticketHistoryRepository.findById(codigoReferencia).map(this::toResponse));
     }
 
     public Optional<TicketResponse> findByNumero(String numero) {
-        return ticketRepository.findByNumero(numero)
-            .map(this::toResponse);
+        return findByNumero(numero, null, null);
+    }
+
+    /**
+     * El número solo es único por sucursal y día. Sin fecha se busca en el día de hoy
+     * (la numeración se reinicia a diario); sin sucursal, en todas. Si aun así coincide
+     * más de un ticket no se adivina cuál.
+     */
+    public Optional<TicketResponse> findByNumero(String numero, String branchOffice, LocalDate date) {
+        LocalDate day = date != null ? date : LocalDate.now();
+        List<TicketResponse> matches = new ArrayList<>();
+        List<String> candidates = new ArrayList<>();
+        for (Ticket ticket : ticketRepository.findAllByNumero(numero, branchOffice, day)) {
+            matches.add(toResponse(ticket));
+            candidates.add(ticket.getBranchOffice() + " " + day);
+        }
+        // Tickets terminales antiguos: se buscan también en el histórico
+        for (TicketHistory ticket : ticketHistoryRepository.findAllByNumero(numero, branchOffice, day)) {
+            matches.add(toResponse(ticket));
+            candidates.add(ticket.getBranchOffice() + " " + day);
+        }
+        if (matches.size() > 1) {
+            throw new AmbiguousTicketNumberException(numero, candidates);
+        }
+        return matches.stream().findFirst();
     }
 
     public PositionResponse calculatePosition(UUID codigoReferencia) {
+        // Tickets en espera: se responde desde el índice en memoria, sin tocar la BD
+        var indexed = queuePositionIndex.findPosition(codigoReferencia);
+        if (indexed.isPresent()) {
+            var position = indexed.get();
+            return new PositionResponse(
+                position.numero(),
+                position.position(),
+                position.queueType().calculateEstimatedTime(position.position()),
+                position.status(),
+                LocalDateTime.now()
+            );
+        }
+
         Ticket ticket = ticketRepository.findById(codigoReferencia)
             .orElseThrow(() -> new RuntimeException("Ticket not found"));
 
-        long position = ticketRepository.countPositionInQueue(
-            ticket.getQueueType(), 
-            ticket.getCreatedAt()
-        ) + 1;
+        long position = countAhead(ticket.getQueueType(), ticket.getCreatedAt()) + 1;
 
         int estimatedTime = ticket.getQueueType().calculateEstimatedTime((int) position);
 
@@ -131,6 +137,14 @@ public class TicketService {
         );
     }
 
+    /** Tickets activos de un chat con su posición y tiempo estimado actuales. */
+    public List<ChatTicketResponse> findActiveByChatId(String chatId) {
+        return ticketRepository.findActiveByChatId(chatId)
+            .stream()
+            .map(this::toChatResponse)
+            .toList();
+    }
+
     public java.util.List<TicketResponse> findAll() {
         return ticketRepository.findAll()
             .stream()
@@ -138,13 +152,39 @@ public class TicketService {
             .toList();
     }
 
-    private String generateTicketNumber(QueueType queueType) {
-        int number = ticketCounter.getAndIncrement();
-        return String.format("%s%03d", queueType.getPrefijo(), number);
+    /**
+     * Calcula posición y tiempo estimado antes del INSERT para que el ticket y sus
+     * mensajes CONFIRMACION/ALERTA se escriban en un único flush por lotes.
+     */
+    private Ticket createTicket(Ticket.TicketBuilder builder) {
+        Ticket ticket = builder.build();
+        QueueType queueType = ticket.getQueueType();
+        // Precisión de microsegundos, igual que la columna en BD, para que el índice coincida al reconstruirse
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+        long position = countAhead(queueType, now) + 1;
+
+        ticket.setNumero(ticketNumberAllocator.nextNumber(queueType, ticket.getBranchOffice(), now.toLocalDate()));
+        ticket.setStatus(TicketStatus.EN_ESPERA);
+        ticket.setCreatedAt(now);
+        ticket.setPositionInQueue((int) position);
+        ticket.setEstimatedWaitMinutes(queueType.calculateEstimatedTime((int) position));
+
+        Ticket saved = ticketRepository.save(ticket);
+        scheduleNotificationMessages(saved, now);
+        eventPublisher.publishEvent(TicketStatusChangedEvent.created(saved));
+        return saved;
+    }
+
+    private long countAhead(QueueType queueType, LocalDateTime createdAt) {
+        if (queuePositionIndex.isReady()) {
+            return queuePositionIndex.countAhead(queueType, createdAt);
+        }
+        return ticketRepository.countPositionInQueue(queueType, createdAt);
     }
 
-    private void scheduleNotificationMessages(Ticket ticket) {
-        String chatId = getChatId(ticket.getTelefono());
+    private void scheduleNotificationMessages(Ticket ticket, LocalDateTime now) {
+        String chatId = ticket.getChatId();
         if (chatId == null) {
             log.debug("No chat ID found for ticket: {}", ticket.getNumero());
             return;
@@ -154,6 +194,7 @@ public class TicketService {
             .ticketId(ticket.getCodigoReferencia())
             .plantilla("CONFIRMACION")
             .estadoEnvio(OutboxMessage.MessageStatus.PENDING)
+            .fechaProgramada(now)
             .chatId(chatId)
             .build();
 
@@ -162,30 +203,41 @@ public class TicketService {
             .ticketId(ticket.getCodigoReferencia())
             .plantilla("ALERTA")
             .estadoEnvio(OutboxMessage.MessageStatus.PENDING)
-            .fechaProgramada(LocalDateTime.now().plusSeconds(5))
+            .fechaProgramada(now.plusSeconds(5))
             .chatId(chatId)
             .build();
 
-        outboxMessageRepository.save(confirmacion);
-        outboxMessageRepository.save(alerta);
+        outboxMessageRepository.saveAll(List.of(confirmacion, alerta));
         log.debug("Messages scheduled for ticket: {} (confirmation + alert)", ticket.getNumero());
     }
     
-    private String getChatId(String telefono) {
-        if (telefono == null || telefono.isEmpty()) return null;
-        
-        // Si es formato chileno (+56...), extraer el número después de +56
-        if (telefono.startsWith("+56")) {
-            return telefono.substring(3);
+    private ChatTicketResponse toChatResponse(ChatTicketView ticket) {
+        if (ticket.getStatus() == TicketStatus.ATENDIENDO) {
+            return new ChatTicketResponse(ticket.getNumero(), ticket.getQueueType(), ticket.getStatus(),
+                null, 0, ticket.getAssignedModuleNumber());
         }
-        
-        // Si es solo números (chat_id de Telegram), usar como está
-        if (telefono.matches("^\\d+$")) {
-            return telefono;
-        }
-        
-        // Si no es un formato reconocido, no enviar notificaciones
-        return null;
+        int position = queuePositionIndex.findPosition(ticket.getCodigoReferencia())
+            .map(QueuePositionIndex.QueuePosition::position)
+            .orElseGet(() -> (int) countAhead(ticket.getQueueType(), ticket.getCreatedAt()) + 1);
+        return new ChatTicketResponse(ticket.getNumero(), ticket.getQueueType(), ticket.getStatus(),
+            position, ticket.getQueueType().calculateEstimatedTime(position), null);
+    }
+
+    private TicketResponse toResponse(TicketHistory ticket) {
+        return new TicketResponse(
+            ticket.getCodigoReferencia(),
+            ticket.getNumero(),
+            ticket.getNationalId(),
+            ticket.getTelefono(),
+            ticket.getQueueType(),
+            ticket.getStatus(),
+            ticket.getPositionInQueue(),
+            ticket.getEstimatedWaitMinutes(),
+            ticket.getAssignedAdvisorName(),
+            ticket.getAssignedModuleNumber(),
+            ticket.getCreatedAt(),
+            ticket.getExpiresAt()
+        );
     }
 
     private TicketResponse toResponse(Ticket ticket) {
@@ -0,0 +1,197 @@
+package com.banco.ticketero.service;
+
+import com.banco.ticketero.config.SchedulingConfig;
+import com.banco.ticketero.model.TicketStatus;
+import com.banco.ticketero.model.event.TicketStatusChangedEvent;
+import com.banco.ticketero.repository.TicketRepository;
+import com.banco.ticketero.repository.TicketRepository.TicketTimerView;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plazos de los tickets en memoria: fin de la atención simulada (ATENDIENDO) y
+ * vencimiento de los tickets en cola, en dos {@link TimerWheel}. Los eventos de
+ * cambio de estado programan o cancelan cada plazo en O(1) y un hilo propio avanza
+ * las ruedas cada tick, cerrando en lotes las atenciones cumplidas. Se recargan
+ * desde la BD al arrancar y periódicamente (tickets de otros nodos).
+ */
+@Component
+@Slf4j
+public class TicketTimers {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final TicketRepository ticketRepository;
+    private final AssignmentService assignmentService;
+    private final TicketExpiryScheduler ticketExpiryScheduler;
+    private final Duration attentionTime;
+    private final Duration tick;
+    private final int batchSize;
+    private final TimerWheel<UUID> attentionDeadlines;
+    private final TimerWheel<UUID> expirations;
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ticket-timers");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public TicketTimers(
+        TicketRepository ticketRepository,
+        AssignmentService assignmentService,
+        TicketExpiryScheduler ticketExpiryScheduler,
+        @Value("${ticketero.timers.attention-time:20s}") Duration attentionTime,
+        @Value("${ticketero.timers.tick:1s}") Duration tick,
+        @Value("${ticketero.timers.wheel-size:512}") int wheelSize,
+        @Value("${ticketero.timers.batch-size:100}") int batchSize
+    ) {
+        this.ticketRepository = ticketRepository;
+        this.assignmentService = assignmentService;
+        this.ticketExpiryScheduler = ticketExpiryScheduler;
+        this.attentionTime = attentionTime;
+        this.tick = tick;
+        this.batchSize = batchSize;
+        long now = System.currentTimeMillis();
+        this.attentionDeadlines = new TimerWheel<>(tick, wheelSize, now);
+        this.expirations = new TimerWheel<>(tick, wheelSize, now);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        reload();
+        ticker.scheduleWithFixedDelay(this::advance, tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketStatusChanged(TicketStatusChangedEvent event) {
+        synchronized (this) {
+            if (event.newStatus() == TicketStatus.ATENDIENDO) {
+                expirations.cancel(event.ticketId());
+                attentionDeadlines.schedule(event.ticketId(), toMillis(event.occurredAt().plus(attentionTime)));
+            } else if (QueuePositionIndex.WAITING_STATUSES.contains(event.newStatus())) {
+                // La vigencia guardada en el ticket, la misma que usa la recarga desde la BD
+                if (event.expiresAt() != null) {
+                    expirations.schedule(event.ticketId(), toMillis(event.expiresAt()));
+                }
+            } else {
+                attentionDeadlines.cancel(event.ticketId());
+                expirations.cancel(event.ticketId());
+            }
+        }
+    }
+
+    // Sin limpiar las ruedas: reprogramar es idempotente y un plazo obsoleto solo dispara una consulta vacía
+    @Scheduled(
+        fixedDelayString = "${ticketero.timers.resync-interval:300000}",
+        initialDelayString = "${ticketero.timers.resync-interval:300000}",
+        scheduler = SchedulingConfig.QUEUE_SCHEDULER
+    )
+    public void reload() {
+        List<TicketTimerView> timers = ticketRepository.findTimersByStatusIn(
+            EnumSet.of(TicketStatus.ATENDIENDO, TicketStatus.EN_ESPERA, TicketStatus.PROXIMO));
+        synchronized (this) {
+            for (TicketTimerView timer : timers) {
+                if (timer.getStatus() == TicketStatus.ATENDIENDO) {
+                    if (timer.getUpdatedAt() != null) {
+                        attentionDeadlines.schedule(timer.getCodigoReferencia(),
+                            toMillis(timer.getUpdatedAt().plus(attentionTime)));
+                    }
+                } else if (timer.getExpiresAt() != null) {
+                    expirations.schedule(timer.getCodigoReferencia(), toMillis(timer.getExpiresAt()));
+                }
+            }
+        }
+        log.info("⏱️ Ticket timers loaded: {} attention deadlines, {} expirations",
+            attentionDeadlines.size(), expirations.size());
+    }
+
+    void advance() {
+        try {
+            List<UUID> attentionDue;
+            boolean expirationDue;
+            long now = System.currentTimeMillis();
+            synchronized (this) {
+                attentionDue = attentionDeadlines.advance(now);
+                expirationDue = !expirations.advance(now).isEmpty();
+            }
+
+            int completed = 0;
+            List<UUID> retry = new ArrayList<>();
+            for (int from = 0; from < attentionDue.size(); from += batchSize) {
+                List<UUID> batch = attentionDue.subList(from, Math.min(from + batchSize, attentionDue.size()));
+                try {
+                    List<UUID> closed = assignmentService.completeAll(batch);
+                    completed += closed.size();
+                    if (closed.size() < batch.size()) {
+                        retry.addAll(stillInAttention(batch, closed));
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("⚠️ Could not complete {} attentions, retrying next tick: {}", batch.size(), e.getMessage());
+                    retry.addAll(batch);
+                }
+            }
+            if (completed > 0) {
+                log.info("✅ {} tickets completed after {} seconds of attention", completed, attentionTime.toSeconds());
+            }
+            rescheduleNextTick(retry);
+            // El vencimiento ya es un UPDATE por lote sobre todos los tickets vencidos
+            if (expirationDue) {
+                ticketExpiryScheduler.cancelExpired();
+            }
+        } catch (RuntimeException e) {
+            // Un fallo fuera de los lotes: lo que quede sin cerrar lo recupera la próxima recarga
+            log.error("❌ Error firing ticket timers: {}", e.getMessage(), e);
+        }
+    }
+
+    // Omitidos por SKIP LOCKED (otro nodo los tiene): siguen en ATENDIENDO y hay que volver a intentarlo
+    private List<UUID> stillInAttention(List<UUID> batch, List<UUID> closed) {
+        List<UUID> skipped = new ArrayList<>(batch);
+        skipped.removeAll(closed);
+        try {
+            return ticketRepository.findIdsInAttention(skipped);
+        } catch (RuntimeException e) {
+            return skipped;
+        }
+    }
+
+    private void rescheduleNextTick(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        long nextTick = System.currentTimeMillis() + tick.toMillis();
+        synchronized (this) {
+            ids.forEach(id -> attentionDeadlines.schedule(id, nextTick));
+        }
+        log.debug("Rescheduled {} attention deadlines one tick ahead", ids.size());
+    }
+
+    public synchronized int pendingTimers() {
+        return attentionDeadlines.size() + expirations.size();
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZONE).toInstant().toEpochMilli();
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.shutdownNow();
+    }
+}
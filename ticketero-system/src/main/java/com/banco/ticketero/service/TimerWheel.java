@@ -0,0 +1,129 @@
+package com.banco.ticketero.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rueda de temporizadores con hash (Varghese &amp; Lauck): {@code wheelSize} casillas
+ * de un tick cada una, y cada temporizador cae en la casilla de su tick de
+ * vencimiento módulo el tamaño de la rueda. Programar, reprogramar y cancelar son
+ * O(1); avanzar un tick solo recorre su casilla. Nunca dispara antes del plazo y
+ * como mucho un tick después. Una clave tiene a lo sumo un temporizador vivo.
+ * No es thread-safe: {@link TicketTimers} sincroniza el acceso.
+ */
+public class TimerWheel<K> {
+
+    private final long tickMillis;
+    private final int mask;
+    private final Timer<K>[] buckets;
+    private final Map<K, Timer<K>> timers = new HashMap<>();
+    private long lastTick;
+
+    private static final class Timer<K> {
+        private final K key;
+        private long deadlineTick;
+        private Timer<K> prev;
+        private Timer<K> next;
+
+        private Timer(K key) {
+            this.key = key;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public TimerWheel(Duration tick, int wheelSize, long nowMillis) {
+        if (tick.toMillis() <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tick and wheelSize must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.tickMillis = tick.toMillis();
+        this.mask = size - 1;
+        this.buckets = new Timer[size];
+        this.lastTick = nowMillis / tickMillis;
+    }
+
+    /** Programa (o reprograma) la clave para {@code deadlineMillis}; un plazo ya cumplido sale en el próximo tick. */
+    public void schedule(K key, long deadlineMillis) {
+        Timer<K> timer = timers.get(key);
+        if (timer != null) {
+            unlink(timer);
+        } else {
+            timer = new Timer<>(key);
+            timers.put(key, timer);
+        }
+        timer.deadlineTick = Math.max(Math.ceilDiv(deadlineMillis, tickMillis), lastTick + 1);
+        link(timer);
+    }
+
+    public boolean cancel(K key) {
+        Timer<K> timer = timers.remove(key);
+        if (timer == null) {
+            return false;
+        }
+        unlink(timer);
+        return true;
+    }
+
+    /**
+     * Avanza hasta {@code nowMillis} y devuelve las claves vencidas, que dejan de
+     * estar programadas. Tras una pausa larga recorre la rueda una sola vez.
+     */
+    public List<K> advance(long nowMillis) {
+        long nowTick = nowMillis / tickMillis;
+        if (nowTick <= lastTick) {
+            return List.of();
+        }
+        List<K> expired = new ArrayList<>();
+        long ticks = Math.min(nowTick - lastTick, buckets.length);
+        for (long i = 1; i <= ticks; i++) {
+            expireBucket((int) ((lastTick + i) & mask), nowTick, expired);
+        }
+        lastTick = nowTick;
+        return expired;
+    }
+
+    public int size() {
+        return timers.size();
+    }
+
+    // Los temporizadores de vueltas posteriores comparten casilla y se quedan
+    private void expireBucket(int index, long nowTick, List<K> expired) {
+        Timer<K> timer = buckets[index];
+        while (timer != null) {
+            Timer<K> next = timer.next;
+            if (timer.deadlineTick <= nowTick) {
+                unlink(timer);
+                timers.remove(timer.key);
+                expired.add(timer.key);
+            }
+            timer = next;
+        }
+    }
+
+    private void link(Timer<K> timer) {
+        int index = (int) (timer.deadlineTick & mask);
+        Timer<K> head = buckets[index];
+        timer.prev = null;
+        timer.next = head;
+        if (head != null) {
+            head.prev = timer;
+        }
+        buckets[index] = timer;
+    }
+
+    private void unlink(Timer<K> timer) {
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else {
+            buckets[(int) (timer.deadlineTick & mask)] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.prev = timer.prev;
+        }
+        timer.prev = null;
+        timer.next = null;
+    }
+}
@@ -0,0 +1,64 @@
+package com.banco.ticketero.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Primera respuesta de un update recibido por webhook. Si el controlador sigue
+ * esperando, viaja en el cuerpo de la respuesta HTTP como llamada a sendMessage
+ * (Telegram la ejecuta sin otro POST); si ya respondió, o para las respuestas
+ * siguientes, el bot envía con {@link TelegramSender}.
+ */
+public class WebhookReply {
+
+    private static final int WAITING = 0;
+    private static final int TAKEN = 1;
+    private static final int CLOSED = 2;
+
+    private final AtomicInteger state = new AtomicInteger(WAITING);
+    private final CompletableFuture<Map<String, Object>> inline = new CompletableFuture<>();
+
+    /** true si el mensaje irá en la respuesta del webhook; false si hay que enviarlo. */
+    boolean offer(String chatId, String text) {
+        if (!state.compareAndSet(WAITING, TAKEN)) {
+            return false;
+        }
+        inline.complete(Map.of("method", "sendMessage", "chat_id", chatId, "text", text));
+        return true;
+    }
+
+    // El procesamiento terminó sin responder nada
+    void finish() {
+        if (state.compareAndSet(WAITING, CLOSED)) {
+            inline.complete(null);
+        }
+    }
+
+    /** Espera la respuesta hasta {@code timeout}; vencido el plazo, lo que falte se envía aparte. */
+    public Optional<Map<String, Object>> await(Duration timeout) {
+        try {
+            return Optional.ofNullable(inline.get(timeout.toMillis(), TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            if (state.compareAndSet(WAITING, CLOSED)) {
+                return Optional.empty();
+            }
+            // Llegó justo al vencer el plazo
+            return Optional.ofNullable(inline.join());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return closeOrTake();
+        } catch (ExecutionException e) {
+            return Optional.empty();
+        }
+    }
+
+    private Optional<Map<String, Object>> closeOrTake() {
+        return state.compareAndSet(WAITING, CLOSED) ? Optional.empty() : Optional.ofNullable(inline.join());
+    }
+}
@@ -0,0 +1,2 @@
+-- Claimed messages are leased instead of locked for the whole Telegram round-trip
+ALTER TABLE outbox_message ADD COLUMN locked_until TIMESTAMP;
@@ -0,0 +1,6 @@
+-- Retries are scheduled with backoff instead of being re-polled on every tick
+ALTER TABLE outbox_message ADD COLUMN next_attempt_at TIMESTAMP;
+UPDATE outbox_message SET next_attempt_at = fecha_programada;
+ALTER TABLE outbox_message ALTER COLUMN next_attempt_at SET NOT NULL;
+
+CREATE INDEX idx_outbox_pending_next_attempt ON outbox_message(next_attempt_at) WHERE estado_envio = 'PENDING';
@@ -0,0 +1,10 @@
+-- Pending scan served by a partial index that only holds PENDING rows, so the
+-- ever-growing SENT history does not slow the dispatcher down. locked_until is
+-- included so the lease filter is answered from the index.
+DROP INDEX IF EXISTS idx_outbox_pending_next_attempt;
+CREATE INDEX idx_outbox_pending_due ON outbox_message(next_attempt_at, id) INCLUDE (locked_until)
+    WHERE estado_envio = 'PENDING';
+
+-- Low-selectivity indexes no query uses anymore; they only cost writes on every status change
+DROP INDEX IF EXISTS idx_outbox_estado_envio;
+DROP INDEX IF EXISTS idx_outbox_fecha_programada;
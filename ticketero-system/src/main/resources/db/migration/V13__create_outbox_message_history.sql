@@ -0,0 +1,20 @@
+-- Delivered (SENT) and abandoned (FAILED) messages move out of the hot table into
+-- daily range partitions; retention drops whole partitions instead of DELETEs.
+-- Partitions are created ahead of time by OutboxArchiver.
+CREATE TABLE outbox_message_history (
+    id BIGINT NOT NULL,
+    ticket_id UUID NOT NULL,
+    plantilla VARCHAR(50) NOT NULL,
+    estado_envio VARCHAR(20) NOT NULL,
+    fecha_programada TIMESTAMP NOT NULL,
+    fecha_envio TIMESTAMP,
+    telegram_message_id VARCHAR(50),
+    intentos INTEGER,
+    chat_id VARCHAR(50),
+    archived_at TIMESTAMP NOT NULL
+) PARTITION BY RANGE (archived_at);
+
+CREATE INDEX idx_outbox_history_ticket_id ON outbox_message_history(ticket_id);
+
+-- Rows waiting to be archived
+CREATE INDEX idx_outbox_done ON outbox_message(id) WHERE estado_envio <> 'PENDING';
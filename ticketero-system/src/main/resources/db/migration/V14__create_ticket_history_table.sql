@@ -0,0 +1,30 @@
+-- Terminal tickets (COMPLETADO, CANCELADO, NO_ATENDIDO, VENCIDO) move here so the
+-- live ticket table and its indexes only hold the active queue
+CREATE TABLE ticket_history (
+    codigo_referencia UUID PRIMARY KEY,
+    numero VARCHAR(10) NOT NULL,
+    national_id VARCHAR(50) NOT NULL,
+    telefono VARCHAR(20),
+    branch_office VARCHAR(100) NOT NULL,
+    queue_type VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    position_in_queue INTEGER,
+    estimated_wait_minutes INTEGER,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    assigned_advisor_id BIGINT,
+    assigned_advisor_name VARCHAR(100),
+    assigned_module_number INTEGER,
+    completed_at TIMESTAMP,
+    cancelled_at TIMESTAMP,
+    cancel_reason VARCHAR(50),
+    archived_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_ticket_history_status ON ticket_history(status);
+CREATE INDEX idx_ticket_history_numero ON ticket_history(numero, created_at DESC);
+CREATE INDEX idx_ticket_history_created_at ON ticket_history(created_at);
+
+-- Terminal tickets still waiting to be archived
+CREATE INDEX idx_ticket_terminal ON ticket(updated_at)
+    WHERE status IN ('COMPLETADO', 'CANCELADO', 'NO_ATENDIDO', 'VENCIDO');
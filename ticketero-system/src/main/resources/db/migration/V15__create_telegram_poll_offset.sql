@@ -0,0 +1,7 @@
+-- Last getUpdates update_id processed per bot, so a restart resumes where the
+-- previous long-poll loop stopped instead of having Telegram redeliver updates
+CREATE TABLE telegram_poll_offset (
+    bot_key VARCHAR(100) PRIMARY KEY,
+    last_update_id BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,3 @@
+-- Index-only scan for the per-queue/per-status counts that resync the in-memory
+-- ticket counters (ticket_history grows without bound)
+CREATE INDEX idx_ticket_history_queue_status ON ticket_history(queue_type, status);
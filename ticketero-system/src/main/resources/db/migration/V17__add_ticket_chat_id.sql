@@ -0,0 +1,15 @@
+-- Telegram chat normalized from telefono (+56... or a numeric chat_id), so a chat's
+-- active tickets are found by index instead of deriving it row by row at runtime
+ALTER TABLE ticket ADD COLUMN chat_id VARCHAR(20);
+
+UPDATE ticket
+SET chat_id = CASE
+    WHEN telefono LIKE '+56%' THEN substring(telefono FROM 4)
+    WHEN telefono ~ '^[0-9]+$' THEN telefono
+END
+WHERE telefono IS NOT NULL;
+
+-- Only active tickets, covering what /mis-tickets reads
+CREATE INDEX idx_ticket_chat_active ON ticket(chat_id, created_at)
+    INCLUDE (codigo_referencia, numero, queue_type, status, assigned_module_number)
+    WHERE status IN ('EN_ESPERA', 'PROXIMO', 'ATENDIENDO');
@@ -0,0 +1,3 @@
+-- Lookups by number are bounded to one business day: (numero, created_at) replaces the numero-only index
+CREATE INDEX idx_ticket_numero_created ON ticket(numero, created_at);
+DROP INDEX IF EXISTS idx_ticket_numero;
@@ -0,0 +1,2 @@
+-- Reserve outbox ids in blocks of 50 so Hibernate can batch INSERTs (must match allocationSize)
+ALTER SEQUENCE outbox_message_id_seq INCREMENT BY 50;
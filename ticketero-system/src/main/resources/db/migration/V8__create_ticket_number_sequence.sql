@@ -0,0 +1,15 @@
+-- Ticket numbers are leased in blocks per branch, queue prefix and business day
+CREATE TABLE ticket_number_sequence (
+    id BIGSERIAL PRIMARY KEY,
+    branch_office VARCHAR(100) NOT NULL,
+    queue_prefix VARCHAR(5) NOT NULL,
+    business_date DATE NOT NULL,
+    next_value BIGINT NOT NULL,
+    CONSTRAINT uk_ticket_number_sequence UNIQUE (branch_office, queue_prefix, business_date)
+);
+
+-- Numbers restart every day, so uniqueness is per branch and day
+ALTER TABLE ticket DROP CONSTRAINT IF EXISTS ticket_numero_key;
+
+CREATE UNIQUE INDEX uk_ticket_branch_day_numero ON ticket(branch_office, (CAST(created_at AS DATE)), numero);
+CREATE INDEX idx_ticket_numero ON ticket(numero);
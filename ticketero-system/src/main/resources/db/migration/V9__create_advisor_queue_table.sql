@@ -0,0 +1,19 @@
+-- Advisor skills move from a CSV column matched with LIKE to one row per queue
+CREATE TABLE advisor_queue (
+    advisor_id BIGINT NOT NULL REFERENCES advisor(id) ON DELETE CASCADE,
+    queue_type VARCHAR(20) NOT NULL,
+    PRIMARY KEY (advisor_id, queue_type)
+);
+
+INSERT INTO advisor_queue (advisor_id, queue_type)
+SELECT DISTINCT a.id, TRIM(q.queue_type)
+FROM advisor a
+CROSS JOIN LATERAL unnest(string_to_array(a.supported_queues, ',')) AS q(queue_type)
+WHERE TRIM(q.queue_type) IN ('CAJA', 'PERSONAL_BANKER', 'EMPRESAS', 'GERENCIA');
+
+-- Lookup by skill, then available advisors in assignment order
+CREATE INDEX idx_advisor_queue_queue_type ON advisor_queue(queue_type, advisor_id);
+CREATE INDEX idx_advisor_status_load ON advisor(status, assigned_tickets_count, last_assignment_at NULLS FIRST);
+DROP INDEX IF EXISTS idx_advisor_status;
+
+ALTER TABLE advisor DROP COLUMN supported_queues;
@@ -24,10 +24,13 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.awaitility.Awaitility.await;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -151,6 +154,13 @@ public abstract class BaseIntegrationTest {
             """.formatted(nationalId, telefono, branchOffice, queueType.name());
     }
 
+    // Tickets de hoy en la sucursal de las pruebas: número, sucursal y día identifican uno solo
+    protected Ticket findTicket(String numero) {
+        List<Ticket> tickets = ticketRepository.findAllByNumero(numero, "Sucursal Centro", LocalDate.now());
+        assertThat(tickets).hasSize(1);
+        return tickets.get(0);
+    }
+
     protected int countTicketsInStatus(TicketStatus status) {
         return (int) ticketRepository.findAll().stream()
                 .filter(ticket -> ticket.getStatus() == status)
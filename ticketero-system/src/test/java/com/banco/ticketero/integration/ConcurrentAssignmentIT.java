@@ -0,0 +1,106 @@
+package com.banco.ticketero.integration;
+
+import com.banco.ticketero.model.QueueType;
+import com.banco.ticketero.model.TicketStatus;
+import com.banco.ticketero.model.entity.Advisor;
+import com.banco.ticketero.model.entity.Advisor.AdvisorStatus;
+import com.banco.ticketero.model.entity.Ticket;
+import com.banco.ticketero.service.AssignmentService;
+import com.banco.ticketero.service.AssignmentService.Assignment;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Feature: Asignación Multi-nodo (SKIP LOCKED)")
+class ConcurrentAssignmentIT extends BaseIntegrationTest {
+
+    @Autowired
+    private AssignmentService assignmentService;
+
+    @Test
+    @DisplayName("Varios asignadores concurrentes nunca asignan dos veces un ticket ni un asesor")
+    void concurrentAssigners_shouldNeverDoubleBook() throws Exception {
+        // Given - 20 asesores de caja y 60 tickets ya elegibles
+        advisorRepository.deleteAll();
+        int advisors = 20;
+        int tickets = 60;
+        for (int i = 1; i <= advisors; i++) {
+            createTestAdvisor("Asesor Concurrente " + i, AdvisorStatus.AVAILABLE, i, "CAJA");
+        }
+        LocalDateTime base = LocalDateTime.now().minusMinutes(10);
+        for (int i = 0; i < tickets; i++) {
+            ticketRepository.save(Ticket.builder()
+                .numero("C%03d".formatted(i + 1))
+                .nationalId("1000000" + i)
+                .telefono("+56912345678")
+                .branchOffice("Sucursal Concurrencia")
+                .queueType(QueueType.CAJA)
+                .status(TicketStatus.EN_ESPERA)
+                .positionInQueue(i + 1)
+                .createdAt(base.plusSeconds(i))
+                .build());
+        }
+
+        // When - 8 "nodos" reclaman en lotes pequeños hasta no encontrar nada libre
+        int nodes = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(nodes);
+        List<Future<List<Assignment>>> futures = new ArrayList<>();
+        for (int n = 0; n < nodes; n++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                List<Assignment> claimed = new ArrayList<>();
+                List<Assignment> batch;
+                do {
+                    batch = assignmentService.assignAvailable(LocalDateTime.now(), 3);
+                    claimed.addAll(batch);
+                } while (!batch.isEmpty());
+                return claimed;
+            }));
+        }
+        start.countDown();
+
+        List<Assignment> all = new ArrayList<>();
+        for (Future<List<Assignment>> future : futures) {
+            all.addAll(future.get(60, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        // Then - cada asesor y cada ticket aparece una sola vez
+        Set<Long> advisorIds = new HashSet<>();
+        Set<Object> ticketIds = new HashSet<>();
+        for (Assignment assignment : all) {
+            assertTrue(advisorIds.add(assignment.advisorId()), "Asesor asignado dos veces: " + assignment.advisorId());
+            assertTrue(ticketIds.add(assignment.ticketId()), "Ticket asignado dos veces: " + assignment.numero());
+        }
+        assertEquals(advisors, all.size());
+
+        // Y la BD es consistente con lo reportado
+        List<Ticket> attending = ticketRepository.findByStatus(TicketStatus.ATENDIENDO);
+        assertEquals(advisors, attending.size());
+        Map<Long, Long> ticketsPerAdvisor = attending.stream()
+            .collect(Collectors.groupingBy(t -> t.getAssignedAdvisor().getId(), Collectors.counting()));
+        ticketsPerAdvisor.values().forEach(count -> assertEquals(1L, count));
+
+        for (Advisor advisor : advisorRepository.findAll()) {
+            assertEquals(AdvisorStatus.BUSY, advisor.getStatus());
+            assertEquals(1, advisor.getAssignedTicketsCount());
+        }
+        assertEquals(tickets - advisors, ticketRepository.countByStatus(TicketStatus.EN_ESPERA));
+    }
+}
@@ -117,7 +117,7 @@ class NotificationIT extends BaseIntegrationTest {
                 .path("numero");
 
             // Then - Ticket se crea correctamente
-            var ticket = ticketRepository.findByNumero(ticketNumber).orElseThrow();
+            var ticket = findTicket(ticketNumber);
             assertEquals(com.banco.ticketero.model.TicketStatus.EN_ESPERA, ticket.getStatus());
             assertEquals("87654321", ticket.getNationalId());
 
@@ -0,0 +1,97 @@
+package com.banco.ticketero.integration;
+
+import com.banco.ticketero.model.QueueType;
+import com.banco.ticketero.model.TicketStatus;
+import com.banco.ticketero.model.entity.OutboxMessage;
+import com.banco.ticketero.model.entity.OutboxMessage.MessageStatus;
+import com.banco.ticketero.model.entity.Ticket;
+import com.banco.ticketero.service.OutboxArchiver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+
+@DisplayName("Feature: Archivo del outbox")
+class OutboxArchiveIT extends BaseIntegrationTest {
+
+    @Autowired
+    private OutboxArchiver outboxArchiver;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    // El perfil de test genera el esquema con Hibernate: la tabla particionada viene de la migración
+    @BeforeEach
+    void createHistoryTable() {
+        dropHistoryTable();
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V13__create_outbox_message_history.sql"))
+            .execute(dataSource);
+    }
+
+    @AfterEach
+    void dropHistoryTable() {
+        jdbcTemplate.execute("DROP INDEX IF EXISTS idx_outbox_done");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS outbox_message_history CASCADE");
+    }
+
+    @Test
+    @DisplayName("Los mensajes entregados pasan al historial y la tabla caliente solo conserva pendientes")
+    void archive_shouldMoveDeliveredMessagesAndKeepPending() {
+        Ticket ticket = createTestTicket("12345678", QueueType.CAJA, TicketStatus.EN_ESPERA);
+        LocalDateTime old = LocalDateTime.now().minusHours(1);
+        List<OutboxMessage> messages = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            messages.add(message(ticket, MessageStatus.SENT, old));
+        }
+        messages.add(message(ticket, MessageStatus.FAILED, old));
+        messages.add(message(ticket, MessageStatus.PENDING, LocalDateTime.now()));
+        outboxMessageRepository.saveAll(messages);
+
+        outboxArchiver.archive();
+
+        assertThat(outboxMessageRepository.findAll())
+            .extracting(OutboxMessage::getEstadoEnvio)
+            .containsExactly(MessageStatus.PENDING);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_message_history", Long.class))
+            .isEqualTo(31);
+
+        jdbcTemplate.execute("ANALYZE outbox_message_history");
+        given()
+            .when()
+            .get("/api/admin/outbox/archive")
+            .then()
+            .statusCode(200)
+            .body("archiveEnabled", equalTo(true))
+            .body("hotMessages", equalTo(1))
+            .body("partitions.size()", greaterThanOrEqualTo(2));
+    }
+
+    private OutboxMessage message(Ticket ticket, MessageStatus status, LocalDateTime at) {
+        return OutboxMessage.builder()
+            .ticketId(ticket.getCodigoReferencia())
+            .plantilla("CONFIRMACION")
+            .estadoEnvio(status)
+            .fechaProgramada(at)
+            .nextAttemptAt(at)
+            .fechaEnvio(status == MessageStatus.SENT ? at : null)
+            .chatId("912345678")
+            .build();
+    }
+}
@@ -0,0 +1,109 @@
+package com.banco.ticketero.integration;
+
+import com.banco.ticketero.model.QueueType;
+import com.banco.ticketero.repository.TicketNumberSequenceRepository;
+import com.banco.ticketero.service.BlockTicketNumberAllocator;
+import com.banco.ticketero.service.TicketNumberSequenceLeaser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Feature: Numeración de Tickets Multi-nodo")
+class TicketNumberAllocatorIT extends BaseIntegrationTest {
+
+    private static final String BRANCH = "Sucursal Concurrencia";
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private TicketNumberSequenceRepository sequenceRepository;
+
+    @Autowired
+    private TicketNumberSequenceLeaser leaser;
+
+    @BeforeEach
+    void cleanSequences() {
+        sequenceRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Varios asignadores contra la misma BD nunca repiten números")
+    void concurrentAllocators_shouldNeverDuplicateNumbers() throws Exception {
+        // Given - 4 "nodos" con bloques pequeños para forzar contención en la BD
+        int nodes = 4;
+        int threadsPerNode = 4;
+        int numbersPerThread = 100;
+        List<BlockTicketNumberAllocator> allocators = new ArrayList<>();
+        for (int i = 0; i < nodes; i++) {
+            allocators.add(new BlockTicketNumberAllocator(leaser, 7, true));
+        }
+
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(nodes * threadsPerNode);
+        List<Future<Integer>> futures = new ArrayList<>();
+
+        // When
+        for (BlockTicketNumberAllocator allocator : allocators) {
+            for (int t = 0; t < threadsPerNode; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    int duplicates = 0;
+                    for (int n = 0; n < numbersPerThread; n++) {
+                        if (!numbers.add(allocator.nextNumber(QueueType.CAJA, BRANCH, TODAY))) {
+                            duplicates++;
+                        }
+                    }
+                    return duplicates;
+                }));
+            }
+        }
+        start.countDown();
+
+        int duplicates = 0;
+        for (Future<Integer> future : futures) {
+            duplicates += future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(0, duplicates);
+        assertEquals(nodes * threadsPerNode * numbersPerThread, numbers.size());
+    }
+
+    @Test
+    @DisplayName("Un reinicio continúa desde el siguiente bloque reservado")
+    void restartedAllocator_shouldContinueAfterLeasedBlock() {
+        BlockTicketNumberAllocator beforeRestart =
+            new BlockTicketNumberAllocator(leaser, 10, true);
+        assertEquals("G001", beforeRestart.nextNumber(QueueType.GERENCIA, BRANCH, TODAY));
+
+        BlockTicketNumberAllocator afterRestart =
+            new BlockTicketNumberAllocator(leaser, 10, true);
+        assertEquals("G011", afterRestart.nextNumber(QueueType.GERENCIA, BRANCH, TODAY));
+    }
+
+    @Test
+    @DisplayName("La numeración se reinicia por día y por sucursal")
+    void allocator_shouldResetPerDayAndBranch() {
+        BlockTicketNumberAllocator allocator =
+            new BlockTicketNumberAllocator(leaser, 10, true);
+        allocator.nextNumber(QueueType.EMPRESAS, BRANCH, TODAY);
+
+        assertEquals("E001", allocator.nextNumber(QueueType.EMPRESAS, BRANCH, TODAY.plusDays(1)));
+        assertEquals("E001", allocator.nextNumber(QueueType.EMPRESAS, "Otra Sucursal", TODAY.plusDays(1)));
+    }
+}
@@ -50,7 +50,7 @@ class TicketProcessingIT extends BaseIntegrationTest {
                 });
 
             // Then - Verificar transiciones completas
-            Ticket processedTicket = ticketRepository.findByNumero(ticketCode).orElseThrow();
+            Ticket processedTicket = findTicket(ticketCode);
             
             assertEquals(TicketStatus.COMPLETADO, processedTicket.getStatus());
             assertNotNull(processedTicket.getAssignedAdvisor());
@@ -86,9 +86,9 @@ class TicketProcessingIT extends BaseIntegrationTest {
                 .until(() -> countTicketsInStatus(TicketStatus.COMPLETADO) >= 3);
 
             // Then - Verificar orden FIFO
-            Ticket firstTicket = ticketRepository.findByNumero(ticket1).orElseThrow();
-            Ticket secondTicket = ticketRepository.findByNumero(ticket2).orElseThrow();
-            Ticket thirdTicket = ticketRepository.findByNumero(ticket3).orElseThrow();
+            Ticket firstTicket = findTicket(ticket1);
+            Ticket secondTicket = findTicket(ticket2);
+            Ticket thirdTicket = findTicket(ticket3);
             
             // Verify completion order (FIFO) - only if all tickets are completed
             if (firstTicket.getCompletedAt() != null && secondTicket.getCompletedAt() != null) {
@@ -137,7 +137,7 @@ class TicketProcessingIT extends BaseIntegrationTest {
             }
 
             // Then - Ticket debe permanecer en WAITING
-            Ticket waitingTicket = ticketRepository.findByNumero(ticketCode).orElseThrow();
+            Ticket waitingTicket = findTicket(ticketCode);
             
             assertEquals(TicketStatus.EN_ESPERA, waitingTicket.getStatus());
             assertNull(waitingTicket.getAssignedAdvisor());
@@ -179,7 +179,7 @@ class TicketProcessingIT extends BaseIntegrationTest {
             }
 
             // Then - Ticket no debe cambiar
-            Ticket unchangedTicket = ticketRepository.findByNumero("G-001").orElseThrow();
+            Ticket unchangedTicket = findTicket("G-001");
             
             assertEquals(TicketStatus.COMPLETADO, unchangedTicket.getStatus());
             assertEquals(originalCompletedAt, unchangedTicket.getCompletedAt());
@@ -215,7 +215,7 @@ class TicketProcessingIT extends BaseIntegrationTest {
                 .until(() -> "COMPLETADO".equals(getTicketStatus(ticketCode)));
 
             // Then - Solo asesor AVAILABLE debe procesar
-            Ticket processedTicket = ticketRepository.findByNumero(ticketCode).orElseThrow();
+            Ticket processedTicket = findTicket(ticketCode);
             
             assertEquals(TicketStatus.COMPLETADO, processedTicket.getStatus());
             assertNotNull(processedTicket.getAssignedAdvisor());
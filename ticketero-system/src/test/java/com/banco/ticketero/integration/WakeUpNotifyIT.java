@@ -0,0 +1,59 @@
+package com.banco.ticketero.integration;
+
+import com.banco.ticketero.model.QueueType;
+import com.banco.ticketero.model.TicketStatus;
+import com.banco.ticketero.model.entity.OutboxMessage.MessageStatus;
+import com.banco.ticketero.model.entity.Ticket;
+import com.banco.ticketero.service.QueuePositionIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+
+@DisplayName("Feature: Despertar entre nodos con LISTEN/NOTIFY")
+class WakeUpNotifyIT extends BaseIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private QueuePositionIndex queuePositionIndex;
+
+    @Test
+    @DisplayName("Mensaje encolado por otro nodo se envía al recibir el NOTIFY, sin esperar el polling")
+    void outboxNotify_fromAnotherNode_shouldWakeUpPoller() throws InterruptedException {
+        Ticket ticket = createTestTicket("12345678", QueueType.CAJA, TicketStatus.EN_ESPERA);
+        // Esperar a que el poller quede dormido hasta el respaldo (minutos)
+        Thread.sleep(500);
+
+        // Otro nodo: INSERT directo, sin eventos locales, seguido del NOTIFY
+        jdbcTemplate.update("""
+            INSERT INTO outbox_message (id, ticket_id, plantilla, estado_envio, fecha_programada, next_attempt_at, intentos, chat_id)
+            VALUES (nextval('outbox_message_id_seq'), ?, 'CONFIRMACION', 'PENDING', ?, ?, 0, '912345678')
+            """, ticket.getCodigoReferencia(), LocalDateTime.now(), LocalDateTime.now());
+        jdbcTemplate.execute("NOTIFY ticketero_outbox");
+
+        await()
+            .atMost(2, TimeUnit.SECONDS)
+            .pollInterval(50, TimeUnit.MILLISECONDS)
+            .until(() -> countOutboxMessages(MessageStatus.SENT) >= 1);
+    }
+
+    @Test
+    @DisplayName("Ticket creado por otro nodo aparece en el índice de posiciones al recibir el NOTIFY")
+    void queueNotify_fromAnotherNode_shouldRefreshQueuePositions() {
+        // Otro nodo: INSERT sin eventos locales, seguido del NOTIFY con la cola afectada
+        Ticket ticket = createTestTicket("12345678", QueueType.CAJA, TicketStatus.EN_ESPERA);
+        jdbcTemplate.queryForList("SELECT pg_notify('ticketero_queue', 'CAJA:otro-nodo')");
+
+        await()
+            .atMost(2, TimeUnit.SECONDS)
+            .pollInterval(50, TimeUnit.MILLISECONDS)
+            .until(() -> queuePositionIndex.findPosition(ticket.getCodigoReferencia()).isPresent());
+    }
+}
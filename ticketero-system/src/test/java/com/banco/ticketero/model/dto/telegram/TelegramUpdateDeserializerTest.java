@@ -0,0 +1,64 @@
+package com.banco.ticketero.model.dto.telegram;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("TelegramUpdateDeserializer - Unit Tests")
+class TelegramUpdateDeserializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void deserialize_shouldKeepOnlyUsedFieldsAndSkipTheRest() throws Exception {
+        String json = """
+            {"update_id":987654321,
+             "message":{"message_id":10,
+                        "from":{"id":555,"is_bot":false,"first_name":"Ana","language_code":"es"},
+                        "chat":{"id":-1001234567890,"title":"Sucursal","type":"supergroup"},
+                        "date":1700000000,
+                        "entities":[{"offset":0,"length":7,"type":"bot_command"}],
+                        "text":"/status"},
+             "edited_message":null}""";
+
+        TelegramUpdate update = objectMapper.readValue(json, TelegramUpdate.class);
+
+        assertThat(update).isEqualTo(new TelegramUpdate(987654321L, new TelegramMessage(-1001234567890L, "/status")));
+    }
+
+    @Test
+    void deserialize_updateWithoutMessage_shouldLeaveMessageNull() throws Exception {
+        String json = """
+            {"update_id":7,"callback_query":{"id":"abc","message":{"chat":{"id":1},"text":"x"},"data":"ok"}}""";
+
+        TelegramUpdate update = objectMapper.readValue(json, TelegramUpdate.class);
+
+        assertThat(update.updateId()).isEqualTo(7L);
+        assertThat(update.message()).isNull();
+    }
+
+    @Test
+    void deserialize_getUpdatesResponse_shouldReadEveryUpdate() throws Exception {
+        String json = """
+            {"ok":true,"result":[
+              {"update_id":1,"message":{"chat":{"id":10},"photo":[{"file_id":"f"}]}},
+              {"update_id":2,"message":{"chat":{"id":11},"text":"/help"}}]}""";
+
+        TelegramUpdatesResponse response = objectMapper.readValue(json, TelegramUpdatesResponse.class);
+
+        assertThat(response.ok()).isTrue();
+        assertThat(response.result()).containsExactly(
+            new TelegramUpdate(1, new TelegramMessage(10L, null)),
+            new TelegramUpdate(2, new TelegramMessage(11L, "/help")));
+    }
+
+    @Test
+    void deserialize_notAnObject_shouldFail() {
+        assertThatThrownBy(() -> objectMapper.readValue("[1,2]", TelegramUpdate.class))
+            .isInstanceOf(MismatchedInputException.class);
+    }
+}
@@ -0,0 +1,131 @@
+package com.banco.ticketero.nonfunctional;
+
+import com.banco.ticketero.model.QueueType;
+import com.banco.ticketero.model.entity.Advisor;
+import com.banco.ticketero.repository.AdvisorRepository;
+import com.banco.ticketero.repository.OutboxMessageRepository;
+import com.banco.ticketero.repository.TicketRepository;
+import com.banco.ticketero.service.TelegramPollingService;
+import com.banco.ticketero.service.TelegramService;
+import com.banco.ticketero.service.TicketDispatcher;
+import com.banco.ticketero.service.TicketProcessingScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark de búsqueda de asesores por cola con miles de asesores.
+ * Antes: LIKE '%COLA%' sobre un CSV (sin índice, con posibles falsos positivos).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AdvisorQueueMatchingBenchmarkTest {
+
+    private static final int ADVISORS = 5_000;
+    private static final int ITERATIONS = 50;
+
+    @Autowired
+    private AdvisorRepository advisorRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Jobs en segundo plano fuera de la medición
+    @MockBean
+    private TelegramService telegramService;
+
+    @MockBean
+    private TelegramPollingService telegramPollingService;
+
+    @MockBean
+    private TicketProcessingScheduler ticketProcessingScheduler;
+
+    @MockBean
+    private TicketDispatcher ticketDispatcher;
+
+    private final Map<QueueType, Integer> expectedAvailable = new EnumMap<>(QueueType.class);
+
+    @BeforeEach
+    void setUp() {
+        cleanDatabase();
+        Random random = new Random(7);
+        List<Object[]> advisors = new ArrayList<>();
+        List<Object[]> skills = new ArrayList<>();
+        for (QueueType queueType : QueueType.values()) {
+            expectedAvailable.put(queueType, 0);
+        }
+
+        for (long id = 1; id <= ADVISORS; id++) {
+            String status = random.nextInt(4) == 0 ? "BUSY" : "AVAILABLE";
+            advisors.add(new Object[]{id, "Asesor " + id, "asesor" + id + "@banco.cl", status, (int) id, random.nextInt(5)});
+            for (QueueType queueType : QueueType.values()) {
+                if (random.nextInt(3) == 0) {
+                    skills.add(new Object[]{id, queueType.name()});
+                    if (status.equals("AVAILABLE")) {
+                        expectedAvailable.merge(queueType, 1, Integer::sum);
+                    }
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("""
+            INSERT INTO advisor (id, name, email, status, module_number, assigned_tickets_count)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """, advisors);
+        jdbcTemplate.batchUpdate("INSERT INTO advisor_queue (advisor_id, queue_type) VALUES (?, ?)", skills);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanDatabase();
+    }
+
+    @Test
+    void findAvailableAdvisorsForQueue_shouldMatchExactSkillsWithThousandsOfAdvisors() {
+        // Warmup + verificación: sin falsos positivos ni asesores no disponibles
+        for (QueueType queueType : QueueType.values()) {
+            List<Advisor> advisors = advisorRepository.findAvailableAdvisorsForQueue(queueType);
+            assertThat(advisors).hasSize(expectedAvailable.get(queueType));
+            assertThat(advisors).allMatch(advisor -> advisor.supports(queueType)
+                && advisor.getStatus() == Advisor.AdvisorStatus.AVAILABLE);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            for (QueueType queueType : QueueType.values()) {
+                advisorRepository.findAvailableAdvisorsForQueue(queueType);
+            }
+        }
+        double avgMillis = (System.nanoTime() - start) / 1_000_000.0 / (ITERATIONS * QueueType.values().length);
+
+        System.out.printf("Advisor Queue Matching Benchmark Results:%n");
+        System.out.printf("- Advisors: %d%n", ADVISORS);
+        System.out.printf("- Available per queue: %s%n", expectedAvailable);
+        System.out.printf("- Average lookup: %.2f ms%n", avgMillis);
+    }
+
+    private void cleanDatabase() {
+        outboxMessageRepository.deleteAll();
+        ticketRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM advisor_queue");
+        advisorRepository.deleteAllInBatch();
+    }
+}
@@ -0,0 +1,127 @@
+package com.banco.ticketero.nonfunctional;
+
+import com.banco.ticketero.model.QueueType;
+import com.banco.ticketero.repository.AdvisorRepository;
+import com.banco.ticketero.repository.OutboxMessageRepository;
+import com.banco.ticketero.repository.TicketRepository;
+import com.banco.ticketero.service.TelegramPollingService;
+import com.banco.ticketero.service.TelegramSender;
+import com.banco.ticketero.service.TicketDispatcher;
+import com.banco.ticketero.service.TicketProcessingScheduler;
+import com.banco.ticketero.service.TicketService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Latencia de punta a punta desde la creación del ticket hasta el envío de la
+ * CONFIRMACION. Antes: hasta 2 s de espera al próximo tick del poller.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class NotificationLatencyTest {
+
+    private static final int WARMUP_TICKETS = 10;
+    private static final int TICKETS = 50;
+    // Tickets espaciados: se mide la latencia de cada uno, no el vaciado de un backlog
+    private static final long ARRIVAL_GAP_MILLIS = 50;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private AdvisorRepository advisorRepository;
+
+    // Se mide hasta la llamada a Telegram, sin red
+    @MockBean
+    private TelegramSender telegramSender;
+
+    @MockBean
+    private TelegramPollingService telegramPollingService;
+
+    @MockBean
+    private TicketProcessingScheduler ticketProcessingScheduler;
+
+    @MockBean
+    private TicketDispatcher ticketDispatcher;
+
+    private final Map<String, Long> sentAt = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        cleanDatabase();
+        doAnswer(invocation -> {
+            String text = invocation.getArgument(1);
+            if (text.contains("Ticket creado")) {
+                sentAt.putIfAbsent(invocation.getArgument(0), System.nanoTime());
+            }
+            return null;
+        }).when(telegramSender).send(anyString(), anyString(), any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanDatabase();
+    }
+
+    @Test
+    void confirmationLatency_shouldNotWaitForPollingTick() throws InterruptedException {
+        for (int i = 0; i < WARMUP_TICKETS; i++) {
+            ticketService.createFromTelegram("4000" + i, "56980" + String.format("%04d", i), QueueType.CAJA);
+        }
+        await().atMost(10, TimeUnit.SECONDS).until(() -> sentAt.size() == WARMUP_TICKETS);
+        sentAt.clear();
+
+        Map<String, Long> createdAt = new ConcurrentHashMap<>();
+        for (int i = 0; i < TICKETS; i++) {
+            String telefono = "56990" + String.format("%04d", i);
+            createdAt.put(telefono, System.nanoTime());
+            ticketService.createFromTelegram("3000" + i, telefono, QueueType.CAJA);
+            Thread.sleep(ARRIVAL_GAP_MILLIS);
+        }
+
+        await().atMost(10, TimeUnit.SECONDS).until(() -> sentAt.size() == TICKETS);
+
+        List<Double> latencies = new ArrayList<>();
+        createdAt.forEach((chatId, start) -> latencies.add((sentAt.get(chatId) - start) / 1_000_000.0));
+        Collections.sort(latencies);
+        double p50 = latencies.get(TICKETS / 2);
+        double p99 = latencies.get((int) Math.ceil(TICKETS * 0.99) - 1);
+
+        System.out.printf("Notification Latency Results:%n");
+        System.out.printf("- Tickets: %d%n", TICKETS);
+        System.out.printf("- P50 creation -> CONFIRMACION: %.1f ms%n", p50);
+        System.out.printf("- P99 creation -> CONFIRMACION: %.1f ms%n", p99);
+
+        assertThat(p99).isLessThan(500);
+    }
+
+    private void cleanDatabase() {
+        outboxMessageRepository.deleteAll();
+        ticketRepository.deleteAll();
+        advisorRepository.deleteAll();
+    }
+}
@@ -0,0 +1,132 @@
+package com.banco.ticketero.nonfunctional;
+
+import com.banco.ticketero.model.entity.OutboxMessage;
+import com.banco.ticketero.repository.OutboxMessageRepository;
+import com.banco.ticketero.repository.TicketRepository;
+import com.banco.ticketero.service.OutboxRetryPolicy;
+import com.banco.ticketero.service.TelegramSender;
+import com.banco.ticketero.service.TelegramService;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Throughput del despacho del outbox contra un Telegram lento (WireMock con
+ * latencia fija), sin contexto Spring: los repositorios son mocks y solo se
+ * mide el pipeline reclamar → enviar → confirmar.
+ */
+class OutboxDispatchThroughputTest {
+
+    private static final int MESSAGES = 100;
+    private static final int TELEGRAM_LATENCY_MS = 40;
+
+    private WireMockServer wireMockServer;
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer = new WireMockServer(options().dynamicPort().containerThreads(64));
+        wireMockServer.start();
+        wireMockServer.stubFor(post(urlPathMatching("/bot.*/sendMessage"))
+            .willReturn(aResponse()
+                .withStatus(200)
+                .withFixedDelay(TELEGRAM_LATENCY_MS)
+                .withHeader("Content-Type", "application/json")
+                .withBody("{\"ok\":true,\"result\":{\"message_id\":1}}")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        wireMockServer.stop();
+    }
+
+    @Test
+    void messagesPerSecond_shouldScaleWithConcurrency() {
+        double sequential = measure(1);
+        double concurrent4 = measure(4);
+        double concurrent16 = measure(16);
+
+        System.out.printf("Outbox Dispatch Throughput (Telegram latency %d ms):%n", TELEGRAM_LATENCY_MS);
+        System.out.printf("- Concurrency 1: %.1f msg/s%n", sequential);
+        System.out.printf("- Concurrency 4: %.1f msg/s%n", concurrent4);
+        System.out.printf("- Concurrency 16: %.1f msg/s%n", concurrent16);
+
+        assertThat(concurrent4).isGreaterThan(sequential * 2.5);
+        assertThat(concurrent16).isGreaterThan(sequential * 6);
+    }
+
+    private double measure(int maxConcurrency) {
+        OutboxMessageRepository outboxRepository = mock(OutboxMessageRepository.class);
+        List<OutboxMessage> due = new ArrayList<>();
+        for (long id = 1; id <= MESSAGES; id++) {
+            due.add(OutboxMessage.builder()
+                .id(id)
+                .ticketId(UUID.randomUUID())
+                .plantilla("CONFIRMACION")
+                .estadoEnvio(OutboxMessage.MessageStatus.PENDING)
+                .chatId(String.valueOf(100_000 + id))
+                .fechaProgramada(LocalDateTime.now())
+                .nextAttemptAt(LocalDateTime.now())
+                .build());
+        }
+        when(outboxRepository.claimDueAfter(any(), any(), any(), any())).thenReturn(due).thenReturn(List.of());
+        AtomicInteger acknowledged = new AtomicInteger();
+        when(outboxRepository.markSent(anyCollection(), any())).thenAnswer(invocation -> {
+            acknowledged.addAndGet(invocation.<Collection<Long>>getArgument(0).size());
+            return 0;
+        });
+
+        // Límite global alto: aquí se mide la concurrencia, no el rate limit de Telegram
+        TelegramSender sender = new TelegramSender(
+            new RestTemplate(),
+            new SimpleMeterRegistry(),
+            "http://localhost:" + wireMockServer.port(),
+            "test-token",
+            10_000,
+            Duration.ofSeconds(1),
+            Duration.ofSeconds(5)
+        );
+        TelegramService service = new TelegramService(
+            outboxRepository,
+            mock(TicketRepository.class),
+            sender,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            new OutboxRetryPolicy(Duration.ofSeconds(5), Duration.ofMinutes(10), 2.0, 5, Map.of()),
+            MESSAGES + 1,
+            maxConcurrency,
+            Duration.ofSeconds(60),
+            Duration.ofSeconds(30)
+        );
+
+        long start = System.nanoTime();
+        service.processPendingMessages();
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        service.shutdown();
+
+        assertThat(acknowledged.get()).isEqualTo(MESSAGES);
+        return MESSAGES / seconds;
+    }
+}
@@ -0,0 +1,133 @@
+package com.banco.ticketero.nonfunctional;
+
+import com.banco.ticketero.model.entity.OutboxMessage;
+import com.banco.ticketero.repository.OutboxMessageRepository;
+import com.banco.ticketero.service.TelegramPollingService;
+import com.banco.ticketero.service.TelegramService;
+import com.banco.ticketero.service.TicketDispatcher;
+import com.banco.ticketero.service.TicketProcessingScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark del reclamo de mensajes pendientes con historial SENT creciente.
+ * Antes: índices sueltos sobre estado_envio y fecha_programada, y una consulta
+ * sin límite. Ahora: índice (parcial en PostgreSQL) + keyset con LIMIT.
+ * Tamaño máximo del historial con -Doutbox.history.rows (p.ej. 10000000).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OutboxPendingScanBenchmarkTest {
+
+    private static final int PENDING = 100;
+    private static final int BATCH_SIZE = 50;
+    private static final int ITERATIONS = 200;
+    private static final LocalDateTime KEYSET_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Jobs en segundo plano fuera de la medición
+    @MockBean
+    private TelegramService telegramService;
+
+    @MockBean
+    private TelegramPollingService telegramPollingService;
+
+    @MockBean
+    private TicketProcessingScheduler ticketProcessingScheduler;
+
+    @MockBean
+    private TicketDispatcher ticketDispatcher;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM outbox_message");
+    }
+
+    @Test
+    void claimDue_shouldStayFlatAsSentHistoryGrows() {
+        long maxHistory = Long.getLong("outbox.history.rows", 1_000_000L);
+        long[] historySizes = {0, maxHistory / 10, maxHistory};
+        UUID ticketId = UUID.randomUUID();
+        insertPending(ticketId);
+
+        Map<Long, Double> avgMicrosByHistory = new LinkedHashMap<>();
+        long inserted = 0;
+        for (long history : historySizes) {
+            insertSent(ticketId, inserted, history - inserted);
+            inserted = history;
+            avgMicrosByHistory.put(history, measureClaim());
+        }
+
+        System.out.printf("Outbox Pending Scan Benchmark Results:%n");
+        avgMicrosByHistory.forEach((history, micros) ->
+            System.out.printf("- SENT history %,d rows: %.1f us per claim of %d%n", history, micros, BATCH_SIZE));
+
+        double baseline = avgMicrosByHistory.get(0L);
+        assertThat(avgMicrosByHistory.get(maxHistory)).isLessThan(Math.max(baseline * 3, baseline + 1_000));
+    }
+
+    private double measureClaim() {
+        for (int i = 0; i < ITERATIONS / 4; i++) {
+            claimOnce();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            claimOnce();
+        }
+        return (System.nanoTime() - start) / 1_000.0 / ITERATIONS;
+    }
+
+    // Sin lease ni commit: cada iteración ve los mismos pendientes
+    private void claimOnce() {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<OutboxMessage> due = outboxMessageRepository.claimDueAfter(
+                LocalDateTime.now(), KEYSET_START, 0L, PageRequest.of(0, BATCH_SIZE));
+            assertThat(due).hasSize(BATCH_SIZE);
+            status.setRollbackOnly();
+        });
+    }
+
+    private void insertPending(UUID ticketId) {
+        jdbcTemplate.update("""
+            INSERT INTO outbox_message (id, ticket_id, plantilla, estado_envio, fecha_programada, next_attempt_at, intentos, chat_id)
+            SELECT x, ?, 'CONFIRMACION', 'PENDING', DATEADD('SECOND', -x, CURRENT_TIMESTAMP), DATEADD('SECOND', -x, CURRENT_TIMESTAMP), 0, '123456'
+            FROM SYSTEM_RANGE(1, ?)
+            """, ticketId, PENDING);
+    }
+
+    // Historial enviado más antiguo que los pendientes, como en producción
+    private void insertSent(UUID ticketId, long from, long count) {
+        if (count <= 0) {
+            return;
+        }
+        jdbcTemplate.update("""
+            INSERT INTO outbox_message (id, ticket_id, plantilla, estado_envio, fecha_programada, next_attempt_at, fecha_envio, intentos, chat_id)
+            SELECT x, ?, 'CONFIRMACION', 'SENT', DATEADD('SECOND', -x, TIMESTAMP '2024-01-01 00:00:00'),
+                   DATEADD('SECOND', -x, TIMESTAMP '2024-01-01 00:00:00'), TIMESTAMP '2024-01-01 00:00:00', 0, '123456'
+            FROM SYSTEM_RANGE(?, ?)
+            """, ticketId, PENDING + from + 1, PENDING + from + count);
+    }
+}
@@ -0,0 +1,162 @@
+package com.banco.ticketero.nonfunctional;
+
+import com.banco.ticketero.model.QueueType;
+import com.banco.ticketero.model.TicketStatus;
+import com.banco.ticketero.model.entity.Advisor;
+import com.banco.ticketero.model.entity.OutboxMessage;
+import com.banco.ticketero.model.entity.Ticket;
+import com.banco.ticketero.repository.AdvisorRepository;
+import com.banco.ticketero.repository.OutboxMessageRepository;
+import com.banco.ticketero.repository.TicketRepository;
+import com.banco.ticketero.service.TelegramPollingService;
+import com.banco.ticketero.service.TelegramSender;
+import com.banco.ticketero.service.TelegramService;
+import com.banco.ticketero.service.TicketDispatcher;
+import com.banco.ticketero.service.TicketProcessingScheduler;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Sentencias JDBC por lote del outbox según su tamaño. Antes: 2 consultas por
+ * mensaje (findById del ticket + carga lazy del asesor), ahora constante.
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "ticketero.outbox.batch-size=500",
+    "ticketero.outbox.max-idle=1h"
+})
+@ActiveProfiles("test")
+class OutboxRenderQueryCountTest {
+
+    private static final int[] BATCH_SIZES = {1, 10, 50, 200};
+
+    @Autowired
+    private TelegramService telegramService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private AdvisorRepository advisorRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Sin llamadas reales a Telegram
+    @MockBean
+    private TelegramSender telegramSender;
+
+    // Jobs en segundo plano fuera de la medición (las estadísticas de Hibernate son globales)
+    @MockBean
+    private TelegramPollingService telegramPollingService;
+
+    @MockBean
+    private TicketProcessingScheduler ticketProcessingScheduler;
+
+    @MockBean
+    private TicketDispatcher ticketDispatcher;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        cleanDatabase();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanDatabase();
+    }
+
+    @Test
+    void processPendingMessages_shouldUseConstantStatementsPerBatch() {
+        Map<Integer, Long> statementsByBatch = new LinkedHashMap<>();
+        for (int size : BATCH_SIZES) {
+            createAssignedTicketsWithMessages(size);
+
+            statistics.clear();
+            telegramService.processPendingMessages();
+            statementsByBatch.put(size, statistics.getPrepareStatementCount());
+
+            assertThat(outboxMessageRepository.countByEstadoEnvio(OutboxMessage.MessageStatus.SENT)).isEqualTo(size);
+            cleanDatabase();
+        }
+
+        System.out.printf("Outbox Render Query Count Results:%n");
+        statementsByBatch.forEach((size, statements) ->
+            System.out.printf("- Batch %d: %d statements%n", size, statements));
+
+        // Las plantillas se renderizan con datos reales, no con "N/A"
+        verify(telegramSender, atLeastOnce()).send(anyString(), contains("Ejecutivo: Asesor"), any());
+        assertThat(Set.copyOf(statementsByBatch.values())).hasSize(1);
+    }
+
+    private void createAssignedTicketsWithMessages(int count) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxMessage> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Advisor advisor = advisorRepository.save(Advisor.builder()
+                .name("Asesor " + i)
+                .email("asesor" + i + "@banco.cl")
+                .status(Advisor.AdvisorStatus.BUSY)
+                .moduleNumber(i + 1)
+                .supportedQueues(Set.of(QueueType.CAJA))
+                .build());
+            Ticket ticket = ticketRepository.save(Ticket.builder()
+                .numero(String.format("C%03d", i))
+                .nationalId("1000" + i)
+                .telefono("5550" + i)
+                .branchOffice("Sucursal Centro")
+                .queueType(QueueType.CAJA)
+                .status(TicketStatus.ATENDIENDO)
+                .assignedAdvisor(advisor)
+                .assignedModuleNumber(advisor.getModuleNumber())
+                .build());
+            messages.add(OutboxMessage.builder()
+                .ticketId(ticket.getCodigoReferencia())
+                .plantilla("TU_TURNO")
+                .estadoEnvio(OutboxMessage.MessageStatus.PENDING)
+                .chatId("5550" + i)
+                .fechaProgramada(now.minusSeconds(1))
+                .build());
+        }
+        outboxMessageRepository.saveAll(messages);
+    }
+
+    private void cleanDatabase() {
+        outboxMessageRepository.deleteAllInBatch();
+        ticketRepository.deleteAllInBatch();
+        jdbcTemplate.update("DELETE FROM advisor_queue");
+        advisorRepository.deleteAllInBatch();
+    }
+}
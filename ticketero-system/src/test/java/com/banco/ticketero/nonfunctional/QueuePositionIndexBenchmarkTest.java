@@ -0,0 +1,76 @@
+package com.banco.ticketero.nonfunctional;
+
+import com.banco.ticketero.model.QueueType;
+import com.banco.ticketero.model.TicketStatus;
+import com.banco.ticketero.model.event.TicketStatusChangedEvent;
+import com.banco.ticketero.repository.TicketRepository;
+import com.banco.ticketero.service.QueuePositionIndex;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Benchmark del índice de posiciones con 100k tickets en espera: consultas de
+ * /position y altas/bajas concurrentes con la cola llena.
+ */
+class QueuePositionIndexBenchmarkTest {
+
+    private static final int WAITING_TICKETS = 100_000;
+    private static final int LOOKUPS = 1_000_000;
+    private static final int CHURN_OPERATIONS = 100_000;
+
+    @Test
+    void positionLookup_with100kWaitingTickets_shouldStayInMicroseconds() {
+        TicketRepository ticketRepository = mock(TicketRepository.class);
+        when(ticketRepository.findByStatusInOrderByCreatedAtAsc(any())).thenReturn(List.of());
+        QueuePositionIndex index = new QueuePositionIndex(ticketRepository);
+        index.rebuild();
+
+        LocalDateTime base = LocalDateTime.now().minusHours(2);
+        List<UUID> ids = new ArrayList<>(WAITING_TICKETS);
+        for (int i = 0; i < WAITING_TICKETS; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            index.onTicketStatusChanged(event(id, base.plusNanos(i * 1_000L), null, TicketStatus.EN_ESPERA));
+        }
+
+        Random random = new Random(7);
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            checksum += index.findPosition(ids.get(random.nextInt(WAITING_TICKETS))).orElseThrow().position();
+        }
+        double lookupNanos = (double) (System.nanoTime() - start) / LOOKUPS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < CHURN_OPERATIONS; i++) {
+            // Se atiende un ticket al azar y llega uno nuevo al final
+            UUID served = ids.set(random.nextInt(WAITING_TICKETS), UUID.randomUUID());
+            index.onTicketStatusChanged(event(served, base, TicketStatus.EN_ESPERA, TicketStatus.ATENDIENDO));
+            index.onTicketStatusChanged(event(ids.get(i % WAITING_TICKETS), base.plusHours(1).plusNanos(i * 1_000L),
+                null, TicketStatus.EN_ESPERA));
+        }
+        double churnNanos = (double) (System.nanoTime() - start) / (CHURN_OPERATIONS * 2);
+
+        System.out.printf("Queue Position Index Benchmark Results:%n");
+        System.out.printf("- Waiting tickets: %d%n", index.waitingCount(QueueType.CAJA));
+        System.out.printf("- Position lookup: %.0f ns/op (%.0f ops/s)%n", lookupNanos, 1e9 / lookupNanos);
+        System.out.printf("- Create/assign update: %.0f ns/op%n", churnNanos);
+        System.out.printf("- Checksum: %d%n", checksum);
+
+        assertThat(lookupNanos).isLessThan(50_000);
+    }
+
+    private TicketStatusChangedEvent event(UUID id, LocalDateTime createdAt, TicketStatus previous, TicketStatus status) {
+        return new TicketStatusChangedEvent(id, "C001", QueueType.CAJA, createdAt, createdAt.plusHours(1), previous, status, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,97 @@
+package com.banco.ticketero.nonfunctional;
+
+import com.banco.ticketero.model.dto.telegram.TelegramUpdate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark del parseo de updates de Telegram: el record con deserializador en
+ * streaming frente al {@code Map<String, Object>} anidado que se recorría con casts.
+ * Mide bytes asignados por update (ThreadMXBean del hilo actual) y updates/s.
+ */
+class TelegramUpdateParsingBenchmarkTest {
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 200_000;
+
+    // Un mensaje de texto real de un grupo, con los campos que el bot no usa
+    private static final byte[] UPDATE = """
+        {"update_id":987654321,
+         "message":{"message_id":4321,
+                    "from":{"id":555000111,"is_bot":false,"first_name":"María","last_name":"González",
+                            "username":"mgonzalez","language_code":"es","is_premium":true},
+                    "chat":{"id":-1001234567890,"title":"Sucursal Centro","username":"sucursal_centro",
+                            "type":"supergroup"},
+                    "date":1700000000,
+                    "reply_to_message":{"message_id":4320,"date":1699999990,"text":"Hola",
+                                        "chat":{"id":-1001234567890,"type":"supergroup"}},
+                    "entities":[{"offset":0,"length":7,"type":"bot_command"},
+                                {"offset":8,"length":8,"type":"bold"}],
+                    "text":"/ticket 12345678 CAJA"}}""".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void typedStreamingParse_shouldAllocateLessThanNestedMaps() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ObjectReader mapReader = objectMapper.readerFor(Map.class);
+        ObjectReader typedReader = objectMapper.readerFor(TelegramUpdate.class);
+
+        long checksum = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            checksum += parseAsMap(mapReader) + parseTyped(typedReader);
+        }
+
+        long mapBytes = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            checksum += parseAsMap(mapReader);
+        }
+        long mapNanos = System.nanoTime() - start;
+        mapBytes = allocatedBytes() - mapBytes;
+
+        long typedBytes = allocatedBytes();
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            checksum += parseTyped(typedReader);
+        }
+        long typedNanos = System.nanoTime() - start;
+        typedBytes = allocatedBytes() - typedBytes;
+
+        double mapPerUpdate = (double) mapBytes / ITERATIONS;
+        double typedPerUpdate = (double) typedBytes / ITERATIONS;
+        System.out.printf("Telegram Update Parsing Benchmark Results:%n");
+        System.out.printf("- Update size: %d bytes, %d iterations (checksum %d)%n", UPDATE.length, ITERATIONS, checksum);
+        System.out.printf("- Map<String, Object>: %.0f B/update, %.0f updates/s%n",
+            mapPerUpdate, ITERATIONS / (mapNanos / 1e9));
+        System.out.printf("- TelegramUpdate (streaming): %.0f B/update, %.0f updates/s%n",
+            typedPerUpdate, ITERATIONS / (typedNanos / 1e9));
+
+        assertThat(typedPerUpdate).isLessThan(mapPerUpdate / 2);
+    }
+
+    // Lo que hacía TelegramBotService: bajar por casts hasta message.chat.id
+    @SuppressWarnings("unchecked")
+    private static long parseAsMap(ObjectReader reader) throws Exception {
+        Map<String, Object> update = reader.readValue(UPDATE);
+        Map<String, Object> message = (Map<String, Object>) update.get("message");
+        Map<String, Object> chat = (Map<String, Object>) message.get("chat");
+        String text = (String) message.get("text");
+        return Long.parseLong(chat.get("id").toString()) + text.length();
+    }
+
+    private static long parseTyped(ObjectReader reader) throws Exception {
+        TelegramUpdate update = reader.readValue(UPDATE);
+        return update.message().chatId() + update.message().text().length();
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+            .getThreadAllocatedBytes(Thread.currentThread().threadId());
+    }
+}
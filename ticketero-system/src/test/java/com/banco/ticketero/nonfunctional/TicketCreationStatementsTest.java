@@ -0,0 +1,112 @@
+package com.banco.ticketero.nonfunctional;
+
+import com.banco.ticketero.model.QueueType;
+import com.banco.ticketero.repository.AdvisorRepository;
+import com.banco.ticketero.repository.OutboxMessageRepository;
+import com.banco.ticketero.repository.TicketRepository;
+import com.banco.ticketero.service.TelegramPollingService;
+import com.banco.ticketero.service.TelegramService;
+import com.banco.ticketero.service.TicketDispatcher;
+import com.banco.ticketero.service.TicketProcessingScheduler;
+import com.banco.ticketero.service.TicketService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark de creación de tickets: sentencias JDBC por ticket y latencia p99.
+ * Antes del cambio: 5 sentencias (INSERT ticket, COUNT, INSERT x2 outbox, UPDATE ticket).
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class TicketCreationStatementsTest {
+
+    private static final int WARMUP_TICKETS = 50;
+    private static final int MEASURED_TICKETS = 500;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private AdvisorRepository advisorRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Jobs en segundo plano fuera de la medición (las estadísticas de Hibernate son globales)
+    @MockBean
+    private TelegramService telegramService;
+
+    @MockBean
+    private TelegramPollingService telegramPollingService;
+
+    @MockBean
+    private TicketProcessingScheduler ticketProcessingScheduler;
+
+    @MockBean
+    private TicketDispatcher ticketDispatcher;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        cleanDatabase();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanDatabase();
+    }
+
+    @Test
+    void createFromTelegram_shouldUseAtMostThreeStatementsPerTicket() {
+        for (int i = 0; i < WARMUP_TICKETS; i++) {
+            ticketService.createFromTelegram("1000" + i, "5550" + i, QueueType.CAJA);
+        }
+
+        statistics.clear();
+        List<Long> latencies = new ArrayList<>();
+        for (int i = 0; i < MEASURED_TICKETS; i++) {
+            long start = System.nanoTime();
+            ticketService.createFromTelegram("2000" + i, "6660" + i, QueueType.CAJA);
+            latencies.add(System.nanoTime() - start);
+        }
+
+        double statementsPerTicket = (double) statistics.getPrepareStatementCount() / MEASURED_TICKETS;
+        Collections.sort(latencies);
+        double p99Millis = latencies.get((int) Math.ceil(MEASURED_TICKETS * 0.99) - 1) / 1_000_000.0;
+
+        System.out.printf("Ticket Creation Benchmark Results:%n");
+        System.out.printf("- Tickets: %d%n", MEASURED_TICKETS);
+        System.out.printf("- Statements per ticket: %.2f%n", statementsPerTicket);
+        System.out.printf("- P99 latency: %.2f ms%n", p99Millis);
+
+        assertThat(statementsPerTicket).isLessThanOrEqualTo(3.1);
+    }
+
+    private void cleanDatabase() {
+        outboxMessageRepository.deleteAll();
+        ticketRepository.deleteAll();
+        advisorRepository.deleteAll();
+    }
+}
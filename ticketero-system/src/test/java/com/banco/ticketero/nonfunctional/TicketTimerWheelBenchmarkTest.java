@@ -0,0 +1,95 @@
+package com.banco.ticketero.nonfunctional;
+
+import com.banco.ticketero.service.TimerWheel;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark de la rueda de temporizadores con 50k plazos simultáneos (tickets en
+ * cola y atenciones), con reloj simulado: altas/reprogramaciones por evento y
+ * avance tick a tick, comparado con recorrer todos los plazos en cada pasada.
+ */
+class TicketTimerWheelBenchmarkTest {
+
+    private static final int TIMERS = 50_000;
+    private static final Duration TICK = Duration.ofSeconds(1);
+    private static final long HORIZON_MILLIS = Duration.ofHours(4).toMillis();
+    private static final int RESCHEDULES = 200_000;
+
+    @Test
+    void timerWheel_with50kConcurrentTimers_shouldScheduleAndFireInConstantTime() {
+        Random random = new Random(11);
+        TimerWheel<UUID> wheel = new TimerWheel<>(TICK, 512, 0);
+        UUID[] ids = new UUID[TIMERS];
+        Map<UUID, Long> deadlines = new HashMap<>(TIMERS * 2);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < TIMERS; i++) {
+            ids[i] = UUID.randomUUID();
+            long deadline = 1 + random.nextLong(HORIZON_MILLIS);
+            wheel.schedule(ids[i], deadline);
+            deadlines.put(ids[i], deadline);
+        }
+        double scheduleNanos = (double) (System.nanoTime() - start) / TIMERS;
+
+        // Tickets que cambian de estado: se reprograma su plazo
+        start = System.nanoTime();
+        for (int i = 0; i < RESCHEDULES; i++) {
+            UUID id = ids[random.nextInt(TIMERS)];
+            long deadline = 1 + random.nextLong(HORIZON_MILLIS);
+            wheel.schedule(id, deadline);
+            deadlines.put(id, deadline);
+        }
+        double rescheduleNanos = (double) (System.nanoTime() - start) / RESCHEDULES;
+
+        int fired = 0;
+        long maxLateMillis = 0;
+        long ticks = HORIZON_MILLIS / TICK.toMillis() + 1;
+        start = System.nanoTime();
+        for (long tick = 1; tick <= ticks; tick++) {
+            long now = tick * TICK.toMillis();
+            List<UUID> expired = wheel.advance(now);
+            for (UUID id : expired) {
+                long late = now - deadlines.get(id);
+                assertThat(late).isBetween(0L, TICK.toMillis());
+                maxLateMillis = Math.max(maxLateMillis, late);
+            }
+            fired += expired.size();
+        }
+        double tickNanos = (double) (System.nanoTime() - start) / ticks;
+
+        // Lo que hacía el scheduler anterior: revisar todos los plazos en cada pasada
+        start = System.nanoTime();
+        int scanned = 0;
+        for (int pass = 0; pass < 100; pass++) {
+            long now = pass * 10_000L;
+            for (Long deadline : deadlines.values()) {
+                if (deadline <= now) {
+                    scanned++;
+                }
+            }
+        }
+        double scanNanos = (double) (System.nanoTime() - start) / 100;
+
+        System.out.printf("Ticket Timer Wheel Benchmark Results:%n");
+        System.out.printf("- Concurrent timers: %d (horizon %d h, tick %d ms)%n",
+            TIMERS, Duration.ofMillis(HORIZON_MILLIS).toHours(), TICK.toMillis());
+        System.out.printf("- Schedule: %.0f ns/op, reschedule: %.0f ns/op%n", scheduleNanos, rescheduleNanos);
+        System.out.printf("- Advance: %.0f ns/tick over %d ticks (fired %d, max late %d ms)%n",
+            tickNanos, ticks, fired, maxLateMillis);
+        System.out.printf("- Full scan of all deadlines: %.0f ns/pass (checksum %d)%n", scanNanos, scanned);
+
+        assertThat(fired).isEqualTo(TIMERS);
+        assertThat(wheel.size()).isZero();
+        assertThat(scheduleNanos).isLessThan(20_000);
+        assertThat(tickNanos).isLessThan(scanNanos);
+    }
+}
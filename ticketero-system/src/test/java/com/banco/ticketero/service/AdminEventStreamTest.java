@@ -0,0 +1,150 @@
+package com.banco.ticketero.service;
+
+import com.banco.ticketero.model.QueueType;
+import com.banco.ticketero.model.TicketStatus;
+import com.banco.ticketero.model.dto.response.DashboardResponse;
+import com.banco.ticketero.model.entity.Advisor;
+import com.banco.ticketero.model.event.AdvisorStatusChangedEvent;
+import com.banco.ticketero.model.event.TicketStatusChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("AdminEventStream - Unit Tests")
+class AdminEventStreamTest {
+
+    private final AdminService adminService = mock(AdminService.class);
+    private final QueuePositionIndex queuePositionIndex = mock(QueuePositionIndex.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AdminEventStream stream;
+
+    @BeforeEach
+    void setUp() {
+        when(adminService.getDashboard()).thenReturn(
+            new DashboardResponse(0, 0, 0, 0, 1, 0, 0, Map.of()));
+        when(queuePositionIndex.waitingCount(QueueType.CAJA)).thenReturn(3);
+        stream = new AdminEventStream(adminService, queuePositionIndex, new ObjectMapper().findAndRegisterModules(),
+            meterRegistry, 4, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        stream.shutdown();
+    }
+
+    @Test
+    void subscribe_shouldStartWithDashboardAndFollowWithDeltas() {
+        RecordingEmitter emitter = new RecordingEmitter(null);
+        stream.register(emitter);
+
+        stream.onTicketStatusChanged(ticketEvent(1, null, TicketStatus.EN_ESPERA));
+        stream.onAdvisorStatusChanged(new AdvisorStatusChangedEvent(7L, Advisor.AdvisorStatus.BUSY,
+            Advisor.AdvisorStatus.AVAILABLE, LocalDateTime.now()));
+
+        await().atMost(Duration.ofSeconds(2)).until(() -> emitter.names().size() == 4);
+        assertThat(emitter.names()).containsExactly("dashboard", "ticket-created", "queue-depth", "advisor-status");
+        assertThat(emitter.sent.get(2)).contains("\"queueType\":\"CAJA\"").contains("\"waiting\":3");
+    }
+
+    @Test
+    void slowSubscriber_shouldDropOldestWithoutHoldingBackOthers() throws Exception {
+        CountDownLatch slowGate = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(slowGate);
+        RecordingEmitter fast = new RecordingEmitter(null);
+        stream.register(slow);
+        stream.register(fast);
+        // El lento queda bloqueado escribiendo el dashboard inicial
+        await().atMost(Duration.ofSeconds(2)).until(() -> slow.blocked.getCount() == 0);
+
+        // Ticket y profundidad de cola por cambio; el rápido los recibe todos mientras el lento sigue trabado
+        for (int i = 1; i <= 20; i++) {
+            stream.onTicketStatusChanged(ticketEvent(i, TicketStatus.EN_ESPERA, TicketStatus.CANCELADO));
+            int expected = 1 + 2 * i;
+            await().atMost(Duration.ofSeconds(2)).until(() -> fast.names().size() == expected);
+        }
+        slowGate.countDown();
+        await().atMost(Duration.ofSeconds(2)).until(() -> slow.names().contains("queue-depth"));
+
+        assertThat(slow.names()).containsExactly(
+            "dashboard", "dropped", "ticket-status", "queue-depth", "ticket-status", "queue-depth");
+        assertThat(slow.sent.get(1)).contains("\"count\":36");
+        assertThat(slow.sent.get(4)).contains("\"numero\":\"C020\"");
+        assertThat(meterRegistry.get("ticketero.admin.stream.dropped").counter().count()).isEqualTo(36);
+    }
+
+    @Test
+    void failingSubscriber_shouldBeRemoved() {
+        RecordingEmitter broken = new RecordingEmitter(null);
+        broken.fail = true;
+        stream.register(broken);
+
+        await().atMost(Duration.ofSeconds(2)).until(() -> stream.subscriberCount() == 0);
+    }
+
+    private static TicketStatusChangedEvent ticketEvent(int n, TicketStatus from, TicketStatus to) {
+        LocalDateTime now = LocalDateTime.now();
+        return new TicketStatusChangedEvent(UUID.randomUUID(), String.format("C%03d", n), QueueType.CAJA,
+            now, now.plusHours(1), from, to, now);
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private static final Pattern EVENT_NAME = Pattern.compile("event:(\\S+)");
+
+        private final List<String> sent = new CopyOnWriteArrayList<>();
+        private final CountDownLatch gate;
+        private final CountDownLatch blocked = new CountDownLatch(1);
+        private volatile boolean fail;
+
+        private RecordingEmitter(CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (fail) {
+                throw new IOException("Broken pipe");
+            }
+            if (gate != null) {
+                blocked.countDown();
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            sent.add(builder.build().stream()
+                .map(part -> part.getData().toString())
+                .collect(Collectors.joining()));
+        }
+
+        private List<String> names() {
+            return sent.stream()
+                .map(EVENT_NAME::matcher)
+                .filter(Matcher::find)
+                .map(matcher -> matcher.group(1))
+                .toList();
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.banco.ticketero.service;
+
+import com.banco.ticketero.model.QueueType;
+import com.banco.ticketero.model.TicketStatus;
+import com.banco.ticketero.model.entity.Advisor;
+import com.banco.ticketero.model.entity.Ticket;
+import com.banco.ticketero.repository.AdvisorRepository;
+import com.banco.ticketero.repository.OutboxMessageRepository;
+import com.banco.ticketero.repository.TicketRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AssignmentService Unit Tests")
+class AssignmentServiceTest {
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private AdvisorRepository advisorRepository;
+
+    @Mock
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private AssignmentService assignmentService;
+
+    @Test
+    @DisplayName("assignAvailable - varios asesores libres reciben ticket en la misma pasada")
+    void assignAvailable_severalFreeAdvisors_shouldDrainAllMatches() {
+        LocalDateTime now = LocalDateTime.now();
+        Advisor ana = advisor(1L, "CAJA");
+        Advisor luis = advisor(2L, "CAJA,PERSONAL_BANKER");
+        Ticket first = ticket("C001", QueueType.CAJA, now.minusMinutes(3));
+        Ticket second = ticket("C002", QueueType.CAJA, now.minusMinutes(2));
+        Ticket third = ticket("C003", QueueType.CAJA, now.minusMinutes(1));
+
+        when(ticketRepository.countEligibleForAssignmentByQueue(any())).thenReturn(List.of(eligible(QueueType.CAJA, 3)));
+        when(advisorRepository.claimAvailableAdvisorsForQueue(eq(QueueType.CAJA), any())).thenReturn(List.of(ana, luis));
+        when(ticketRepository.claimEligibleForAssignment(eq(QueueType.CAJA), any(), any()))
+            .thenReturn(List.of(first, second, third));
+
+        var assignments = assignmentService.assignAvailable(now, 50);
+
+        assertThat(assignments).extracting(AssignmentService.Assignment::numero).containsExactly("C001", "C002");
+        assertThat(first.getAssignedAdvisor()).isSameAs(ana);
+        assertThat(second.getAssignedAdvisor()).isSameAs(luis);
+        assertThat(third.getStatus()).isEqualTo(TicketStatus.EN_ESPERA);
+        assertThat(ana.getStatus()).isEqualTo(Advisor.AdvisorStatus.BUSY);
+        assertThat(luis.getStatus()).isEqualTo(Advisor.AdvisorStatus.BUSY);
+    }
+
+    @Test
+    @DisplayName("assignAvailable - un ticket sin asesor para su cola no bloquea a los siguientes")
+    void assignAvailable_unsupportedQueue_shouldSkipToNextTicket() {
+        LocalDateTime now = LocalDateTime.now();
+        Advisor banker = advisor(1L, "PERSONAL_BANKER");
+        Ticket empresas = ticket("E001", QueueType.EMPRESAS, now.minusMinutes(2));
+        Ticket personal = ticket("P001", QueueType.PERSONAL_BANKER, now.minusMinutes(1));
+
+        when(ticketRepository.countEligibleForAssignmentByQueue(any()))
+            .thenReturn(List.of(eligible(QueueType.PERSONAL_BANKER, 1), eligible(QueueType.EMPRESAS, 1)));
+        when(advisorRepository.claimAvailableAdvisorsForQueue(eq(QueueType.EMPRESAS), any())).thenReturn(List.of());
+        when(advisorRepository.claimAvailableAdvisorsForQueue(eq(QueueType.PERSONAL_BANKER), any())).thenReturn(List.of(banker));
+        when(ticketRepository.claimEligibleForAssignment(eq(QueueType.PERSONAL_BANKER), any(), any()))
+            .thenReturn(List.of(personal));
+
+        var assignments = assignmentService.assignAvailable(now, 50);
+
+        assertThat(assignments).extracting(AssignmentService.Assignment::numero).containsExactly("P001");
+        assertThat(empresas.getStatus()).isEqualTo(TicketStatus.EN_ESPERA);
+    }
+
+    @Test
+    @DisplayName("assignAvailable - el atraso de una cola no deja sin ticket al asesor de otra")
+    void assignAvailable_mixedQueueBacklog_shouldServeEveryFreeAdvisor() {
+        LocalDateTime now = LocalDateTime.now();
+        Advisor cajero = advisor(1L, "CAJA");
+        Advisor gerente = advisor(2L, "GERENCIA");
+        List<Ticket> cajaBacklog = IntStream.range(0, 60)
+            .mapToObj(i -> ticket("C%03d".formatted(i), QueueType.CAJA, now.minusMinutes(120 - i)))
+            .toList();
+        Ticket gerencia = ticket("G001", QueueType.GERENCIA, now.minusMinutes(1));
+
+        when(ticketRepository.countEligibleForAssignmentByQueue(any()))
+            .thenReturn(List.of(eligible(QueueType.CAJA, 60), eligible(QueueType.GERENCIA, 1)));
+        when(advisorRepository.claimAvailableAdvisorsForQueue(eq(QueueType.CAJA), any())).thenReturn(List.of(cajero));
+        when(advisorRepository.claimAvailableAdvisorsForQueue(eq(QueueType.GERENCIA), any())).thenReturn(List.of(gerente));
+        // Cada cola se reclama con una página del tamaño de sus asesores libres
+        when(ticketRepository.claimEligibleForAssignment(eq(QueueType.CAJA), any(), eq(PageRequest.of(0, 1))))
+            .thenReturn(cajaBacklog.subList(0, 1));
+        when(ticketRepository.claimEligibleForAssignment(eq(QueueType.GERENCIA), any(), eq(PageRequest.of(0, 1))))
+            .thenReturn(List.of(gerencia));
+
+        var assignments = assignmentService.assignAvailable(now, 50);
+
+        assertThat(assignments).extracting(AssignmentService.Assignment::numero).containsExactly("C000", "G001");
+        assertThat(gerencia.getAssignedAdvisor()).isSameAs(gerente);
+        assertThat(cajaBacklog.get(1).getStatus()).isEqualTo(TicketStatus.EN_ESPERA);
+    }
+
+    @Test
+    @DisplayName("assignAvailable - los asesores libres de una cola vacía no dejan sin asesor a otra cola")
+    void assignAvailable_manyIdleAdvisorsOnEmptyQueue_shouldStillServeOtherQueue() {
+        LocalDateTime now = LocalDateTime.now();
+        Advisor gerente = advisor(99L, "GERENCIA");
+        gerente.setAssignedTicketsCount(7);
+        Ticket gerencia = ticket("G001", QueueType.GERENCIA, now.minusMinutes(1));
+
+        // Más cajeros ociosos (y con menos carga) que el lote, pero CAJA no tiene tickets
+        when(ticketRepository.countEligibleForAssignmentByQueue(any()))
+            .thenReturn(List.of(eligible(QueueType.GERENCIA, 1)));
+        when(advisorRepository.claimAvailableAdvisorsForQueue(QueueType.GERENCIA, PageRequest.of(0, 1)))
+            .thenReturn(List.of(gerente));
+        when(ticketRepository.claimEligibleForAssignment(eq(QueueType.GERENCIA), any(), eq(PageRequest.of(0, 1))))
+            .thenReturn(List.of(gerencia));
+
+        var assignments = assignmentService.assignAvailable(now, 2);
+
+        assertThat(assignments).extracting(AssignmentService.Assignment::numero).containsExactly("G001");
+        assertThat(gerencia.getAssignedAdvisor()).isSameAs(gerente);
+        verify(advisorRepository, never()).claimAvailableAdvisorsForQueue(eq(QueueType.CAJA), any());
+    }
+
+    @Test
+    @DisplayName("assignAvailable - un asesor de varias colas no achica la página de la segunda cola")
+    void assignAvailable_sharedAdvisor_shouldWidenNextQueuePage() {
+        LocalDateTime now = LocalDateTime.now();
+        Advisor mixto = advisor(1L, "CAJA,PERSONAL_BANKER");
+        Advisor banker = advisor(2L, "PERSONAL_BANKER");
+        Ticket caja = ticket("C001", QueueType.CAJA, now.minusMinutes(2));
+        Ticket personal = ticket("P001", QueueType.PERSONAL_BANKER, now.minusMinutes(1));
+
+        when(ticketRepository.countEligibleForAssignmentByQueue(any()))
+            .thenReturn(List.of(eligible(QueueType.CAJA, 1), eligible(QueueType.PERSONAL_BANKER, 1)));
+        when(advisorRepository.claimAvailableAdvisorsForQueue(QueueType.CAJA, PageRequest.of(0, 1)))
+            .thenReturn(List.of(mixto));
+        // El asesor mixto vuelve a aparecer: la página crece en uno para traer al siguiente
+        when(advisorRepository.claimAvailableAdvisorsForQueue(QueueType.PERSONAL_BANKER, PageRequest.of(0, 2)))
+            .thenReturn(List.of(mixto, banker));
+        when(ticketRepository.claimEligibleForAssignment(eq(QueueType.CAJA), any(), any())).thenReturn(List.of(caja));
+        when(ticketRepository.claimEligibleForAssignment(eq(QueueType.PERSONAL_BANKER), any(), any()))
+            .thenReturn(List.of(personal));
+
+        var assignments = assignmentService.assignAvailable(now, 50);
+
+        assertThat(assignments).extracting(AssignmentService.Assignment::numero).containsExactly("C001", "P001");
+        assertThat(caja.getAssignedAdvisor()).isSameAs(mixto);
+        assertThat(personal.getAssignedAdvisor()).isSameAs(banker);
+    }
+
+    @Test
+    @DisplayName("assignAvailable - sin asesores libres no consulta tickets")
+    void assignAvailable_noAdvisors_shouldNotLoadTickets() {
+        when(ticketRepository.countEligibleForAssignmentByQueue(any())).thenReturn(List.of(eligible(QueueType.CAJA, 1)));
+        when(advisorRepository.claimAvailableAdvisorsForQueue(eq(QueueType.CAJA), any())).thenReturn(List.of());
+
+        assertThat(assignmentService.assignAvailable(LocalDateTime.now(), 50)).isEmpty();
+        verify(ticketRepository, never()).claimEligibleForAssignment(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("assignAvailable - sin tickets elegibles no reclama asesores")
+    void assignAvailable_noEligibleTickets_shouldNotClaimAdvisors() {
+        when(ticketRepository.countEligibleForAssignmentByQueue(any())).thenReturn(List.of());
+
+        assertThat(assignmentService.assignAvailable(LocalDateTime.now(), 50)).isEmpty();
+        verify(advisorRepository, never()).claimAvailableAdvisorsForQueue(any(), any());
+    }
+
+    private TicketRepository.QueueCountView eligible(QueueType queueType, long total) {
+        return new TicketRepository.QueueCountView() {
+            @Override
+            public QueueType getQueueType() {
+                return queueType;
+            }
+
+            @Override
+            public long getTotal() {
+                return total;
+            }
+        };
+    }
+
+    private Advisor advisor(Long id, String queues) {
+        return Advisor.builder()
+            .id(id)
+            .name("Asesor " + id)
+            .email("asesor" + id + "@banco.com")
+            .status(Advisor.AdvisorStatus.AVAILABLE)
+            .moduleNumber(id.intValue())
+            .supportedQueues(queues)
+            .build();
+    }
+
+    private Ticket ticket(String numero, QueueType queueType, LocalDateTime createdAt) {
+        return Ticket.builder()
+            .codigoReferencia(UUID.randomUUID())
+            .numero(numero)
+            .nationalId("12345678")
+            .telefono("+56912345678")
+            .branchOffice("Sucursal Centro")
+            .queueType(queueType)
+            .status(TicketStatus.EN_ESPERA)
+            .createdAt(createdAt)
+            .build();
+    }
+}
@@ -0,0 +1,95 @@
+package com.banco.ticketero.service;
+
+import com.banco.ticketero.model.QueueType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("BlockTicketNumberAllocator Unit Tests")
+class BlockTicketNumberAllocatorTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 17);
+    private static final String BRANCH = "Sucursal Centro";
+
+    @Mock
+    private TicketNumberSequenceLeaser leaser;
+
+    // Simula la tabla ticket_number_sequence: clave -> next_value
+    private final Map<String, Long> sequences = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        when(leaser.lease(anyString(), anyString(), any(), anyInt())).thenAnswer(invocation -> {
+            String key = keyOf(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2));
+            int blockSize = invocation.getArgument(3);
+            long start = sequences.getOrDefault(key, 1L);
+            sequences.put(key, start + blockSize);
+            return start;
+        });
+    }
+
+    @Test
+    void nextNumber_shouldLeaseOneBlockPerBlockSize() {
+        BlockTicketNumberAllocator allocator = allocator(5, true);
+
+        for (int i = 1; i <= 12; i++) {
+            assertThat(allocator.nextNumber(QueueType.CAJA, BRANCH, TODAY)).isEqualTo(String.format("C%03d", i));
+        }
+
+        // 3 bloques de 5: una reserva en BD por bloque
+        verify(leaser, times(3)).lease(BRANCH, "C", TODAY, 5);
+        assertThat(sequences.get(keyOf(BRANCH, "C", TODAY))).isEqualTo(16L);
+    }
+
+    @Test
+    void nextNumber_afterRestart_shouldContinueFromNextLeasedBlock() {
+        sequences.put(keyOf(BRANCH, "P", TODAY), 41L);
+
+        String number = allocator(20, true).nextNumber(QueueType.PERSONAL_BANKER, BRANCH, TODAY);
+
+        assertThat(number).isEqualTo("P041");
+    }
+
+    @Test
+    void nextNumber_onNewBusinessDay_shouldRestartNumbering() {
+        BlockTicketNumberAllocator allocator = allocator(10, true);
+
+        allocator.nextNumber(QueueType.CAJA, BRANCH, TODAY);
+        allocator.nextNumber(QueueType.CAJA, BRANCH, TODAY);
+
+        assertThat(allocator.nextNumber(QueueType.CAJA, BRANCH, TODAY.plusDays(1))).isEqualTo("C001");
+    }
+
+    @Test
+    void nextNumber_withoutDailyReset_shouldShareSequenceAcrossDays() {
+        BlockTicketNumberAllocator allocator = allocator(10, false);
+
+        allocator.nextNumber(QueueType.EMPRESAS, BRANCH, TODAY);
+
+        assertThat(allocator.nextNumber(QueueType.EMPRESAS, BRANCH, TODAY.plusDays(1))).isEqualTo("E002");
+    }
+
+    private BlockTicketNumberAllocator allocator(int blockSize, boolean dailyReset) {
+        return new BlockTicketNumberAllocator(leaser, blockSize, dailyReset);
+    }
+
+    private String keyOf(String branch, String prefix, LocalDate date) {
+        return branch + "|" + prefix + "|" + date;
+    }
+}
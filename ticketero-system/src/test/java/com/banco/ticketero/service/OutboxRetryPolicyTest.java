@@ -0,0 +1,46 @@
+package com.banco.ticketero.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("OutboxRetryPolicy - Unit Tests")
+class OutboxRetryPolicyTest {
+
+    private final OutboxRetryPolicy policy = new OutboxRetryPolicy(
+        Duration.ofSeconds(5), Duration.ofMinutes(10), 2.0, 5, Map.of("TU_TURNO", 8));
+
+    @Test
+    @DisplayName("backoff - crece exponencialmente hasta el máximo")
+    void backoff_shouldGrowExponentiallyUpToMax() {
+        assertThat(policy.backoff(1)).isEqualTo(Duration.ofSeconds(5));
+        assertThat(policy.backoff(2)).isEqualTo(Duration.ofSeconds(10));
+        assertThat(policy.backoff(4)).isEqualTo(Duration.ofSeconds(40));
+        assertThat(policy.backoff(20)).isEqualTo(Duration.ofMinutes(10));
+    }
+
+    @Test
+    @DisplayName("nextAttemptAt - queda entre la mitad y el total del backoff")
+    void nextAttemptAt_shouldApplyJitterWithinHalfBackoff() {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+        for (int i = 0; i < 200; i++) {
+            LocalDateTime next = policy.nextAttemptAt(3, now);
+            assertThat(next).isBetween(now.plusSeconds(10), now.plusSeconds(20));
+        }
+    }
+
+    @Test
+    @DisplayName("isExhausted - respeta el máximo por plantilla y el valor por defecto")
+    void isExhausted_shouldUsePerPlantillaLimit() {
+        assertThat(policy.isExhausted("CONFIRMACION", 4)).isFalse();
+        assertThat(policy.isExhausted("CONFIRMACION", 5)).isTrue();
+        assertThat(policy.isExhausted("TU_TURNO", 5)).isFalse();
+        assertThat(policy.isExhausted("TU_TURNO", 8)).isTrue();
+    }
+}
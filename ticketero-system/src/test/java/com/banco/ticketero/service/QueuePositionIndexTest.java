@@ -0,0 +1,82 @@
+package com.banco.ticketero.service;
+
+import com.banco.ticketero.model.QueueType;
+import com.banco.ticketero.model.TicketStatus;
+import com.banco.ticketero.model.event.TicketStatusChangedEvent;
+import com.banco.ticketero.repository.TicketRepository;
+import com.banco.ticketero.repository.TicketRepository.QueueEntryView;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("QueuePositionIndex Unit Tests")
+class QueuePositionIndexTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 10, 17, 9, 0);
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Test
+    void refreshQueue_shouldReloadOnlyThatQueue() {
+        UUID localCaja = UUID.randomUUID();
+        UUID localPersonal = UUID.randomUUID();
+        UUID remoteCaja = UUID.randomUUID();
+        when(ticketRepository.findByStatusInOrderByCreatedAtAsc(any())).thenReturn(List.of());
+        QueuePositionIndex index = new QueuePositionIndex(ticketRepository);
+        index.rebuild();
+        index.onTicketStatusChanged(created(localCaja, QueueType.CAJA, BASE.plusMinutes(5)));
+        index.onTicketStatusChanged(created(localPersonal, QueueType.PERSONAL_BANKER, BASE));
+
+        // Otro nodo creó un ticket de caja anterior al local
+        when(ticketRepository.findByQueueTypeAndStatusInOrderByCreatedAtAsc(eq(QueueType.CAJA), any()))
+            .thenReturn(List.of(
+                view(remoteCaja, QueueType.CAJA, BASE),
+                view(localCaja, QueueType.CAJA, BASE.plusMinutes(5))));
+
+        index.refreshQueue(QueueType.CAJA);
+
+        assertThat(index.waitingCount(QueueType.CAJA)).isEqualTo(2);
+        assertThat(index.findPosition(remoteCaja)).get().extracting(QueuePositionIndex.QueuePosition::position).isEqualTo(1);
+        assertThat(index.findPosition(localCaja)).get().extracting(QueuePositionIndex.QueuePosition::position).isEqualTo(2);
+        assertThat(index.countAhead(QueueType.CAJA, BASE.plusMinutes(5))).isEqualTo(1);
+        assertThat(index.findPosition(localPersonal)).get().extracting(QueuePositionIndex.QueuePosition::position).isEqualTo(1);
+    }
+
+    @Test
+    void refreshQueue_beforeInitialRebuild_shouldBeSkipped() {
+        QueuePositionIndex index = new QueuePositionIndex(ticketRepository);
+
+        index.refreshQueue(QueueType.CAJA);
+
+        verifyNoMoreInteractions(ticketRepository);
+    }
+
+    private TicketStatusChangedEvent created(UUID id, QueueType queueType, LocalDateTime createdAt) {
+        return new TicketStatusChangedEvent(id, queueType.getPrefijo() + "001", queueType, createdAt,
+            createdAt.plusMinutes(queueType.getVigenciaMinutos()), null, TicketStatus.EN_ESPERA, createdAt);
+    }
+
+    private QueueEntryView view(UUID id, QueueType queueType, LocalDateTime createdAt) {
+        return new QueueEntryView() {
+            public UUID getCodigoReferencia() { return id; }
+            public String getNumero() { return queueType.getPrefijo() + "001"; }
+            public QueueType getQueueType() { return queueType; }
+            public TicketStatus getStatus() { return TicketStatus.EN_ESPERA; }
+            public LocalDateTime getCreatedAt() { return createdAt; }
+        };
+    }
+}
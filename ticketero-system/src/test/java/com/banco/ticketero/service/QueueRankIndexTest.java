@@ -0,0 +1,106 @@
+package com.banco.ticketero.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("QueueRankIndex - Unit Tests")
+class QueueRankIndexTest {
+
+    @Test
+    void positionOf_shouldFollowCreationOrder() {
+        QueueRankIndex index = new QueueRankIndex();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+
+        index.add(first, 10);
+        index.add(second, 20);
+        index.add(third, 30);
+
+        assertThat(index.positionOf(first)).isEqualTo(1);
+        assertThat(index.positionOf(second)).isEqualTo(2);
+        assertThat(index.positionOf(third)).isEqualTo(3);
+    }
+
+    @Test
+    void remove_shouldMoveFollowingTicketsUp() {
+        QueueRankIndex index = new QueueRankIndex();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        index.add(first, 10);
+        index.add(second, 20);
+
+        assertThat(index.remove(first)).isTrue();
+
+        assertThat(index.positionOf(first)).isEqualTo(-1);
+        assertThat(index.positionOf(second)).isEqualTo(1);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void countBefore_shouldMatchStrictlyEarlierTickets() {
+        QueueRankIndex index = new QueueRankIndex();
+        index.add(UUID.randomUUID(), 10);
+        index.add(UUID.randomUUID(), 20);
+        index.add(UUID.randomUUID(), 20);
+
+        assertThat(index.countBefore(5)).isZero();
+        assertThat(index.countBefore(20)).isEqualTo(1);
+        assertThat(index.countBefore(21)).isEqualTo(3);
+    }
+
+    @Test
+    void add_outOfOrder_shouldKeepSortedPositions() {
+        QueueRankIndex index = new QueueRankIndex();
+        UUID late = UUID.randomUUID();
+        UUID early = UUID.randomUUID();
+        index.add(late, 50);
+        index.add(early, 10);
+
+        assertThat(index.positionOf(early)).isEqualTo(1);
+        assertThat(index.positionOf(late)).isEqualTo(2);
+    }
+
+    @Test
+    void randomOperations_shouldMatchBruteForceCount() {
+        QueueRankIndex index = new QueueRankIndex();
+        TreeMap<Long, UUID> expected = new TreeMap<>();
+        List<UUID> live = new ArrayList<>();
+        Random random = new Random(42);
+        long clock = 0;
+
+        for (int i = 0; i < 20_000; i++) {
+            if (live.isEmpty() || random.nextInt(10) < 6) {
+                // Mayormente en orden, con algunos tickets que llegan "tarde"
+                long key = random.nextInt(50) == 0 ? clock - random.nextInt(1_000) * 7L - 1 : (clock += 7);
+                if (expected.containsKey(key)) {
+                    continue;
+                }
+                UUID id = UUID.randomUUID();
+                index.add(id, key);
+                expected.put(key, id);
+                live.add(id);
+            } else {
+                UUID id = live.remove(random.nextInt(live.size()));
+                index.remove(id);
+                expected.values().remove(id);
+            }
+
+            if (i % 500 == 0 && !expected.isEmpty()) {
+                int rank = 1;
+                for (var entry : expected.entrySet()) {
+                    assertThat(index.positionOf(entry.getValue())).isEqualTo(rank++);
+                }
+            }
+        }
+        assertThat(index.size()).isEqualTo(expected.size());
+    }
+}
@@ -0,0 +1,86 @@
+package com.banco.ticketero.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RateBucket - Unit Tests")
+class RateBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void reserve_shouldAllowBurstThenPace() {
+        long now = 1_000 * SECOND;
+        RateBucket bucket = new RateBucket(SECOND / 30, 30, now);
+
+        for (int i = 0; i < 30; i++) {
+            assertThat(bucket.reserve(now)).isZero();
+        }
+        assertThat(bucket.reserve(now)).isEqualTo(SECOND / 30);
+        assertThat(bucket.reserve(now)).isEqualTo(2 * (SECOND / 30));
+    }
+
+    @Test
+    void reserve_perChat_shouldSpaceMessagesOneInterval() {
+        long now = 1_000 * SECOND;
+        RateBucket bucket = new RateBucket(SECOND, 1, now);
+
+        assertThat(bucket.reserve(now)).isZero();
+        assertThat(bucket.reserve(now)).isEqualTo(SECOND);
+        assertThat(bucket.reserve(now + 5 * SECOND)).isZero();
+    }
+
+    @Test
+    void pauseUntil_shouldDelayNextReservation() {
+        long now = 1_000 * SECOND;
+        RateBucket bucket = new RateBucket(SECOND, 1, now);
+
+        bucket.pauseUntil(now + 7 * SECOND);
+
+        assertThat(bucket.reserve(now)).isEqualTo(7 * SECOND);
+        assertThat(bucket.isIdle(now + 7 * SECOND)).isFalse();
+        assertThat(bucket.isIdle(now + 8 * SECOND)).isTrue();
+    }
+
+    @Test
+    void reserve_concurrent_shouldHandOutDistinctSlots() throws Exception {
+        long now = 1_000 * SECOND;
+        long interval = SECOND / 30;
+        RateBucket bucket = new RateBucket(interval, 1, now);
+        int threads = 8;
+        int perThread = 500;
+        List<Long> waits = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < perThread; i++) {
+                    waits.add(bucket.reserve(now));
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        // Cada reserva obtiene un turno distinto: 0, 1, 2... intervalos
+        assertThat(waits).doesNotHaveDuplicates().hasSize(threads * perThread);
+        assertThat(Collections.max(waits)).isEqualTo((threads * perThread - 1) * interval);
+    }
+}
@@ -0,0 +1,110 @@
+package com.banco.ticketero.service;
+
+import com.banco.ticketero.config.SchedulingConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@DisplayName("ScheduledJobMonitor - Unit Tests")
+class ScheduledJobMonitorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ScheduledJobMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        monitor = new ScheduledJobMonitor(meterRegistry, 3);
+    }
+
+    @Test
+    void monitor_jobLongerThanItsInterval_shouldCountOverrun() {
+        Runnable job = monitor.monitor("slow", "queue", Duration.ofMillis(20), Duration.ZERO, () -> sleep(60));
+
+        job.run();
+        job.run();
+
+        assertThat(meterRegistry.get("ticketero.scheduler.job.duration").tag("job", "slow").timer().count())
+            .isEqualTo(2);
+        assertThat(meterRegistry.get("ticketero.scheduler.job.overrun").tag("job", "slow").counter().count())
+            .isEqualTo(2);
+    }
+
+    @Test
+    void monitor_lateStart_shouldRecordLagAndSkippedIntervals() {
+        Runnable job = monitor.monitor("late", "maintenance", Duration.ofMillis(50), Duration.ZERO, () -> { });
+
+        job.run();
+        sleep(180);
+        job.run();
+
+        assertThat(meterRegistry.get("ticketero.scheduler.job.lag").tag("job", "late").timer()
+            .max(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(100);
+        assertThat(meterRegistry.get("ticketero.scheduler.job.skipped").tag("job", "late").counter().count())
+            .isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void health_jobRunningForManyIntervals_shouldBeDown() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable job = monitor.monitor("stuck", "telegram", Duration.ofMillis(10), Duration.ZERO, () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Thread runner = Thread.ofVirtual().start(job);
+
+        // stall-factor 3 sobre el mínimo de 1s por intervalo
+        await().atMost(Duration.ofSeconds(5)).until(() -> monitor.health().getStatus().equals(Status.DOWN));
+        Health health = monitor.health();
+        assertThat(((Map<?, ?>) health.getDetails().get("stuck")).get("running")).isEqualTo(true);
+
+        release.countDown();
+        runner.join();
+        assertThat(monitor.health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    @Test
+    void schedulers_slowTelegramJob_shouldNotDelayQueueJobs() {
+        SchedulingConfig config = new SchedulingConfig();
+        ThreadPoolTaskScheduler telegram = config.telegramScheduler(monitor, 1);
+        ThreadPoolTaskScheduler queue = config.queueScheduler(monitor, 1);
+        telegram.initialize();
+        queue.initialize();
+        try {
+            AtomicInteger queueRuns = new AtomicInteger();
+            telegram.scheduleWithFixedDelay(() -> sleep(2_000), Duration.ofMillis(10));
+            queue.scheduleWithFixedDelay(queueRuns::incrementAndGet, Duration.ofMillis(10));
+
+            await().atMost(Duration.ofSeconds(1)).until(() -> queueRuns.get() >= 10);
+            assertThat(meterRegistry.find("ticketero.scheduler.job.duration").tag("family", "queue").timer())
+                .isNotNull();
+        } finally {
+            telegram.shutdown();
+            queue.shutdown();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.banco.ticketero.service;
 
 import com.banco.ticketero.model.QueueType;
 import com.banco.ticketero.model.TicketStatus;
+import com.banco.ticketero.model.dto.response.ChatTicketResponse;
 import com.banco.ticketero.model.dto.response.TicketResponse;
 import com.banco.ticketero.model.entity.Advisor;
 import com.banco.ticketero.model.entity.OutboxMessage;
@@ -65,6 +66,22 @@ class SimpleTicketTest {
         assertThat(hasAlerta).isTrue();
     }
 
+    @Test
+    @DisplayName("Should list only the chat's active tickets by normalized chat_id")
+    void shouldFindActiveTicketsByChatId() {
+        TicketResponse first = ticketService.createFromTelegram(TEST_NATIONAL_ID, TEST_CHAT_ID, QueueType.CAJA);
+        TicketResponse second = ticketService.createFromTelegram(TEST_NATIONAL_ID, TEST_CHAT_ID, QueueType.EMPRESAS);
+        ticketService.createFromTelegram("87654321", "987654321", QueueType.CAJA);
+
+        List<ChatTicketResponse> tickets = ticketService.findActiveByChatId(TEST_CHAT_ID);
+
+        assertThat(tickets).extracting(ChatTicketResponse::numero).containsExactly(first.numero(), second.numero());
+        assertThat(tickets).allSatisfy(ticket -> {
+            assertThat(ticket.status()).isEqualTo(TicketStatus.EN_ESPERA);
+            assertThat(ticket.positionInQueue()).isPositive();
+        });
+    }
+
     @Test
     @DisplayName("Should create and persist advisor successfully")
     void shouldCreateAdvisor() {
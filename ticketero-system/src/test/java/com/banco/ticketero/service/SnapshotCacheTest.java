@@ -0,0 +1,84 @@
+package com.banco.ticketero.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("SnapshotCache - Unit Tests")
+class SnapshotCacheTest {
+
+    private final SnapshotCache<Integer> cache = new SnapshotCache<>();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void get_concurrentCallersOnExpiredSnapshot_shouldShareOneLoad() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(callers.submit(() -> cache.get(Duration.ofSeconds(30), () -> {
+                    await(release);
+                    return loads.incrementAndGet();
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<Integer> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+            }
+            assertThat(loads).hasValue(1);
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void get_afterTtl_shouldReload() throws InterruptedException {
+        Duration ttl = Duration.ofMillis(50);
+
+        assertThat(cache.get(ttl, loads::incrementAndGet)).isEqualTo(1);
+        assertThat(cache.get(ttl, loads::incrementAndGet)).isEqualTo(1);
+        Thread.sleep(80);
+
+        assertThat(cache.get(ttl, loads::incrementAndGet)).isEqualTo(2);
+    }
+
+    @Test
+    void get_zeroTtl_shouldAlwaysLoad() {
+        cache.get(Duration.ZERO, loads::incrementAndGet);
+        cache.get(Duration.ZERO, loads::incrementAndGet);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void get_failedLoad_shouldPropagateAndRetryNextCall() {
+        assertThatThrownBy(() -> cache.get(Duration.ofSeconds(30), () -> {
+            throw new IllegalStateException("db down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.get(Duration.ofSeconds(30), loads::incrementAndGet)).isEqualTo(1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
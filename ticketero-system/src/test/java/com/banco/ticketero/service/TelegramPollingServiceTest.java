@@ -0,0 +1,120 @@
+package com.banco.ticketero.service;
+
+import com.banco.ticketero.model.dto.telegram.TelegramMessage;
+import com.banco.ticketero.model.dto.telegram.TelegramUpdate;
+import com.banco.ticketero.model.entity.TelegramPollOffset;
+import com.banco.ticketero.repository.TelegramPollOffsetRepository;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("TelegramPollingService - Unit Tests")
+class TelegramPollingServiceTest {
+
+    private static final String UPDATES_BODY = """
+        {"ok":true,"result":[
+          {"update_id":41,"message":{"text":"/start","chat":{"id":123}}},
+          {"update_id":42,"message":{"text":"/ayuda","chat":{"id":123}}}
+        ]}""";
+
+    private WireMockServer wireMockServer;
+    private TelegramBotService telegramBotService;
+    private TelegramPollOffsetRepository offsetRepository;
+    private TelegramPollingService pollingService;
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer = new WireMockServer(options().dynamicPort());
+        wireMockServer.start();
+        telegramBotService = mock(TelegramBotService.class);
+        offsetRepository = mock(TelegramPollOffsetRepository.class);
+        when(offsetRepository.findById("test_bot")).thenReturn(Optional.of(
+            TelegramPollOffset.builder().botKey("test_bot").lastUpdateId(40L).build()));
+        pollingService = new TelegramPollingService(
+            telegramBotService,
+            new RestTemplate(),
+            offsetRepository,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            "test-token",
+            "http://localhost:" + wireMockServer.port(),
+            "test_bot",
+            true,
+            Duration.ofSeconds(1),
+            Duration.ofMillis(50),
+            Duration.ofSeconds(5)
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        pollingService.stop();
+        wireMockServer.stop();
+    }
+
+    @Test
+    void start_shouldResumeFromPersistedOffsetAndCommitEachBatch() {
+        wireMockServer.stubFor(get(urlPathEqualTo("/bottest-token/getUpdates"))
+            .withQueryParam("offset", equalTo("41"))
+            .willReturn(aResponse().withStatus(200)
+                .withHeader("Content-Type", "application/json")
+                .withBody(UPDATES_BODY)));
+        wireMockServer.stubFor(get(urlPathEqualTo("/bottest-token/getUpdates"))
+            .withQueryParam("offset", equalTo("43"))
+            .willReturn(aResponse().withStatus(200)
+                .withHeader("Content-Type", "application/json")
+                .withFixedDelay(200)
+                .withBody("{\"ok\":true,\"result\":[]}")));
+
+        pollingService.start();
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+            wireMockServer.verify(getRequestedFor(urlPathEqualTo("/bottest-token/getUpdates"))
+                .withQueryParam("offset", equalTo("43"))
+                .withQueryParam("timeout", equalTo("1"))));
+        verify(telegramBotService, times(2)).processUpdate(any(TelegramUpdate.class));
+        ArgumentCaptor<TelegramPollOffset> saved = ArgumentCaptor.forClass(TelegramPollOffset.class);
+        verify(offsetRepository).save(saved.capture());
+        assertThat(saved.getValue().getBotKey()).isEqualTo("test_bot");
+        assertThat(saved.getValue().getLastUpdateId()).isEqualTo(42L);
+    }
+
+    @Test
+    void pollUpdates_failingUpdate_shouldNotBlockTheOffset() {
+        wireMockServer.stubFor(get(urlPathEqualTo("/bottest-token/getUpdates"))
+            .willReturn(aResponse().withStatus(200)
+                .withHeader("Content-Type", "application/json")
+                .withBody(UPDATES_BODY)));
+        doThrow(new IllegalStateException("boom")).when(telegramBotService).processUpdate(
+            new TelegramUpdate(41, new TelegramMessage(123L, "/start")));
+
+        int processed = pollingService.pollUpdates();
+
+        assertThat(processed).isEqualTo(2);
+        assertThat(pollingService.getLastUpdateId()).isEqualTo(42L);
+        verify(offsetRepository).save(any(TelegramPollOffset.class));
+    }
+}
@@ -0,0 +1,133 @@
+package com.banco.ticketero.service;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("TelegramSender - Unit Tests")
+class TelegramSenderTest {
+
+    private static final String OK_BODY = "{\"ok\":true,\"result\":{\"message_id\":1}}";
+    private static final String TOO_MANY_REQUESTS_BODY =
+        "{\"ok\":false,\"error_code\":429,\"description\":\"Too Many Requests: retry after %d\",\"parameters\":{\"retry_after\":%d}}";
+
+    private WireMockServer wireMockServer;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer = new WireMockServer(options().dynamicPort());
+        wireMockServer.start();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        wireMockServer.stop();
+    }
+
+    @Test
+    void send_sameChat_shouldBePacedByPerChatInterval() {
+        stubOk();
+        TelegramSender sender = sender(Duration.ofMillis(300));
+
+        long start = System.nanoTime();
+        sender.send("123", "uno");
+        sender.send("123", "dos");
+        sender.send("123", "tres");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(elapsedMillis).isGreaterThanOrEqualTo(600);
+        assertThat(meterRegistry.get("ticketero.telegram.throttle.wait").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void send_chatWaitingForItsTurn_shouldNotHoldSendPermit() throws InterruptedException {
+        stubOk();
+        TelegramSender sender = sender(Duration.ofMillis(500));
+        Semaphore permits = new Semaphore(1);
+        sender.send("123", "uno", permits);
+        Thread throttled = Thread.ofVirtual().start(() -> sender.send("123", "dos", permits));
+        Thread.sleep(50);
+
+        long start = System.nanoTime();
+        sender.send("456", "hola", permits);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        throttled.join();
+
+        assertThat(elapsedMillis).isLessThan(300);
+        assertThat(permits.availablePermits()).isEqualTo(1);
+        wireMockServer.verify(3, postRequestedFor(urlPathMatching("/bot.*/sendMessage")));
+    }
+
+    @Test
+    void send_tooManyRequestsWithShortRetryAfter_shouldWaitAndRetry() {
+        wireMockServer.stubFor(post(urlPathMatching("/bot.*/sendMessage"))
+            .inScenario("429").whenScenarioStateIs(STARTED)
+            .willReturn(aResponse().withStatus(429)
+                .withHeader("Content-Type", "application/json")
+                .withBody(TOO_MANY_REQUESTS_BODY.formatted(1, 1)))
+            .willSetStateTo("recovered"));
+        wireMockServer.stubFor(post(urlPathMatching("/bot.*/sendMessage"))
+            .inScenario("429").whenScenarioStateIs("recovered")
+            .willReturn(aResponse().withStatus(200).withBody(OK_BODY)));
+        TelegramSender sender = sender(Duration.ofMillis(10));
+
+        long start = System.nanoTime();
+        sender.send("123", "hola");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(elapsedMillis).isGreaterThanOrEqualTo(1000);
+        wireMockServer.verify(2, postRequestedFor(urlPathMatching("/bot.*/sendMessage")));
+        assertThat(meterRegistry.get("ticketero.telegram.rate.limited").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void send_tooManyRequestsWithLongRetryAfter_shouldThrowRateLimited() {
+        wireMockServer.stubFor(post(urlPathMatching("/bot.*/sendMessage"))
+            .willReturn(aResponse().withStatus(429)
+                .withHeader("Content-Type", "application/json")
+                .withBody(TOO_MANY_REQUESTS_BODY.formatted(30, 30))));
+        TelegramSender sender = sender(Duration.ofMillis(10));
+
+        assertThatThrownBy(() -> sender.send("123", "hola"))
+            .isInstanceOfSatisfying(TelegramSender.RateLimitedException.class,
+                e -> assertThat(e.getRetryAfter()).isEqualTo(Duration.ofSeconds(30)));
+        wireMockServer.verify(1, postRequestedFor(urlPathMatching("/bot.*/sendMessage")));
+    }
+
+    private void stubOk() {
+        wireMockServer.stubFor(post(urlPathMatching("/bot.*/sendMessage"))
+            .willReturn(aResponse().withStatus(200)
+                .withHeader("Content-Type", "application/json")
+                .withBody(OK_BODY)));
+    }
+
+    private TelegramSender sender(Duration perChatInterval) {
+        return new TelegramSender(
+            new RestTemplate(),
+            meterRegistry,
+            "http://localhost:" + wireMockServer.port(),
+            "test-token",
+            30,
+            perChatInterval,
+            Duration.ofSeconds(5)
+        );
+    }
+}
@@ -0,0 +1,159 @@
+package com.banco.ticketero.service;
+
+import com.banco.ticketero.model.entity.OutboxMessage;
+import com.banco.ticketero.repository.OutboxMessageRepository;
+import com.banco.ticketero.repository.TicketRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentCaptor.forClass;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("TelegramService - Unit Tests")
+class TelegramServiceTest {
+
+    private OutboxMessageRepository outboxMessageRepository;
+    private TelegramSender telegramSender;
+    private TelegramService telegramService;
+
+    @BeforeEach
+    void setUp() {
+        outboxMessageRepository = mock(OutboxMessageRepository.class);
+        telegramSender = mock(TelegramSender.class);
+        telegramService = new TelegramService(
+            outboxMessageRepository,
+            mock(TicketRepository.class),
+            telegramSender,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            new OutboxRetryPolicy(Duration.ofSeconds(5), Duration.ofMinutes(10), 2.0, 3, Map.of()),
+            100,
+            4,
+            Duration.ofSeconds(60),
+            Duration.ofSeconds(30)
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        telegramService.shutdown();
+    }
+
+    @Test
+    @DisplayName("processPendingMessages - un fallo con intentos disponibles se reprograma con backoff")
+    void processPendingMessages_failureWithAttemptsLeft_shouldScheduleRetry() {
+        OutboxMessage message = message(1L, 1);
+        when(outboxMessageRepository.claimDueAfter(any(), any(), any(), any())).thenReturn(List.of(message)).thenReturn(List.of());
+        doThrow(new IllegalStateException("Telegram down")).when(telegramSender).send(anyString(), anyString(), any());
+
+        LocalDateTime before = LocalDateTime.now();
+        telegramService.processPendingMessages();
+
+        var earliest = forClass(LocalDateTime.class);
+        verify(outboxMessageRepository).scheduleRetry(eq(List.of(1L)), earliest.capture(), eq(5000L));
+        // Segundo fallo: backoff de 10 s, la BD sortea el jitter entre 5 y 10 s
+        assertThat(earliest.getValue()).isAfterOrEqualTo(before.plusSeconds(5));
+        verify(outboxMessageRepository, never()).markFailed(any());
+    }
+
+    @Test
+    @DisplayName("processPendingMessages - el último intento fallido marca el mensaje como FAILED")
+    void processPendingMessages_lastAttemptFails_shouldMarkFailed() {
+        OutboxMessage message = message(2L, 2);
+        when(outboxMessageRepository.claimDueAfter(any(), any(), any(), any())).thenReturn(List.of(message)).thenReturn(List.of());
+        doThrow(new IllegalStateException("Telegram down")).when(telegramSender).send(anyString(), anyString(), any());
+
+        telegramService.processPendingMessages();
+
+        verify(outboxMessageRepository).markFailed(List.of(2L));
+        verify(outboxMessageRepository, never()).scheduleRetry(any(), any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("processPendingMessages - un 429 aplaza el mensaje sin contar intento")
+    void processPendingMessages_rateLimited_shouldDeferWithoutAttempt() {
+        OutboxMessage message = message(3L, 0);
+        when(outboxMessageRepository.claimDueAfter(any(), any(), any(), any())).thenReturn(List.of(message)).thenReturn(List.of());
+        doThrow(new TelegramSender.RateLimitedException(Duration.ofSeconds(30), null))
+            .when(telegramSender).send(anyString(), anyString(), any());
+
+        telegramService.processPendingMessages();
+
+        verify(outboxMessageRepository).defer(eq(List.of(3L)), any());
+        verify(outboxMessageRepository, never()).scheduleRetry(any(), any(), anyLong());
+        verify(outboxMessageRepository, never()).markFailed(any());
+    }
+
+    @Test
+    @DisplayName("processPendingMessages - varios fallos del mismo intento se reprograman en un solo UPDATE")
+    void processPendingMessages_severalFailures_shouldScheduleRetriesInOneStatement() {
+        OutboxMessage first = message(4L, 1, "111");
+        OutboxMessage second = message(5L, 1, "222");
+        when(outboxMessageRepository.claimDueAfter(any(), any(), any(), any()))
+            .thenReturn(List.of(first, second)).thenReturn(List.of());
+        doThrow(new IllegalStateException("Telegram down")).when(telegramSender).send(anyString(), anyString(), any());
+
+        telegramService.processPendingMessages();
+
+        var ids = forClass(Collection.class);
+        verify(outboxMessageRepository).scheduleRetry(ids.capture(), any(), eq(5000L));
+        assertThat(ids.getValue()).containsExactlyInAnyOrder(4L, 5L);
+    }
+
+    @Test
+    @DisplayName("processPendingMessages - tras un fallo, los siguientes mensajes del chat se aplazan detrás")
+    void processPendingMessages_failureInChat_shouldHoldLaterMessagesOfThatChat() {
+        OutboxMessage confirmacion = message(6L, 0, "123456");
+        OutboxMessage alerta = message(7L, 0, "123456");
+        when(outboxMessageRepository.claimDueAfter(any(), any(), any(), any()))
+            .thenReturn(List.of(confirmacion, alerta)).thenReturn(List.of());
+        doThrow(new IllegalStateException("Telegram down")).when(telegramSender).send(anyString(), anyString(), any());
+
+        LocalDateTime before = LocalDateTime.now();
+        telegramService.processPendingMessages();
+
+        // Un solo intento de envío: el ALERTA no se adelanta a la CONFIRMACION
+        verify(telegramSender).send(anyString(), anyString(), any());
+        verify(outboxMessageRepository).scheduleRetry(eq(List.of(6L)), any(), anyLong());
+        var heldUntil = forClass(LocalDateTime.class);
+        verify(outboxMessageRepository).defer(eq(List.of(7L)), heldUntil.capture());
+        // Primer fallo: ventana de 2.5 a 5 s; el siguiente vuelve al final de ella
+        assertThat(heldUntil.getValue()).isAfterOrEqualTo(before.plusSeconds(5));
+    }
+
+    private OutboxMessage message(Long id, int intentos) {
+        return message(id, intentos, "123456");
+    }
+
+    private OutboxMessage message(Long id, int intentos, String chatId) {
+        return OutboxMessage.builder()
+            .id(id)
+            .ticketId(UUID.randomUUID())
+            .plantilla("CONFIRMACION")
+            .estadoEnvio(OutboxMessage.MessageStatus.PENDING)
+            .chatId(chatId)
+            .intentos(intentos)
+            .fechaProgramada(LocalDateTime.now())
+            .nextAttemptAt(LocalDateTime.now())
+            .build();
+    }
+}
@@ -0,0 +1,185 @@
+package com.banco.ticketero.service;
+
+import com.banco.ticketero.model.dto.telegram.TelegramMessage;
+import com.banco.ticketero.model.dto.telegram.TelegramUpdate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("TelegramUpdateDispatcher - Unit Tests")
+class TelegramUpdateDispatcherTest {
+
+    private final TelegramBotService telegramBotService = mock(TelegramBotService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TelegramUpdateDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void submit_sameChat_shouldProcessInArrivalOrder() {
+        List<Long> processed = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            TelegramUpdate update = invocation.getArgument(0);
+            Thread.sleep(5);
+            processed.add(update.updateId());
+            return null;
+        }).when(telegramBotService).processUpdate(any(TelegramUpdate.class));
+        dispatcher = new TelegramUpdateDispatcher(telegramBotService, meterRegistry, 8, 1000, Duration.ofSeconds(5));
+
+        for (int i = 1; i <= 20; i++) {
+            assertThat(dispatcher.submit(update(i, 123))).isTrue();
+        }
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> processed.size() == 20);
+        assertThat(processed).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L, 12L, 13L, 14L, 15L, 16L, 17L, 18L, 19L, 20L);
+        assertThat(meterRegistry.get("ticketero.telegram.webhook.processing").timer().count()).isEqualTo(20);
+        assertThat(meterRegistry.get("ticketero.telegram.webhook.queue").gauge().value()).isZero();
+    }
+
+    @Test
+    void submit_slowChat_shouldNotBlockOtherChats() throws InterruptedException {
+        CountDownLatch slowChatRelease = new CountDownLatch(1);
+        CountDownLatch otherChatDone = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            TelegramUpdate update = invocation.getArgument(0);
+            if (update.updateId() == 1) {
+                slowChatRelease.await();
+            } else {
+                otherChatDone.countDown();
+            }
+            return null;
+        }).when(telegramBotService).processUpdate(any(TelegramUpdate.class));
+        dispatcher = new TelegramUpdateDispatcher(telegramBotService, meterRegistry, 8, 1000, Duration.ofSeconds(5));
+        TelegramUpdate slow = update(1, 111);
+        TelegramUpdate other = update(2, 222);
+        assertThat(dispatcher.stripeOf(slow)).isNotEqualTo(dispatcher.stripeOf(other));
+
+        dispatcher.submit(slow);
+        dispatcher.submit(other);
+
+        assertThat(otherChatDone.await(2, TimeUnit.SECONDS)).isTrue();
+        slowChatRelease.countDown();
+    }
+
+    @Test
+    void submit_fullStripe_shouldRejectSoTelegramRetries() {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await();
+            return null;
+        }).when(telegramBotService).processUpdate(any(TelegramUpdate.class));
+        // Una franja con capacidad para 2 en cola además del que se procesa
+        dispatcher = new TelegramUpdateDispatcher(telegramBotService, meterRegistry, 1, 2, Duration.ofSeconds(5));
+
+        assertThat(dispatcher.submit(update(1, 123))).isTrue();
+        await().atMost(Duration.ofSeconds(2)).until(() ->
+            meterRegistry.get("ticketero.telegram.webhook.lag").timer().count() == 1);
+        assertThat(dispatcher.submit(update(2, 123))).isTrue();
+        assertThat(dispatcher.submit(update(3, 123))).isTrue();
+        assertThat(dispatcher.submit(update(4, 123))).isFalse();
+
+        assertThat(meterRegistry.get("ticketero.telegram.webhook.rejected").counter().count()).isEqualTo(1);
+        release.countDown();
+    }
+
+    @Test
+    void submit_withReply_shouldReturnFirstMessageInline() {
+        doAnswer(invocation -> {
+            WebhookReply reply = invocation.getArgument(1);
+            assertThat(reply.offer("123", "Hola")).isTrue();
+            // La segunda respuesta ya no cabe en el cuerpo del webhook
+            assertThat(reply.offer("123", "Otra")).isFalse();
+            return null;
+        }).when(telegramBotService).processUpdate(any(TelegramUpdate.class), any(WebhookReply.class));
+        dispatcher = new TelegramUpdateDispatcher(telegramBotService, meterRegistry, 4, 100, Duration.ofSeconds(5));
+        WebhookReply reply = new WebhookReply();
+
+        assertThat(dispatcher.submit(update(1, 123), reply)).isTrue();
+
+        assertThat(reply.await(Duration.ofSeconds(2))).contains(
+            Map.of("method", "sendMessage", "chat_id", "123", "text", "Hola"));
+    }
+
+    @Test
+    void submit_withReply_noMessage_shouldReleaseWebhookImmediately() {
+        dispatcher = new TelegramUpdateDispatcher(telegramBotService, meterRegistry, 4, 100, Duration.ofSeconds(5));
+        WebhookReply reply = new WebhookReply();
+
+        dispatcher.submit(update(1, 123), reply);
+
+        long start = System.nanoTime();
+        assertThat(reply.await(Duration.ofSeconds(5))).isEmpty();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void submit_withReply_slowHandler_shouldFallBackToSender() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch offered = new CountDownLatch(1);
+        AtomicBoolean inline = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            WebhookReply reply = invocation.getArgument(1);
+            release.await();
+            inline.set(reply.offer("123", "Tarde"));
+            offered.countDown();
+            return null;
+        }).when(telegramBotService).processUpdate(any(TelegramUpdate.class), any(WebhookReply.class));
+        dispatcher = new TelegramUpdateDispatcher(telegramBotService, meterRegistry, 4, 100, Duration.ofSeconds(5));
+        WebhookReply reply = new WebhookReply();
+
+        dispatcher.submit(update(1, 123), reply);
+
+        assertThat(reply.await(Duration.ofMillis(100))).isEmpty();
+        release.countDown();
+        assertThat(offered.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(inline).isFalse();
+    }
+
+    @Test
+    void submit_withReply_busyStripe_shouldAcknowledgeWithoutWaiting() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch queuedProcessed = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await();
+            return null;
+        }).when(telegramBotService).processUpdate(any(TelegramUpdate.class), any(WebhookReply.class));
+        doAnswer(invocation -> {
+            queuedProcessed.countDown();
+            return null;
+        }).when(telegramBotService).processUpdate(any(TelegramUpdate.class));
+        dispatcher = new TelegramUpdateDispatcher(telegramBotService, meterRegistry, 1, 100, Duration.ofSeconds(5));
+        dispatcher.submit(update(1, 123), new WebhookReply());
+        WebhookReply reply = new WebhookReply();
+
+        assertThat(dispatcher.submit(update(2, 123), reply)).isTrue();
+
+        // Con un update por delante no se espera: la respuesta sale por el sender
+        long start = System.nanoTime();
+        assertThat(reply.await(Duration.ofSeconds(5))).isEmpty();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(500));
+        release.countDown();
+        assertThat(queuedProcessed.await(2, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static TelegramUpdate update(long updateId, long chatId) {
+        return new TelegramUpdate(updateId, new TelegramMessage(chatId, "/start"));
+    }
+}
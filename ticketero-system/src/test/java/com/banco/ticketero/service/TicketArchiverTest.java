@@ -0,0 +1,140 @@
+package com.banco.ticketero.service;
+
+import com.banco.ticketero.model.QueueType;
+import com.banco.ticketero.model.TicketStatus;
+import com.banco.ticketero.model.entity.Advisor;
+import com.banco.ticketero.model.entity.OutboxMessage;
+import com.banco.ticketero.model.entity.Ticket;
+import com.banco.ticketero.repository.AdvisorRepository;
+import com.banco.ticketero.repository.OutboxMessageRepository;
+import com.banco.ticketero.repository.TicketHistoryRepository;
+import com.banco.ticketero.repository.TicketRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "ticketero.ticket-archive.batch-size=2")
+@ActiveProfiles("test")
+@DisplayName("TicketArchiver - Tests")
+class TicketArchiverTest {
+
+    @Autowired
+    private TicketArchiver ticketArchiver;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private TicketHistoryRepository ticketHistoryRepository;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private AdvisorRepository advisorRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Jobs en segundo plano fuera de la prueba
+    @MockBean
+    private TelegramService telegramService;
+
+    @MockBean
+    private TelegramPollingService telegramPollingService;
+
+    @MockBean
+    private TicketProcessingScheduler ticketProcessingScheduler;
+
+    @MockBean
+    private TicketDispatcher ticketDispatcher;
+
+    @BeforeEach
+    void setUp() {
+        cleanDatabase();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanDatabase();
+    }
+
+    @Test
+    @DisplayName("archive - mueve terminales antiguos en lotes y deja la cola activa y los recientes")
+    void archive_shouldMoveOldTerminalTicketsOnly() {
+        Advisor advisor = advisorRepository.save(Advisor.builder()
+            .name("Ana Pérez")
+            .email("ana@banco.cl")
+            .status(Advisor.AdvisorStatus.AVAILABLE)
+            .moduleNumber(3)
+            .supportedQueues(Set.of(QueueType.CAJA))
+            .build());
+        Ticket completed = ticket("C001", TicketStatus.COMPLETADO, advisor);
+        Ticket cancelled = ticket("C002", TicketStatus.CANCELADO, null);
+        Ticket expired = ticket("C003", TicketStatus.VENCIDO, null);
+        Ticket waiting = ticket("C004", TicketStatus.EN_ESPERA, null);
+        Ticket withPendingMessage = ticket("C005", TicketStatus.COMPLETADO, null);
+        Ticket recentlyCompleted = ticket("C006", TicketStatus.COMPLETADO, null);
+        outboxMessageRepository.save(OutboxMessage.builder()
+            .ticketId(withPendingMessage.getCodigoReferencia())
+            .plantilla("TU_TURNO")
+            .estadoEnvio(OutboxMessage.MessageStatus.PENDING)
+            .chatId("123456")
+            .build());
+        jdbcTemplate.update("UPDATE ticket SET updated_at = ? WHERE numero <> 'C006'", LocalDateTime.now().minusHours(2));
+
+        ticketArchiver.archive();
+
+        assertThat(ticketRepository.findAll())
+            .extracting(Ticket::getNumero)
+            .containsExactlyInAnyOrder("C004", "C005", "C006");
+        assertThat(ticketHistoryRepository.count()).isEqualTo(3);
+
+        // Las consultas por ticket y los reportes leen también el histórico
+        var archived = ticketService.findByCodigoReferencia(completed.getCodigoReferencia());
+        assertThat(archived).isPresent();
+        assertThat(archived.get().status()).isEqualTo(TicketStatus.COMPLETADO);
+        assertThat(archived.get().assignedAdvisor()).isEqualTo("Ana Pérez");
+        assertThat(ticketService.findByNumero("C002")).isPresent();
+        assertThat(adminService.getDashboard().completedTickets()).isEqualTo(3);
+        assertThat(adminService.getDashboard().totalTickets()).isEqualTo(6);
+    }
+
+    private Ticket ticket(String numero, TicketStatus status, Advisor advisor) {
+        return ticketRepository.save(Ticket.builder()
+            .numero(numero)
+            .nationalId("1234567" + numero.charAt(3))
+            .telefono("56912345678")
+            .branchOffice("Sucursal Centro")
+            .queueType(QueueType.CAJA)
+            .status(status)
+            .assignedAdvisor(advisor)
+            .assignedModuleNumber(advisor != null ? advisor.getModuleNumber() : null)
+            .build());
+    }
+
+    private void cleanDatabase() {
+        outboxMessageRepository.deleteAllInBatch();
+        ticketRepository.deleteAllInBatch();
+        ticketHistoryRepository.deleteAllInBatch();
+        jdbcTemplate.update("DELETE FROM advisor_queue");
+        advisorRepository.deleteAllInBatch();
+    }
+}
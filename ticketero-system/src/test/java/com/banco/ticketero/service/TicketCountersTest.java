@@ -0,0 +1,157 @@
+package com.banco.ticketero.service;
+
+import com.banco.ticketero.model.QueueType;
+import com.banco.ticketero.model.TicketStatus;
+import com.banco.ticketero.model.entity.Ticket;
+import com.banco.ticketero.model.entity.TicketHistory;
+import com.banco.ticketero.model.event.TicketStatusChangedEvent;
+import com.banco.ticketero.repository.OutboxMessageRepository;
+import com.banco.ticketero.repository.TicketHistoryRepository;
+import com.banco.ticketero.repository.TicketRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("TicketCounters - Tests")
+class TicketCountersTest {
+
+    @Autowired
+    private TicketCounters ticketCounters;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private TicketHistoryRepository ticketHistoryRepository;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    // Jobs en segundo plano fuera de la prueba
+    @MockBean
+    private TelegramService telegramService;
+
+    @MockBean
+    private TelegramPollingService telegramPollingService;
+
+    @MockBean
+    private TicketProcessingScheduler ticketProcessingScheduler;
+
+    @MockBean
+    private TicketDispatcher ticketDispatcher;
+
+    @BeforeEach
+    void setUp() {
+        cleanDatabase();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanDatabase();
+    }
+
+    @Test
+    @DisplayName("rebuild - cuenta por cola y estado la tabla viva y el histórico")
+    void rebuild_shouldCountLiveAndArchivedTicketsByQueueAndStatus() {
+        ticket("C001", QueueType.CAJA, TicketStatus.EN_ESPERA);
+        ticket("C002", QueueType.CAJA, TicketStatus.EN_ESPERA);
+        ticket("E001", QueueType.EMPRESAS, TicketStatus.ATENDIENDO);
+        archived("C000", QueueType.CAJA, TicketStatus.COMPLETADO);
+
+        ticketCounters.rebuild();
+
+        TicketCounters.Snapshot counts = ticketCounters.snapshot();
+        assertThat(ticketCounters.isReady()).isTrue();
+        assertThat(counts.total()).isEqualTo(4);
+        assertThat(counts.count(QueueType.CAJA, TicketStatus.EN_ESPERA)).isEqualTo(2);
+        assertThat(counts.count(TicketStatus.ATENDIENDO)).isEqualTo(1);
+        assertThat(counts.count(TicketStatus.COMPLETADO)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("snapshotOrQuery - antes de la primera reconstrucción cuenta en la BD; en espera incluye PROXIMO")
+    void snapshotOrQuery_beforeReady_shouldCountInDatabase() {
+        ticket("C001", QueueType.CAJA, TicketStatus.EN_ESPERA);
+        ticket("C002", QueueType.CAJA, TicketStatus.PROXIMO);
+        ticket("G001", QueueType.GERENCIA, TicketStatus.ATENDIENDO);
+        TicketCounters notReady = new TicketCounters(ticketRepository, ticketHistoryRepository);
+
+        TicketCounters.Snapshot counts = notReady.snapshotOrQuery();
+
+        assertThat(notReady.isReady()).isFalse();
+        assertThat(counts.total()).isEqualTo(3);
+        assertThat(counts.waiting(QueueType.CAJA)).isEqualTo(2);
+        assertThat(counts.waiting()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("eventos - mueven el ticket de estado y la resincronización corrige la deriva")
+    void events_shouldMoveCountsAndResyncShouldCorrectDrift() {
+        Ticket waiting = ticket("C001", QueueType.CAJA, TicketStatus.EN_ESPERA);
+        ticketCounters.rebuild();
+
+        ticketCounters.onTicketStatusChanged(event(waiting, TicketStatus.EN_ESPERA, TicketStatus.ATENDIENDO));
+        ticketCounters.onTicketStatusChanged(event(waiting, null, TicketStatus.EN_ESPERA));
+
+        TicketCounters.Snapshot counts = ticketCounters.snapshot();
+        assertThat(counts.count(QueueType.CAJA, TicketStatus.EN_ESPERA)).isEqualTo(1);
+        assertThat(counts.count(QueueType.CAJA, TicketStatus.ATENDIENDO)).isEqualTo(1);
+        assertThat(counts.total()).isEqualTo(2);
+
+        // Los eventos no se reflejaron en la BD: la pasada periódica vuelve a lo real
+        ticketCounters.resync();
+
+        counts = ticketCounters.snapshot();
+        assertThat(counts.count(QueueType.CAJA, TicketStatus.EN_ESPERA)).isEqualTo(1);
+        assertThat(counts.count(QueueType.CAJA, TicketStatus.ATENDIENDO)).isZero();
+        assertThat(counts.total()).isEqualTo(1);
+    }
+
+    private Ticket ticket(String numero, QueueType queueType, TicketStatus status) {
+        return ticketRepository.save(Ticket.builder()
+            .numero(numero)
+            .nationalId("1234567" + numero.charAt(3))
+            .branchOffice("Sucursal Centro")
+            .queueType(queueType)
+            .status(status)
+            .build());
+    }
+
+    private void archived(String numero, QueueType queueType, TicketStatus status) {
+        LocalDateTime now = LocalDateTime.now();
+        ticketHistoryRepository.save(TicketHistory.builder()
+            .codigoReferencia(UUID.randomUUID())
+            .numero(numero)
+            .nationalId("12345678")
+            .branchOffice("Sucursal Centro")
+            .queueType(queueType)
+            .status(status)
+            .expiresAt(now)
+            .createdAt(now.minusHours(1))
+            .archivedAt(now)
+            .build());
+    }
+
+    private static TicketStatusChangedEvent event(Ticket ticket, TicketStatus from, TicketStatus to) {
+        return new TicketStatusChangedEvent(ticket.getCodigoReferencia(), ticket.getNumero(), ticket.getQueueType(),
+            ticket.getCreatedAt(), ticket.getExpiresAt(), from, to, LocalDateTime.now());
+    }
+
+    private void cleanDatabase() {
+        outboxMessageRepository.deleteAllInBatch();
+        ticketRepository.deleteAllInBatch();
+        ticketHistoryRepository.deleteAllInBatch();
+    }
+}
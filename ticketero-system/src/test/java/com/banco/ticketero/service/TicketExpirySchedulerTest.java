@@ -0,0 +1,120 @@
+package com.banco.ticketero.service;
+
+import com.banco.ticketero.model.QueueType;
+import com.banco.ticketero.model.TicketStatus;
+import com.banco.ticketero.model.entity.OutboxMessage;
+import com.banco.ticketero.model.entity.Ticket;
+import com.banco.ticketero.repository.OutboxMessageRepository;
+import com.banco.ticketero.repository.TicketRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = "ticketero.scheduler.cancel-expired.batch-size=2")
+@ActiveProfiles("test")
+@DisplayName("TicketExpiryScheduler - Tests")
+class TicketExpirySchedulerTest {
+
+    @Autowired
+    private TicketExpiryScheduler ticketExpiryScheduler;
+
+    @Autowired
+    private QueuePositionIndex queuePositionIndex;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    // Jobs en segundo plano fuera de la prueba
+    @MockBean
+    private TelegramService telegramService;
+
+    @MockBean
+    private TelegramPollingService telegramPollingService;
+
+    @MockBean
+    private TicketProcessingScheduler ticketProcessingScheduler;
+
+    @MockBean
+    private TicketDispatcher ticketDispatcher;
+
+    @BeforeEach
+    void setUp() {
+        cleanDatabase();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanDatabase();
+        queuePositionIndex.rebuild();
+    }
+
+    @Test
+    @DisplayName("cancelExpired - vence en lotes solo los tickets en cola con la vigencia cumplida")
+    void cancelExpired_shouldExpireOverdueQueuedTicketsOnly() {
+        LocalDateTime past = LocalDateTime.now().minusMinutes(5);
+        Ticket waiting = ticket("C001", TicketStatus.EN_ESPERA, past, "56912345678");
+        Ticket proximo = ticket("C002", TicketStatus.PROXIMO, past, "+56987654321");
+        Ticket withoutPhone = ticket("C003", TicketStatus.EN_ESPERA, past, null);
+        Ticket attending = ticket("C004", TicketStatus.ATENDIENDO, past, "56911111111");
+        Ticket current = ticket("C005", TicketStatus.EN_ESPERA, LocalDateTime.now().plusHours(1), "56922222222");
+        queuePositionIndex.rebuild();
+        assertThat(queuePositionIndex.findPosition(waiting.getCodigoReferencia())).isPresent();
+
+        ticketExpiryScheduler.cancelExpired();
+
+        assertThat(status(waiting)).isEqualTo(TicketStatus.VENCIDO);
+        assertThat(status(proximo)).isEqualTo(TicketStatus.VENCIDO);
+        assertThat(status(withoutPhone)).isEqualTo(TicketStatus.VENCIDO);
+        assertThat(status(attending)).isEqualTo(TicketStatus.ATENDIENDO);
+        assertThat(status(current)).isEqualTo(TicketStatus.EN_ESPERA);
+        Ticket expired = ticketRepository.findById(waiting.getCodigoReferencia()).orElseThrow();
+        assertThat(expired.getCancelReason()).isEqualTo("EXPIRED");
+        assertThat(expired.getCancelledAt()).isNotNull();
+
+        // Un aviso por ticket vencido con chat; sin teléfono no hay a quién avisar
+        assertThat(outboxMessageRepository.findAll())
+            .extracting(OutboxMessage::getPlantilla, OutboxMessage::getChatId)
+            .containsExactlyInAnyOrder(
+                tuple("VENCIDO", "56912345678"),
+                tuple("VENCIDO", "987654321"));
+
+        // El índice en memoria se actualiza por eventos, sin reconstruirlo
+        assertThat(queuePositionIndex.findPosition(waiting.getCodigoReferencia())).isEmpty();
+        assertThat(queuePositionIndex.findPosition(proximo.getCodigoReferencia())).isEmpty();
+        assertThat(queuePositionIndex.findPosition(current.getCodigoReferencia())).isPresent();
+    }
+
+    private Ticket ticket(String numero, TicketStatus status, LocalDateTime expiresAt, String telefono) {
+        return ticketRepository.save(Ticket.builder()
+            .numero(numero)
+            .nationalId("1234567" + numero.charAt(3))
+            .telefono(telefono)
+            .branchOffice("Sucursal Centro")
+            .queueType(QueueType.CAJA)
+            .status(status)
+            .expiresAt(expiresAt)
+            .build());
+    }
+
+    private TicketStatus status(Ticket ticket) {
+        return ticketRepository.findById(ticket.getCodigoReferencia()).orElseThrow().getStatus();
+    }
+
+    private void cleanDatabase() {
+        outboxMessageRepository.deleteAllInBatch();
+        ticketRepository.deleteAllInBatch();
+    }
+}
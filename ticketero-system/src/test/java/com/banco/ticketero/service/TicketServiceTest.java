@@ -1,12 +1,17 @@
 package com.banco.ticketero.service;
 
+import com.banco.ticketero.exception.AmbiguousTicketNumberException;
 import com.banco.ticketero.model.QueueType;
 import com.banco.ticketero.model.TicketStatus;
 import com.banco.ticketero.model.dto.request.CreateTicketRequest;
+import com.banco.ticketero.model.dto.response.ChatTicketResponse;
+import com.banco.ticketero.model.dto.response.PositionResponse;
 import com.banco.ticketero.model.dto.response.TicketResponse;
 import com.banco.ticketero.model.entity.Ticket;
 import com.banco.ticketero.repository.OutboxMessageRepository;
+import com.banco.ticketero.repository.TicketHistoryRepository;
 import com.banco.ticketero.repository.TicketRepository;
+import com.banco.ticketero.repository.TicketRepository.ChatTicketView;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,12 +19,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,9 +40,21 @@ class TicketServiceTest {
     @Mock
     private TicketRepository ticketRepository;
 
+    @Mock
+    private TicketHistoryRepository ticketHistoryRepository;
+
     @Mock
     private OutboxMessageRepository outboxMessageRepository;
 
+    @Mock
+    private TicketNumberAllocator ticketNumberAllocator;
+
+    @Mock
+    private QueuePositionIndex queuePositionIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private TicketService ticketService;
 
@@ -67,6 +90,7 @@ class TicketServiceTest {
         // Given
         when(ticketRepository.save(any(Ticket.class))).thenReturn(savedTicket);
         when(ticketRepository.countPositionInQueue(any(), any())).thenReturn(0L);
+        when(ticketNumberAllocator.nextNumber(any(), any(), any())).thenReturn("C001");
 
         // When
         TicketResponse response = ticketService.create(validRequest);
@@ -78,4 +102,91 @@ class TicketServiceTest {
         assertThat(response.queueType()).isEqualTo(QueueType.CAJA);
         assertThat(response.status()).isEqualTo(TicketStatus.EN_ESPERA);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Posición de ticket en espera se calcula desde el índice sin consultar la BD")
+    void calculatePosition_waitingTicket_usesIndexWithoutRepository() {
+        // Given
+        UUID ticketId = savedTicket.getCodigoReferencia();
+        when(queuePositionIndex.findPosition(ticketId)).thenReturn(Optional.of(
+            new QueuePositionIndex.QueuePosition("C001", QueueType.CAJA, TicketStatus.EN_ESPERA, 3)));
+
+        // When
+        PositionResponse response = ticketService.calculatePosition(ticketId);
+
+        // Then
+        assertThat(response.positionInQueue()).isEqualTo(3);
+        assertThat(response.estimatedWaitMinutes()).isEqualTo(15);
+        verifyNoInteractions(ticketRepository);
+    }
+
+    @Test
+    @DisplayName("Tickets del chat: en espera con posición del índice, atendiendo con su módulo")
+    void findActiveByChatId_shouldUseIndexPositionsAndModule() {
+        // Given
+        UUID waitingId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        when(ticketRepository.findActiveByChatId("123456789")).thenReturn(List.of(
+            view(waitingId, "C001", TicketStatus.EN_ESPERA, now.minusMinutes(5), null),
+            view(UUID.randomUUID(), "C002", TicketStatus.ATENDIENDO, now.minusMinutes(10), 4)));
+        when(queuePositionIndex.findPosition(waitingId)).thenReturn(Optional.of(
+            new QueuePositionIndex.QueuePosition("C001", QueueType.CAJA, TicketStatus.EN_ESPERA, 2)));
+
+        // When
+        List<ChatTicketResponse> tickets = ticketService.findActiveByChatId("123456789");
+
+        // Then
+        assertThat(tickets).containsExactly(
+            new ChatTicketResponse("C001", QueueType.CAJA, TicketStatus.EN_ESPERA, 2, 10, null),
+            new ChatTicketResponse("C002", QueueType.CAJA, TicketStatus.ATENDIENDO, null, 0, 4));
+    }
+
+    @Test
+    @DisplayName("Número repetido hoy en otra sucursal: sin sucursal es 409, con sucursal se resuelve")
+    void findByNumero_repeatedAcrossBranches_requiresBranch() {
+        // Given
+        LocalDate today = LocalDate.now();
+        Ticket otherBranch = Ticket.builder()
+            .codigoReferencia(UUID.randomUUID())
+            .numero("C001")
+            .nationalId("87654321")
+            .telefono("+56987654321")
+            .branchOffice("Sucursal Norte")
+            .queueType(QueueType.CAJA)
+            .status(TicketStatus.EN_ESPERA)
+            .createdAt(savedTicket.getCreatedAt())
+            .build();
+        // Sin fecha la búsqueda se acota al día de hoy
+        when(ticketRepository.findAllByNumero("C001", null, today)).thenReturn(List.of(savedTicket, otherBranch));
+        when(ticketRepository.findAllByNumero("C001", "Sucursal Norte", today)).thenReturn(List.of(otherBranch));
+
+        // When / Then
+        assertThatThrownBy(() -> ticketService.findByNumero("C001"))
+            .isInstanceOf(AmbiguousTicketNumberException.class);
+        assertThat(ticketService.findByNumero("C001", "Sucursal Norte", null))
+            .map(TicketResponse::nationalId)
+            .contains("87654321");
+        assertThat(ticketService.findByNumero("C001", "Sucursal Norte", today.minusDays(1))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("El chat_id se normaliza desde el teléfono al persistir")
+    void chatIdOf_shouldNormalizeTelefono() {
+        assertThat(Ticket.chatIdOf("+56912345678")).isEqualTo("912345678");
+        assertThat(Ticket.chatIdOf("123456789")).isEqualTo("123456789");
+        assertThat(Ticket.chatIdOf("abc")).isNull();
+        assertThat(Ticket.chatIdOf(null)).isNull();
+    }
+
+    private static ChatTicketView view(UUID id, String numero, TicketStatus status, LocalDateTime createdAt,
+                                       Integer module) {
+        return new ChatTicketView() {
+            public UUID getCodigoReferencia() { return id; }
+            public String getNumero() { return numero; }
+            public QueueType getQueueType() { return QueueType.CAJA; }
+            public TicketStatus getStatus() { return status; }
+            public LocalDateTime getCreatedAt() { return createdAt; }
+            public Integer getAssignedModuleNumber() { return module; }
+        };
+    }
+}
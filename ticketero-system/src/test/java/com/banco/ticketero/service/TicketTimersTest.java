@@ -0,0 +1,173 @@
+package com.banco.ticketero.service;
+
+import com.banco.ticketero.model.QueueType;
+import com.banco.ticketero.model.TicketStatus;
+import com.banco.ticketero.model.entity.Advisor;
+import com.banco.ticketero.model.entity.Ticket;
+import com.banco.ticketero.model.event.TicketStatusChangedEvent;
+import com.banco.ticketero.repository.AdvisorRepository;
+import com.banco.ticketero.repository.OutboxMessageRepository;
+import com.banco.ticketero.repository.TicketRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest(properties = {
+    "ticketero.timers.attention-time=1s",
+    "ticketero.timers.tick=100ms",
+    "ticketero.timers.batch-size=2"
+})
+@ActiveProfiles("test")
+@DisplayName("TicketTimers - Tests")
+class TicketTimersTest {
+
+    @Autowired
+    private TicketTimers ticketTimers;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private AdvisorRepository advisorRepository;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @SpyBean
+    private AssignmentService assignmentService;
+
+    // Jobs en segundo plano fuera de la prueba
+    @MockBean
+    private TelegramService telegramService;
+
+    @MockBean
+    private TelegramPollingService telegramPollingService;
+
+    @MockBean
+    private TicketProcessingScheduler ticketProcessingScheduler;
+
+    @MockBean
+    private TicketDispatcher ticketDispatcher;
+
+    @BeforeEach
+    void setUp() {
+        cleanDatabase();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanDatabase();
+    }
+
+    @Test
+    @DisplayName("reload - las atenciones cargadas de la BD se cierran en lote al cumplir su plazo")
+    void attentionDeadlines_shouldCompleteTicketsAndReleaseAdvisors() {
+        LocalDateTime now = LocalDateTime.now();
+        Ticket overdue1 = attending("C001", advisor("ana@banco.cl", 1), now.minusMinutes(1));
+        Ticket overdue2 = attending("C002", advisor("luis@banco.cl", 2), now.minusMinutes(1));
+        Ticket overdue3 = attending("C003", advisor("eva@banco.cl", 3), now.minusSeconds(30));
+        Ticket justAssigned = attending("C004", advisor("juan@banco.cl", 4), now.plusMinutes(10));
+
+        ticketTimers.reload();
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            assertThat(status(overdue1)).isEqualTo(TicketStatus.COMPLETADO);
+            assertThat(status(overdue2)).isEqualTo(TicketStatus.COMPLETADO);
+            assertThat(status(overdue3)).isEqualTo(TicketStatus.COMPLETADO);
+        });
+        assertThat(status(justAssigned)).isEqualTo(TicketStatus.ATENDIENDO);
+        assertThat(advisorRepository.findAll())
+            .filteredOn(advisor -> advisor.getStatus() == Advisor.AdvisorStatus.AVAILABLE)
+            .hasSize(3);
+    }
+
+    @Test
+    @DisplayName("advance - un lote que falla se reprograma al siguiente tick en vez de perderse")
+    void attentionDeadlines_failedBatch_shouldBeRetriedNextTick() {
+        Ticket overdue = attending("C005", advisor("rosa@banco.cl", 5), LocalDateTime.now().minusMinutes(1));
+        doThrow(new IllegalStateException("deadlock detected"))
+            .doCallRealMethod()
+            .when(assignmentService).completeAll(anyCollection());
+
+        ticketTimers.reload();
+
+        await().atMost(Duration.ofSeconds(5))
+            .untilAsserted(() -> assertThat(status(overdue)).isEqualTo(TicketStatus.COMPLETADO));
+    }
+
+    @Test
+    @DisplayName("onTicketStatusChanged - el vencimiento usa el expiresAt guardado, no la vigencia por defecto")
+    void expirations_shouldUseStoredExpiresAt() {
+        LocalDateTime now = LocalDateTime.now();
+        Ticket waiting = ticketRepository.save(Ticket.builder()
+            .numero("C006")
+            .nationalId("12345676")
+            .branchOffice("Sucursal Centro")
+            .queueType(QueueType.CAJA)
+            .status(TicketStatus.EN_ESPERA)
+            .createdAt(now)
+            .expiresAt(now.plusSeconds(1))
+            .build());
+
+        ticketTimers.onTicketStatusChanged(TicketStatusChangedEvent.created(waiting));
+
+        await().atMost(Duration.ofSeconds(5))
+            .untilAsserted(() -> assertThat(status(waiting)).isEqualTo(TicketStatus.VENCIDO));
+    }
+
+    private Advisor advisor(String email, int module) {
+        return advisorRepository.save(Advisor.builder()
+            .name("Asesor " + module)
+            .email(email)
+            .status(Advisor.AdvisorStatus.BUSY)
+            .moduleNumber(module)
+            .assignedTicketsCount(1)
+            .supportedQueues(Set.of(QueueType.CAJA))
+            .build());
+    }
+
+    private Ticket attending(String numero, Advisor advisor, LocalDateTime assignedAt) {
+        Ticket ticket = ticketRepository.save(Ticket.builder()
+            .numero(numero)
+            .nationalId("1234567" + numero.charAt(3))
+            .branchOffice("Sucursal Centro")
+            .queueType(QueueType.CAJA)
+            .status(TicketStatus.ATENDIENDO)
+            .assignedAdvisor(advisor)
+            .assignedModuleNumber(advisor.getModuleNumber())
+            .build());
+        jdbcTemplate.update("UPDATE ticket SET updated_at = ? WHERE numero = ?", assignedAt, numero);
+        return ticket;
+    }
+
+    private TicketStatus status(Ticket ticket) {
+        return ticketRepository.findById(ticket.getCodigoReferencia()).orElseThrow().getStatus();
+    }
+
+    private void cleanDatabase() {
+        outboxMessageRepository.deleteAllInBatch();
+        ticketRepository.deleteAllInBatch();
+        jdbcTemplate.update("DELETE FROM advisor_queue");
+        advisorRepository.deleteAllInBatch();
+    }
+}
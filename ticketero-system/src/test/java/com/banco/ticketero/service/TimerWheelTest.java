@@ -0,0 +1,67 @@
+package com.banco.ticketero.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("TimerWheel - Unit Tests")
+class TimerWheelTest {
+
+    private static final Duration TICK = Duration.ofMillis(100);
+
+    @Test
+    void advance_shouldFireAtDeadlineAndNeverBefore() {
+        TimerWheel<String> wheel = new TimerWheel<>(TICK, 8, 0);
+        wheel.schedule("a", 250);
+        wheel.schedule("b", 300);
+
+        assertThat(wheel.advance(200)).isEmpty();
+        assertThat(wheel.advance(299)).isEmpty();
+        assertThat(wheel.advance(300)).containsExactlyInAnyOrder("a", "b");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void advance_shouldKeepTimersOfLaterRoundsInTheirSlot() {
+        TimerWheel<String> wheel = new TimerWheel<>(TICK, 8, 0);
+        // Misma casilla (tick 2 y tick 10 en una rueda de 8)
+        wheel.schedule("now", 200);
+        wheel.schedule("next-round", 1_000);
+
+        assertThat(wheel.advance(200)).containsExactly("now");
+        assertThat(wheel.advance(900)).isEmpty();
+        assertThat(wheel.advance(1_000)).containsExactly("next-round");
+    }
+
+    @Test
+    void advance_afterLongPause_shouldFireEverythingOverdueOnce() {
+        TimerWheel<Integer> wheel = new TimerWheel<>(TICK, 8, 0);
+        for (int i = 1; i <= 50; i++) {
+            wheel.schedule(i, i * 100L);
+        }
+
+        assertThat(wheel.advance(3_000)).hasSize(30);
+        assertThat(wheel.advance(10_000)).hasSize(20);
+        assertThat(wheel.advance(20_000)).isEmpty();
+    }
+
+    @Test
+    void scheduleAndCancel_shouldReplaceOrDropTheKeysTimer() {
+        TimerWheel<String> wheel = new TimerWheel<>(TICK, 8, 0);
+        wheel.schedule("moved", 200);
+        wheel.schedule("moved", 500);
+        wheel.schedule("cancelled", 200);
+        wheel.schedule("overdue", -1_000);
+
+        assertThat(wheel.cancel("cancelled")).isTrue();
+        assertThat(wheel.cancel("unknown")).isFalse();
+        assertThat(wheel.size()).isEqualTo(2);
+        // Un plazo ya cumplido sale en el próximo tick
+        assertThat(wheel.advance(100)).containsExactly("overdue");
+        assertThat(wheel.advance(400)).isEmpty();
+        assertThat(wheel.advance(500)).containsExactly("moved");
+    }
+}
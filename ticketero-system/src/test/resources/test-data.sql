@@ -7,8 +7,20 @@ DELETE FROM ticket;
 DELETE FROM advisor;
 
 -- Insertar asesores de prueba
-INSERT INTO advisor (name, email, status, module_number, supported_queues, assigned_tickets_count) VALUES 
-('Ana García Test', 'ana.garcia.test@banco.cl', 'AVAILABLE', 1, ARRAY['CAJA', 'PERSONAL_BANKER'], 0),
-('Carlos López Test', 'carlos.lopez.test@banco.cl', 'AVAILABLE', 2, ARRAY['PERSONAL_BANKER', 'EMPRESAS'], 0),
-('María Rodríguez Test', 'maria.rodriguez.test@banco.cl', 'AVAILABLE', 3, ARRAY['EMPRESAS', 'GERENCIA'], 0),
-('Juan Pérez Test', 'juan.perez.test@banco.cl', 'AVAILABLE', 4, ARRAY['CAJA'], 0);
\ No newline at end of file
+INSERT INTO advisor (name, email, status, module_number, assigned_tickets_count) VALUES 
+('Ana García Test', 'ana.garcia.test@banco.cl', 'AVAILABLE', 1, 0),
+('Carlos López Test', 'carlos.lopez.test@banco.cl', 'AVAILABLE', 2, 0),
+('María Rodríguez Test', 'maria.rodriguez.test@banco.cl', 'AVAILABLE', 3, 0),
+('Juan Pérez Test', 'juan.perez.test@banco.cl', 'AVAILABLE', 4, 0);
+
+INSERT INTO advisor_queue (advisor_id, queue_type)
+SELECT a.id, q.queue_type FROM advisor a
+JOIN (VALUES
+    ('ana.garcia.test@banco.cl', 'CAJA'),
+    ('ana.garcia.test@banco.cl', 'PERSONAL_BANKER'),
+    ('carlos.lopez.test@banco.cl', 'PERSONAL_BANKER'),
+    ('carlos.lopez.test@banco.cl', 'EMPRESAS'),
+    ('maria.rodriguez.test@banco.cl', 'EMPRESAS'),
+    ('maria.rodriguez.test@banco.cl', 'GERENCIA'),
+    ('juan.perez.test@banco.cl', 'CAJA')
+) AS q(email, queue_type) ON q.email = a.email;
\ No newline at end of file